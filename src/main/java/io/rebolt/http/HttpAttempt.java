@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http;
+
+import io.rebolt.core.models.IModel;
+import io.rebolt.core.utils.HashUtil;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 요청 1회 시도(attempt)의 결과
+ * <p>
+ * 재시도가 발생한 요청은 시도마다 하나씩 기록되어 {@link HttpResponse#getAttempts()}로 전달된다.
+ *
+ * @since 1.2.0
+ */
+@ToString
+@Getter
+public final class HttpAttempt implements IModel<HttpAttempt> {
+  private static final long serialVersionUID = -3187466210535284519L;
+  private final int attempt; // 0: 최초 요청, 1~: 재시도
+  private final int statusCode; // 응답을 받지 못했으면 0
+  private final long elapsedTime; // 단위: millisecond
+  private final String exception;
+
+  public HttpAttempt(int attempt, int statusCode, long elapsedTime, String exception) {
+    this.attempt = attempt;
+    this.statusCode = statusCode;
+    this.elapsedTime = elapsedTime;
+    this.exception = exception;
+  }
+
+  public boolean hasResponse() {
+    return statusCode > 0;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return false;
+  }
+
+  @Override
+  public long deepHash() {
+    return HashUtil.deepHash(attempt, statusCode, elapsedTime, exception);
+  }
+
+  @Override
+  public boolean equals(HttpAttempt httpAttempt) {
+    return httpAttempt != null && httpAttempt.deepHash() == this.deepHash();
+  }
+}
@@ -18,14 +18,18 @@ package io.rebolt.http;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.net.MediaType;
+import io.rebolt.core.exceptions.IllegalParameterException;
 import io.rebolt.core.models.IModel;
 import io.rebolt.core.utils.HashUtil;
 import io.rebolt.core.utils.ObjectUtil;
 import io.rebolt.http.converters.Converter;
 import io.rebolt.http.converters.ConverterTable;
+import io.rebolt.http.engines.RetryPolicy;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.util.concurrent.TimeUnit;
+
 import static io.rebolt.http.HttpMethod.Get;
 
 /**
@@ -45,6 +49,17 @@ public class HttpRequest implements IModel<HttpRequest> {
   private String uri;
   private HttpForm form;
   private Object body;
+  private boolean stream; // true이면 응답 본문을 HttpStream으로 전달한다
+  private boolean idempotent; // true이면 GET, HEAD 외의 메소드도 같은 요청을 여러 번 보낼 수 있다
+  private transient RetryPolicy retryPolicy; // null이면 통신엔진의 재시도 정책을 사용한다
+  private transient long deadline; // System.nanoTime() 기준, 0이면 제한 없음
+  // 요청별 설정 (null이면 통신엔진의 설정을 사용한다)
+  private transient Integer connectTimeout;
+  private transient Integer readTimeout;
+  private transient Integer writeTimeout;
+  private transient Integer callTimeout;
+  private transient Integer retryCount;
+  private transient Boolean followRedirects;
 
   /**
    * HttpRequest 생성. Request, Respone 타입은 기본값으로 설정된다.
@@ -150,8 +165,168 @@ public class HttpRequest implements IModel<HttpRequest> {
     return this;
   }
 
+  /**
+   * 스트리밍 응답. 성공 응답(2xx)의 본문을 메모리에 모으지 않고 {@link HttpStream}으로 전달한다.
+   * 실패 응답은 기존과 같이 에러 객체로 변환된다.
+   * <p>
+   * 전달받은 {@link HttpStream}은 반드시 닫아야 한다.
+   *
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest stream() {
+    this.stream = true;
+    return this;
+  }
+
+  /**
+   * 멱등(idempotent) 요청 표시. 같은 요청을 여러 번 보내도 결과가 같은 요청은 헤징({@link io.rebolt.http.engines.HedgePolicy}), 재시도({@link RetryPolicy}) 대상이 된다.
+   * GET, HEAD는 표시하지 않아도 멱등 요청으로 취급한다.
+   *
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest idempotent() {
+    this.idempotent = true;
+    return this;
+  }
+
+  /**
+   * 요청별 재시도 정책. 통신엔진에 설정된 재시도 정책 대신 사용한다.
+   *
+   * @param retryPolicy {@link RetryPolicy}
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest retryPolicy(RetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+    return this;
+  }
+
+  /**
+   * 요청 deadline. 지금부터 timeout이 지나면 재시도, 재시도 대기, 비동기 대기큐를 포함한 요청 전체를 중단하고
+   * 494 (Deadline exceeded)로 실패한다. 시도별 타임아웃은 남은 시간으로 줄여서 적용한다.
+   *
+   * @param timeout 제한시간
+   * @param unit 제한시간 단위
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest deadline(long timeout, TimeUnit unit) {
+    long at = System.nanoTime() + unit.toNanos(timeout);
+    this.deadline = at == 0 ? 1 : at;
+    return this;
+  }
+
+  /**
+   * 요청별 커넥션 타임아웃. 통신엔진의 connectionTimeout 대신 사용한다.
+   *
+   * @param connectTimeout 타임아웃 (단위: millisecond, 0이면 제한 없음)
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest connectTimeout(int connectTimeout) {
+    this.connectTimeout = requireTimeout(connectTimeout);
+    return this;
+  }
+
+  /**
+   * 요청별 데이터수신 타임아웃. 통신엔진의 readTimeout 대신 사용한다.
+   *
+   * @param readTimeout 타임아웃 (단위: millisecond, 0이면 제한 없음)
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest readTimeout(int readTimeout) {
+    this.readTimeout = requireTimeout(readTimeout);
+    return this;
+  }
+
+  /**
+   * 요청별 데이터송신 타임아웃. 통신엔진의 writeTimeout 대신 사용한다.
+   *
+   * @param writeTimeout 타임아웃 (단위: millisecond, 0이면 제한 없음)
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest writeTimeout(int writeTimeout) {
+    this.writeTimeout = requireTimeout(writeTimeout);
+    return this;
+  }
+
+  /**
+   * 시도별 전체 타임아웃. 한 번의 시도가 응답 헤더를 받을 때까지 이 시간을 넘으면 시도를 취소한다. (재시도 대상이면 재시도한다)
+   * 재시도를 포함한 전체 시간은 {@link #deadline(long, TimeUnit)}으로 제한한다.
+   *
+   * @param callTimeout 타임아웃 (단위: millisecond, 0이면 제한 없음)
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest callTimeout(int callTimeout) {
+    this.callTimeout = requireTimeout(callTimeout);
+    return this;
+  }
+
+  /**
+   * 요청별 재시도 횟수. 통신엔진의 retryCount와 {@link RetryPolicy}의 maxRetries 대신 사용한다.
+   *
+   * @param retryCount 재시도 횟수
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest retryCount(int retryCount) {
+    this.retryCount = Math.max(0, retryCount);
+    return this;
+  }
+
+  /**
+   * 리다이렉트(3xx) 응답을 따라갈지 여부. 통신엔진의 설정과 다르면 커넥션풀을 공유하는 파생 클라이언트로 요청한다.
+   * 지정한 요청은 {@link io.rebolt.http.cache.HttpCache}를 사용하지 않는다.
+   *
+   * @param followRedirects false이면 3xx 응답을 그대로 전달한다
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest followRedirects(boolean followRedirects) {
+    this.followRedirects = followRedirects;
+    return this;
+  }
+
+  private static int requireTimeout(int timeout) {
+    if (timeout < 0) {
+      throw new IllegalParameterException("-timeout: " + timeout + " (expected: 0 ~)");
+    }
+    return timeout;
+  }
+
   // endregion
 
+  /**
+   * 요청 복제. 헤더는 복사하고 본문 등 나머지 값은 공유한다. 원본 요청을 바꾸지 않고 헤더를 추가할 때 사용한다.
+   *
+   * @return {@link HttpRequest}
+   * @since 1.2.0
+   */
+  public HttpRequest copy() {
+    HttpRequest copy = new HttpRequest(requestType, responseType);
+    copy.header = HttpHeader.createForResponse().addAll(header);
+    copy.method = method;
+    copy.uri = uri;
+    copy.form = form;
+    copy.body = body;
+    copy.stream = stream;
+    copy.idempotent = idempotent;
+    copy.retryPolicy = retryPolicy;
+    copy.deadline = deadline;
+    copy.connectTimeout = connectTimeout;
+    copy.readTimeout = readTimeout;
+    copy.writeTimeout = writeTimeout;
+    copy.callTimeout = callTimeout;
+    copy.retryCount = retryCount;
+    copy.followRedirects = followRedirects;
+    return copy;
+  }
+
   /**
    * 목적지의 Endpoint를 가져온다. 만약 {@link HttpMethod}가 Get방식이고, {@link HttpForm}이 추가되었다면 QueryString으로 사용한다.
    *
@@ -165,6 +340,46 @@ public class HttpRequest implements IModel<HttpRequest> {
     return endpoint.toString();
   }
 
+  /**
+   * 멱등 요청 여부
+   *
+   * @return GET, HEAD이거나 {@link #idempotent()}로 표시된 요청이면 true
+   * @since 1.2.0
+   */
+  public boolean isIdempotent() {
+    return idempotent || method == Get || method == HttpMethod.Head;
+  }
+
+  /**
+   * deadline 지정 여부
+   *
+   * @return {@link #deadline(long, TimeUnit)}로 deadline을 지정했으면 true
+   * @since 1.2.0
+   */
+  public boolean hasDeadline() {
+    return deadline != 0;
+  }
+
+  /**
+   * deadline까지 남은 시간
+   *
+   * @return 남은 시간 (단위: millisecond, deadline이 없으면 Long.MAX_VALUE, 지났으면 0 이하)
+   * @since 1.2.0
+   */
+  public long getRemainingTime() {
+    return hasDeadline() ? TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) : Long.MAX_VALUE;
+  }
+
+  /**
+   * deadline 초과 여부
+   *
+   * @return deadline이 지났으면 true
+   * @since 1.2.0
+   */
+  public boolean isExpired() {
+    return hasDeadline() && deadline - System.nanoTime() <= 0;
+  }
+
   public boolean isBody() {
     return !ObjectUtil.isNull(body);
   }
@@ -174,9 +389,13 @@ public class HttpRequest implements IModel<HttpRequest> {
     return ObjectUtil.isOrNull(method, body) || ObjectUtil.isEmpty(uri);
   }
 
+  /**
+   * 요청의 동일성 해시. 요청별 설정 중 응답을 바꾸는 followRedirects는 포함하고, 타임아웃, 재시도 설정은 포함하지 않는다.
+   * (동일 요청 합치기에서 리다이렉트 설정이 다른 요청이 합쳐지지 않도록 한다)
+   */
   @Override
   public long deepHash() {
-    return HashUtil.deepHash(header, method, uri, body);
+    return HashUtil.deepHash(header, method, uri, body, followRedirects);
   }
 
   @Override
@@ -24,6 +24,8 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.util.List;
+
 /**
  * HttpResponse
  *
@@ -41,6 +43,8 @@ public class HttpResponse<R, E> implements IModel<HttpResponse> {
   private R body;
   private E error; // handled error message
   private HttpException exception; // unhandled exception
+  private List<HttpAttempt> attempts; // 재시도를 포함한 시도별 결과 (비동기 요청)
+  private long bodyLength = -1; // 변환하기 전에 읽은 응답 본문 크기 (단위: byte, 모르면 -1)
 
   public HttpResponse() {}
 
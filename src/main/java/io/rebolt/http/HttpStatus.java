@@ -30,10 +30,12 @@ public enum HttpStatus {
 
   // 2xx
   OK_200(200, "ok"),
+  CREATED_201(201, "created"),
   NO_CONTENT_204(204, "no_content"),
 
   // 3xx
   FOUND_302(302, "found"),
+  NOT_MODIFIED_304(304, "not_modified"),
 
   // 4xx
   BAD_REQUEST_400(400, "bad_request"),
@@ -43,13 +45,21 @@ public enum HttpStatus {
   METHOD_NOT_ALLOWED_405(405, "method_not_allowed"),
   NOT_ACCEPTABLE_406(406, "not_acceptable"),
   REQUEST_TIMEOUT_408(408, "request_timeout"),
+  CONFLICT_409(409, "conflict"),
+  UNPROCESSABLE_ENTITY_422(422, "unprocessable_entity"),
   TOO_MANY_REQUESTS_429(429, "too_many_requests"),
 
+  DEADLINE_EXCEEDED_494(494, "deadline_exceeded"), // HttpRequest deadline 초과
+  RATE_LIMITED_495(495, "rate_limited"), // RateLimiter 거절
+  CIRCUIT_OPEN_496(496, "circuit_open"), // CircuitBreaker 차단
+  REQUEST_REJECTED_497(497, "request_rejected"), // BoundedSubmitter 대기큐 초과
+  LIMIT_EXCEEDED_498(498, "limit_exceeded"), // AdaptiveLimiter 거절
   REQUEST_FAILED_499(499, "request_failed"),
 
   // 5xx
   INTERNAL_SERVER_ERROR_500(500, "internal_server_error"),
   NOT_IMPLEMENTED_501(501, "not_implemented"),
+  BAD_GATEWAY_502(502, "bad_gateway"),
   SERVICE_UNAVAILABLE_503(503, "service_unavailable"),
   GATEWAY_TIMEOUT_504(504, "gateway_timeout");
 
@@ -65,8 +75,34 @@ public enum HttpStatus {
     return code < 200 || code >= 400;
   }
 
+  /**
+   * 응답코드에 해당하는 {@link HttpStatus}
+   * <p>
+   * 정의되지 않은 응답코드는 같은 분류(2xx, 3xx, 4xx, 5xx)의 대표값으로 대체한다. (예: 418 → 400, 507 → 500)
+   *
+   * @param code 응답코드
+   * @return {@link HttpStatus} (100 ~ 599 범위를 벗어나면 null)
+   */
   public static HttpStatus lookup(Integer code) {
-    return codeMap.get(code);
+    if (code == null) {
+      return null;
+    }
+    HttpStatus status = codeMap.get(code);
+    if (status != null || code < 100 || code >= 600) {
+      return status;
+    }
+    switch (code / 100) {
+      case 1:
+        return CONTINUE_100;
+      case 2:
+        return OK_200;
+      case 3:
+        return FOUND_302;
+      case 4:
+        return BAD_REQUEST_400;
+      default:
+        return INTERNAL_SERVER_ERROR_500;
+    }
   }
 
   private static final Map<Integer, HttpStatus> codeMap = Maps.newHashMapWithExpectedSize(HttpStatus.values().length);
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http;
+
+import io.rebolt.http.utils.BufferPool;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 스트리밍 응답 본문 ({@link HttpRequest#stream()})
+ * <p>
+ * 응답 본문을 메모리에 모으지 않고 커넥션에서 바로 읽는다. 커넥션을 반환하려면 반드시 닫아야 하며,
+ * 끝까지 읽었거나 {@link #consume(ChunkHandler)}, {@link #transferTo(OutputStream)}가 끝나면
+ * (예외가 발생한 경우 포함) 자동으로 닫힌다.
+ *
+ * @since 1.2.0
+ */
+public final class HttpStream implements Closeable {
+  private static final int CHUNK_SIZE = 8192;
+
+  private final InputStream source;
+  private final InputStream inputStream;
+  private final long contentLength;
+  private final String contentType;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  /**
+   * @param inputStream 응답 본문
+   * @param contentLength 본문 크기 (알 수 없으면 -1)
+   * @param contentType Content-Type (없으면 null)
+   */
+  public HttpStream(InputStream inputStream, long contentLength, String contentType) {
+    this.source = inputStream;
+    this.inputStream = new AutoCloseInputStream(inputStream);
+    this.contentLength = contentLength;
+    this.contentType = contentType;
+  }
+
+  /**
+   * 본문 조각을 처리하는 콜백. buffer는 재사용되므로 콜백이 끝난 뒤에는 참조하지 않는다.
+   */
+  @FunctionalInterface
+  public interface ChunkHandler {
+    void onChunk(byte[] buffer, int offset, int length) throws IOException;
+  }
+
+  /**
+   * 응답 본문. 끝까지 읽으면 자동으로 닫힌다.
+   *
+   * @return {@link InputStream}
+   */
+  public InputStream getInputStream() {
+    return inputStream;
+  }
+
+  /**
+   * 응답 본문. 끝까지 읽으면 자동으로 닫힌다.
+   *
+   * @return {@link ReadableByteChannel}
+   */
+  public ReadableByteChannel getChannel() {
+    return Channels.newChannel(inputStream);
+  }
+
+  /**
+   * 본문 크기
+   *
+   * @return 본문 크기 (알 수 없으면 -1)
+   */
+  public long getContentLength() {
+    return contentLength;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * 본문을 조각(최대 8KB) 단위로 읽어 handler에 전달한다. 끝나면 스트림을 닫는다.
+   *
+   * @param handler {@link ChunkHandler}
+   * @return 읽은 크기
+   * @throws IOException 본문 수신 실패, handler에서 발생한 예외
+   */
+  public long consume(ChunkHandler handler) throws IOException {
+    byte[] buffer = BufferPool.lease(CHUNK_SIZE);
+    try {
+      long total = 0;
+      int read;
+      while ((read = inputStream.read(buffer, 0, CHUNK_SIZE)) != -1) {
+        handler.onChunk(buffer, 0, read);
+        total += read;
+      }
+      return total;
+    } finally {
+      BufferPool.release(buffer);
+      close();
+    }
+  }
+
+  /**
+   * 본문을 {@link OutputStream}으로 복사한다. 끝나면 스트림을 닫는다. ({@link OutputStream}은 닫지 않는다)
+   *
+   * @param outputStream {@link OutputStream}
+   * @return 복사한 크기
+   * @throws IOException 본문 수신, 전송 실패
+   */
+  public long transferTo(OutputStream outputStream) throws IOException {
+    return consume(outputStream::write);
+  }
+
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      try {
+        source.close();
+      } catch (IOException ignored) {
+        // ignored...
+      }
+    }
+  }
+
+  /**
+   * 끝까지 읽으면 스스로 닫는 {@link InputStream}
+   */
+  private final class AutoCloseInputStream extends FilterInputStream {
+    private AutoCloseInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int read = closed.get() ? -1 : super.read();
+      if (read == -1) {
+        HttpStream.this.close();
+      }
+      return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = closed.get() ? -1 : super.read(buffer, offset, length);
+      if (read == -1) {
+        HttpStream.this.close();
+      }
+      return read;
+    }
+
+    @Override
+    public void close() {
+      HttpStream.this.close();
+    }
+  }
+}
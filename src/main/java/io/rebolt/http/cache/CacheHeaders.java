@@ -0,0 +1,193 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.rebolt.http.cache;
+
+import com.google.common.collect.Maps;
+import io.rebolt.core.utils.StringUtil;
+import io.rebolt.http.HttpHeader;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cache-Control, Expires 등 캐시 관련 헤더 해석기
+ *
+ * @since 1.2.0
+ */
+final class CacheHeaders {
+  static final String CACHE_CONTROL = "Cache-Control";
+  static final String ETAG = "ETag";
+  static final String LAST_MODIFIED = "Last-Modified";
+  static final String EXPIRES = "Expires";
+  static final String DATE = "Date";
+  static final String AGE = "Age";
+  static final String VARY = "Vary";
+  static final String CONTENT_LENGTH = "Content-Length";
+  static final String IF_NONE_MATCH = "If-None-Match";
+  static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+  static final String AUTHORIZATION = "Authorization";
+
+  private CacheHeaders() {
+  }
+
+  /**
+   * 헤더 조회 (이름 대소문자 구분 안함)
+   */
+  static String get(HttpHeader header, String name) {
+    if (header == null) {
+      return null;
+    }
+    String value = header.get(name);
+    if (value != null) {
+      return value;
+    }
+    for (Map.Entry<String, String> entry : header.getHeaderMap().entrySet()) {
+      if (name.equalsIgnoreCase(entry.getKey())) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Cache-Control 지시자 (키: 소문자 지시자, 값: 인자, 인자가 없으면 빈 문자열)
+   * <p>
+   * 통신엔진은 같은 이름의 헤더를 "; "로 합치므로 ','와 ';'를 모두 구분자로 사용한다.
+   */
+  static Map<String, String> cacheControl(HttpHeader header) {
+    Map<String, String> directives = Maps.newHashMap();
+    String value = get(header, CACHE_CONTROL);
+    if (StringUtil.isNullOrEmpty(value)) {
+      return directives;
+    }
+    for (String token : value.split("[,;]")) {
+      String directive = token.trim();
+      if (directive.isEmpty()) {
+        continue;
+      }
+      int index = directive.indexOf('=');
+      if (index < 0) {
+        directives.put(directive.toLowerCase(Locale.ROOT), "");
+      } else {
+        directives.put(directive.substring(0, index).trim().toLowerCase(Locale.ROOT),
+            directive.substring(index + 1).trim().replace("\"", ""));
+      }
+    }
+    return directives;
+  }
+
+  /**
+   * 공유 캐시에 저장할 수 있는 응답인지 여부 (RFC 7234 3, 3.2)
+   * <p>
+   * no-store, private 응답은 저장하지 않는다. Authorization 헤더가 있는 요청의 응답은 public, s-maxage, must-revalidate 중
+   * 하나가 있을 때만 저장한다. 다른 사용자의 인증 정보로 받은 응답이 전달되지 않도록 하기 위함이다.
+   *
+   * @param requestHeader 요청 헤더
+   * @param directives 응답의 Cache-Control 지시자
+   */
+  static boolean isShareable(HttpHeader requestHeader, Map<String, String> directives) {
+    if (directives.containsKey("no-store") || directives.containsKey("private")) {
+      return false;
+    }
+    return get(requestHeader, AUTHORIZATION) == null
+        || directives.containsKey("public") || directives.containsKey("s-maxage") || directives.containsKey("must-revalidate");
+  }
+
+  /**
+   * 초 단위 인자 (없거나 잘못된 값이면 -1)
+   */
+  static long seconds(Map<String, String> directives, String directive) {
+    String value = directives.get(directive);
+    if (StringUtil.isNullOrEmpty(value)) {
+      return -1;
+    }
+    try {
+      return Math.max(0, Long.parseLong(value));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * 신선도가 지난 뒤 응답을 계속 사용할 수 있는 시간 (stale-while-revalidate, stale-if-error, 단위: millisecond)
+   *
+   * @param defaultWindow 지시자가 없을 때 사용할 값
+   */
+  static long staleWindow(Map<String, String> directives, String directive, long defaultWindow) {
+    long seconds = seconds(directives, directive);
+    return seconds >= 0 ? seconds * 1000 : defaultWindow;
+  }
+
+  /**
+   * HTTP-date 해석 (단위: millisecond, 없거나 잘못된 값이면 -1)
+   */
+  static long date(HttpHeader header, String name) {
+    String value = get(header, name);
+    if (StringUtil.isNullOrEmpty(value)) {
+      return -1;
+    }
+    try {
+      return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * 응답의 신선도 유지시간 (단위: millisecond)
+   * <p>
+   * s-maxage, max-age, Expires, Last-Modified 기반 추정(경과시간의 10%) 순서로 계산하며 Age만큼 뺀다.
+   * no-cache이면 0을 반환한다. (저장은 하되 매번 재검증)
+   */
+  static long freshness(HttpHeader header, Map<String, String> directives, long now) {
+    if (directives.containsKey("no-cache")) {
+      return 0;
+    }
+    long date = date(header, DATE);
+    long served = date > 0 ? date : now;
+    long lifetime;
+    long maxAge = seconds(directives, "s-maxage"); // 공유 캐시는 s-maxage를 우선한다
+    if (maxAge < 0) {
+      maxAge = seconds(directives, "max-age");
+    }
+    long expires;
+    long lastModified;
+    if (maxAge >= 0) {
+      lifetime = maxAge * 1000;
+    } else if ((expires = date(header, EXPIRES)) >= 0) {
+      lifetime = expires - served;
+    } else if ((lastModified = date(header, LAST_MODIFIED)) > 0 && lastModified < served) {
+      lifetime = (served - lastModified) / 10;
+    } else {
+      lifetime = 0;
+    }
+    long age = -1;
+    String ageValue = get(header, AGE);
+    if (!StringUtil.isNullOrEmpty(ageValue)) {
+      try {
+        age = Long.parseLong(ageValue.trim());
+      } catch (NumberFormatException ignored) {
+        // ignored...
+      }
+    }
+    return Math.max(0, lifetime - Math.max(0, age) * 1000);
+  }
+}
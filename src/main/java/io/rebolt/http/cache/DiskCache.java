@@ -0,0 +1,734 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.rebolt.http.cache;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import io.rebolt.core.utils.LogUtil;
+import io.rebolt.core.utils.ObjectUtil;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DiskCache
+ * <p>
+ * 큰 응답 본문을 보관하는 디스크 저장소. 본문은 세그먼트 파일(segment-N)에 이어 붙이기만 하고(append-only, 세그먼트 크기 이상인 본문은 단독 세그먼트),
+ * 키와 위치를 담은 색인(index)은 변경분만 저널로 이어 쓰므로 프로세스를 다시 시작해도 그대로 사용할 수 있다.
+ * 저널은 열고 닫을 때, 그리고 변경분이 색인보다 충분히 많아지면 현재 색인으로 다시 쓴다. (compaction)
+ * <p>
+ * 조회한 본문은 {@link MappedByteBuffer}의 읽기 전용 뷰({@link Snapshot#getBody()})로 전달되므로 힙으로 복사하지 않는다.
+ * 세그먼트 전체 크기가 maximumSize를 넘으면 가장 오래된 세그먼트부터 통째로 지운다. (FIFO)
+ * 덮어쓰거나 지운 본문이 차지하던 공간도 해당 세그먼트가 지워질 때 회수된다.
+ * <p>
+ * 하나의 디렉토리는 하나의 {@link DiskCache}(프로세스)만 사용해야 한다.
+ *
+ * @since 1.2.0
+ */
+public final class DiskCache implements Closeable {
+  private static final String INDEX = "index";
+  private static final String SEGMENT = "segment-";
+  private static final String TEMP = "tmp-";
+  private static final int VERSION = 2;
+  private static final int PUT = 1;
+  private static final int REMOVE = 2;
+  private static final int MAX_UTF_LENGTH = 65535; // DataOutput#writeUTF 제한
+  private static final int COMPACTION_THRESHOLD = 1024; // 저널 레코드 수가 이 값과 색인 크기의 4배보다 많으면 다시 쓴다
+
+  private final @Getter Path directory;
+  private final @Getter long maximumSize;
+  private final @Getter long segmentSize;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<String, Record> index = Maps.newHashMap();
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private Segment active;
+  private OutputStream journal;
+  private int journalRecords;
+
+  private DiskCache(Builder builder) throws IOException {
+    this.directory = builder.directory;
+    this.maximumSize = builder.maximumSize;
+    this.segmentSize = builder.segmentSize;
+    Files.createDirectories(directory);
+    open();
+  }
+
+  /**
+   * 본문 조회
+   *
+   * @param key 키
+   * @return {@link Snapshot} (없으면 null)
+   * @since 1.2.0
+   */
+  public Snapshot get(String key) {
+    lock.lock();
+    try {
+      Record record = index.get(key);
+      if (record == null) {
+        return null;
+      }
+      Segment segment = segments.get(record.segment);
+      try {
+        return new Snapshot(segment.slice(record.offset, record.length), record.metadata);
+      } catch (IOException e) {
+        LogUtil.logger().warn("-http disk cache read failed: {}", e.getMessage());
+        index.remove(key);
+        return null;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 본문 저장 시작. {@link Editor}에 본문을 쓰고 {@link Editor#commit()}하면 저장된다.
+   *
+   * @param key 키
+   * @param metadata 본문과 함께 보관할 값 (헤더 등)
+   * @return {@link Editor}
+   * @throws IOException 임시 파일 생성 실패
+   * @since 1.2.0
+   */
+  public Editor edit(String key, Map<String, String> metadata) throws IOException {
+    ObjectUtil.requireNonNull(key, metadata);
+    return new Editor(key, metadata);
+  }
+
+  /**
+   * 본문은 그대로 두고 함께 보관한 값만 바꾼다. (재검증 후 헤더 갱신 등)
+   *
+   * @param key 키
+   * @param metadata 본문과 함께 보관할 값
+   * @since 1.2.0
+   */
+  public void updateMetadata(String key, Map<String, String> metadata) {
+    lock.lock();
+    try {
+      Record record = index.get(key);
+      if (record != null) {
+        Record updated = new Record(record.segment, record.offset, record.length, ImmutableMap.copyOf(metadata));
+        index.put(key, updated);
+        writeJournal(PUT, key, updated);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 본문 삭제. 디스크 공간은 세그먼트가 지워질 때 회수된다.
+   *
+   * @param key 키
+   * @since 1.2.0
+   */
+  public void remove(String key) {
+    lock.lock();
+    try {
+      if (index.remove(key) != null) {
+        writeJournal(REMOVE, key, null);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 저장된 본문 수
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return index.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 세그먼트 파일 크기의 합 (단위: byte)
+   */
+  public long getDiskSize() {
+    lock.lock();
+    try {
+      return segments.values().stream().mapToLong(segment -> segment.length).sum();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (journal != null) {
+        compact();
+        closeJournal();
+      }
+      for (Segment segment : segments.values()) {
+        segment.close();
+      }
+      segments.clear();
+      index.clear();
+      active = null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // region storage
+
+  private void open() throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        if (name.startsWith(TEMP)) {
+          Files.deleteIfExists(file); // 저장 도중 종료된 본문
+        } else if (name.startsWith(SEGMENT)) {
+          try {
+            int id = Integer.parseInt(name.substring(SEGMENT.length()));
+            segments.put(id, new Segment(id, file));
+          } catch (NumberFormatException ignored) {
+            // ignored...
+          }
+        }
+      }
+    }
+    loadIndex();
+    compact();
+  }
+
+  /**
+   * 저널을 처음부터 다시 적용한다. 기록 도중 종료되어 잘린 마지막 레코드는 버린다.
+   */
+  private void loadIndex() {
+    Path file = directory.resolve(INDEX);
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (input.readInt() != VERSION) {
+        return;
+      }
+      int operation;
+      while ((operation = input.read()) != -1) {
+        String key = input.readUTF();
+        if (operation == REMOVE) {
+          index.remove(key);
+          continue;
+        }
+        int segment = input.readInt();
+        long offset = input.readLong();
+        long length = input.readLong();
+        int metadataCount = input.readInt();
+        ImmutableMap.Builder<String, String> metadata = ImmutableMap.builder();
+        for (int j = 0; j < metadataCount; j++) {
+          metadata.put(input.readUTF(), input.readUTF());
+        }
+        Segment stored = segments.get(segment);
+        if (stored != null && offset + length <= stored.length) {
+          index.put(key, new Record(segment, offset, length, metadata.build()));
+        } else {
+          index.remove(key); // 지워진 세그먼트의 본문
+        }
+      }
+    } catch (EOFException e) {
+      LogUtil.logger().warn("-http disk cache journal is truncated: {}", file);
+    } catch (IOException e) {
+      LogUtil.logger().warn("-http disk cache index is broken: {}", e.getMessage());
+      index.clear();
+    }
+  }
+
+  /**
+   * 현재 색인으로 저널을 다시 쓴다.
+   */
+  private void compact() {
+    closeJournal();
+    Path temp = directory.resolve(TEMP + INDEX);
+    Path file = directory.resolve(INDEX);
+    try {
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        output.writeInt(VERSION);
+        for (Map.Entry<String, Record> entry : index.entrySet()) {
+          byte[] record = encode(PUT, entry.getKey(), entry.getValue());
+          if (record != null) {
+            output.write(record);
+          }
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      journal = Files.newOutputStream(file, StandardOpenOption.APPEND);
+      journalRecords = index.size();
+    } catch (IOException e) {
+      LogUtil.logger().warn("-http disk cache index save failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * 저널에 변경분을 이어 쓴다. 실패해도 다음 변경분은 계속 기록한다. (락 안에서 호출한다)
+   */
+  private void writeJournal(int operation, String key, Record record) {
+    if (journal == null) {
+      return;
+    }
+    try {
+      byte[] bytes = encode(operation, key, record);
+      if (bytes == null) {
+        return;
+      }
+      journal.write(bytes); // 레코드 단위로 한 번에 쓴다
+      journal.flush();
+    } catch (IOException e) {
+      LogUtil.logger().warn("-http disk cache journal write failed: {}", e.getMessage());
+      return;
+    }
+    if (++journalRecords > Math.max(COMPACTION_THRESHOLD, index.size() * 4)) {
+      compact();
+    }
+  }
+
+  private void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.close();
+    } catch (IOException ignored) {
+      // ignored...
+    }
+    journal = null;
+  }
+
+  /**
+   * 저널 레코드. writeUTF로 쓸 수 없는 키는 기록하지 않고(메모리에만 유지), 그런 metadata 항목은 빼고 기록한다.
+   *
+   * @return 레코드 (기록할 수 없으면 null)
+   */
+  private static byte[] encode(int operation, String key, Record record) throws IOException {
+    if (!isEncodable(key)) {
+      LogUtil.logger().warn("-http disk cache key is too long to journal: {}", key.length());
+      return null;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    DataOutputStream output = new DataOutputStream(bytes);
+    output.write(operation);
+    output.writeUTF(key);
+    if (operation == PUT) {
+      output.writeInt(record.segment);
+      output.writeLong(record.offset);
+      output.writeLong(record.length);
+      Map<String, String> metadata = Maps.filterEntries(record.metadata, entry -> isEncodable(entry.getKey()) && isEncodable(entry.getValue()));
+      if (metadata.size() < record.metadata.size()) {
+        LogUtil.logger().warn("-http disk cache metadata is too long to journal: {}", key);
+      }
+      output.writeInt(metadata.size());
+      for (Map.Entry<String, String> entry : metadata.entrySet()) {
+        output.writeUTF(entry.getKey());
+        output.writeUTF(entry.getValue());
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * modified UTF-8로 인코딩한 길이가 writeUTF의 제한 안에 있는지 확인한다.
+   */
+  private static boolean isEncodable(String value) {
+    if (value.length() > MAX_UTF_LENGTH) {
+      return false;
+    }
+    int length = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+    }
+    return length <= MAX_UTF_LENGTH;
+  }
+
+  /**
+   * 임시 파일을 세그먼트에 저장한다. 락 안에서는 위치만 예약하고 복사는 락 밖에서 하므로 복사하는 동안에도 조회할 수 있다.
+   * 세그먼트 크기 이상인 본문은 복사하지 않고 임시 파일을 새 세그먼트로 옮긴다.
+   */
+  private void append(Editor editor, Path temp, long length) throws IOException {
+    if (length >= segmentSize) {
+      adopt(editor, temp, length);
+      return;
+    }
+    Segment segment;
+    long offset;
+    lock.lock();
+    try {
+      if (active == null || active.length >= segmentSize) {
+        int id = nextSegmentId();
+        active = new Segment(id, directory.resolve(SEGMENT + id));
+        segments.put(id, active);
+      }
+      segment = active;
+      offset = segment.reserve(length);
+    } finally {
+      lock.unlock();
+    }
+    segment.write(temp, offset, length);
+    lock.lock();
+    try {
+      if (segments.get(segment.id) != segment) {
+        throw new IOException("-http disk cache segment evicted while writing: " + segment.id);
+      }
+      put(editor, segment.id, offset, length);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void adopt(Editor editor, Path temp, long length) throws IOException {
+    lock.lock();
+    try {
+      int id = nextSegmentId();
+      Path file = directory.resolve(SEGMENT + id);
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+      segments.put(id, new Segment(id, file));
+      put(editor, id, 0, length);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void put(Editor editor, int segment, long offset, long length) {
+    Record record = new Record(segment, offset, length, ImmutableMap.copyOf(editor.metadata));
+    index.put(editor.key, record);
+    evict(); // 지워진 세그먼트의 레코드는 다시 열 때 걸러진다
+    if (index.get(editor.key) == record) {
+      writeJournal(PUT, editor.key, record);
+    }
+  }
+
+  private int nextSegmentId() {
+    return segments.isEmpty() ? 0 : segments.lastKey() + 1;
+  }
+
+  private void evict() {
+    long total = segments.values().stream().mapToLong(segment -> segment.length).sum();
+    while (total > maximumSize && segments.size() > 1) {
+      Segment oldest = segments.pollFirstEntry().getValue();
+      total -= oldest.length;
+      index.values().removeIf(record -> record.segment == oldest.id);
+      if (oldest == active) {
+        active = null; // 더 큰 본문을 옮긴 세그먼트가 뒤에 있는 경우
+      }
+      oldest.delete();
+    }
+  }
+
+  // endregion
+
+  /**
+   * 조회한 본문. 본문은 세그먼트를 매핑한 읽기 전용 {@link ByteBuffer}이다.
+   */
+  public static final class Snapshot {
+    private final ByteBuffer body;
+    private final @Getter Map<String, String> metadata;
+
+    private Snapshot(ByteBuffer body, Map<String, String> metadata) {
+      this.body = body;
+      this.metadata = metadata;
+    }
+
+    /**
+     * 본문 (호출할 때마다 position이 0인 새 뷰를 반환한다)
+     */
+    public ByteBuffer getBody() {
+      return body.duplicate();
+    }
+
+    public long getLength() {
+      return body.remaining();
+    }
+
+    public InputStream getInputStream() {
+      return new ByteBufferInputStream(getBody());
+    }
+  }
+
+  /**
+   * 본문 저장. 임시 파일에 쓴 뒤 {@link #commit()}할 때 세그먼트에 이어 붙인다. (세그먼트 크기 이상이면 임시 파일을 세그먼트로 옮긴다)
+   */
+  public final class Editor extends OutputStream {
+    private final String key;
+    private final Map<String, String> metadata;
+    private final Path temp;
+    private final OutputStream output;
+    private long length;
+    private boolean done;
+
+    private Editor(String key, Map<String, String> metadata) throws IOException {
+      this.key = key;
+      this.metadata = metadata;
+      this.temp = directory.resolve(TEMP + UUID.randomUUID());
+      this.output = new BufferedOutputStream(Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      output.write(b);
+      length++;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+      output.write(buffer, offset, length);
+      this.length += length;
+    }
+
+    /**
+     * 저장 완료
+     *
+     * @throws IOException 저장 실패 (임시 파일은 지워진다)
+     */
+    public void commit() throws IOException {
+      if (done) {
+        return;
+      }
+      done = true;
+      try {
+        output.close();
+        if (length > Integer.MAX_VALUE) {
+          throw new IOException("-http disk cache entry too large: " + length);
+        }
+        append(this, temp, length);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    }
+
+    /**
+     * 저장 취소
+     */
+    public void abort() {
+      if (done) {
+        return;
+      }
+      done = true;
+      try {
+        output.close();
+        Files.deleteIfExists(temp);
+      } catch (IOException ignored) {
+        // ignored...
+      }
+    }
+
+    /**
+     * {@link #commit()}하지 않고 닫으면 저장을 취소한다.
+     */
+    @Override
+    public void close() {
+      abort();
+    }
+  }
+
+  private static final class Record {
+    private final int segment;
+    private final long offset;
+    private final long length;
+    private final Map<String, String> metadata;
+
+    private Record(int segment, long offset, long length, Map<String, String> metadata) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.metadata = metadata;
+    }
+  }
+
+  private static final class Segment {
+    private final int id;
+    private final Path file;
+    private final FileChannel channel;
+    private long length;
+    private MappedByteBuffer mapped; // 세그먼트 전체 매핑 (이어 붙이면 다시 매핑한다)
+
+    private Segment(int id, Path file) throws IOException {
+      this.id = id;
+      this.file = file;
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this.length = channel.size();
+    }
+
+    /**
+     * 본문을 쓸 위치를 예약한다. 파일을 예약한 끝까지 늘려두어 다른 본문이 뒤쪽 위치에 먼저 써도 된다. (락 안에서 호출한다)
+     */
+    private long reserve(long size) throws IOException {
+      long offset = length;
+      if (size > 0) {
+        channel.write(ByteBuffer.allocate(1), offset + size - 1);
+      }
+      length += size;
+      return offset;
+    }
+
+    /**
+     * 예약한 위치에 임시 파일을 복사한다. (락 밖에서 호출한다)
+     */
+    private void write(Path temp, long offset, long size) throws IOException {
+      try (FileChannel source = FileChannel.open(temp, StandardOpenOption.READ)) {
+        long position = 0;
+        while (position < size) {
+          long transferred = channel.transferFrom(source, offset + position, size - position);
+          if (transferred <= 0) {
+            throw new EOFException("-http disk cache temp file is shorter than " + size);
+          }
+          position += transferred;
+        }
+      }
+    }
+
+    private ByteBuffer slice(long offset, long size) throws IOException {
+      if ((mapped == null || mapped.capacity() < length) && length <= Integer.MAX_VALUE) {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      }
+      if (mapped != null && offset + size <= mapped.capacity()) {
+        ByteBuffer view = mapped.duplicate();
+        view.position((int) offset);
+        view.limit((int) (offset + size));
+        return view.slice().asReadOnlyBuffer();
+      }
+      return channel.map(FileChannel.MapMode.READ_ONLY, offset, size).asReadOnlyBuffer();
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException ignored) {
+        // ignored...
+      }
+    }
+
+    /**
+     * 매핑은 GC될 때 해제되므로 파일만 지운다. (리눅스에서는 매핑이 남아있어도 지울 수 있다)
+     */
+    private void delete() {
+      close();
+      try {
+        Files.deleteIfExists(file);
+      } catch (NoSuchFileException ignored) {
+        // ignored...
+      } catch (IOException e) {
+        LogUtil.logger().warn("-http disk cache segment delete failed: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * {@link ByteBuffer}를 복사하지 않고 읽는 {@link InputStream}
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int read = Math.min(length, buffer.remaining());
+      buffer.get(target, offset, read);
+      return read;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+  /**
+   * {@link DiskCache} Builder
+   */
+  public static final class Builder {
+    private Path directory;
+    private long maximumSize = 1024L * 1024 * 1024;
+    private long segmentSize = 64L * 1024 * 1024;
+
+    /**
+     * 저장 디렉토리 (필수)
+     */
+    public Builder setDirectory(Path directory) {
+      this.directory = directory;
+      return this;
+    }
+
+    /**
+     * 최대 디스크 사용량 (단위: byte, 기본값: 1GB)
+     */
+    public Builder setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * 세그먼트 크기. 세그먼트가 이 크기를 넘으면 새 세그먼트에 이어 쓴다. (단위: byte, 기본값: 64MB)
+     */
+    public Builder setSegmentSize(long segmentSize) {
+      this.segmentSize = segmentSize;
+      return this;
+    }
+
+    /**
+     * @throws IOException 디렉토리 생성, 색인 읽기 실패
+     */
+    public DiskCache build() throws IOException {
+      if (directory == null) {
+        throw new IllegalParameterException("-directory: null");
+      }
+      if (segmentSize < 1 || maximumSize < segmentSize) {
+        throw new IllegalParameterException("-segmentSize: " + segmentSize + ", maximumSize: " + maximumSize);
+      }
+      return new DiskCache(this);
+    }
+  }
+}
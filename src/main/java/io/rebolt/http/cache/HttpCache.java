@@ -0,0 +1,781 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.rebolt.http.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import io.rebolt.core.utils.LogUtil;
+import io.rebolt.core.utils.StringUtil;
+import io.rebolt.http.HttpHeader;
+import io.rebolt.http.HttpMethod;
+import io.rebolt.http.HttpRequest;
+import io.rebolt.http.HttpResponse;
+import io.rebolt.http.HttpStatus;
+import io.rebolt.http.HttpStream;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.rebolt.http.cache.CacheHeaders.CONTENT_LENGTH;
+import static io.rebolt.http.cache.CacheHeaders.ETAG;
+import static io.rebolt.http.cache.CacheHeaders.IF_MODIFIED_SINCE;
+import static io.rebolt.http.cache.CacheHeaders.IF_NONE_MATCH;
+import static io.rebolt.http.cache.CacheHeaders.LAST_MODIFIED;
+import static io.rebolt.http.cache.CacheHeaders.VARY;
+
+/**
+ * HttpCache
+ * <p>
+ * 팩토리 앞단에서 동작하는 메모리 응답 캐시. GET 요청의 응답을 변환이 끝난 본문(responseType) 그대로 보관하므로
+ * 캐시 적중시 통신은 물론 JSON 해석도 하지 않는다. 키는 URI, responseType, 응답의 Vary 헤더가 가리키는 요청 헤더값이며,
+ * Vary 헤더값이 다른 변형(variant)은 따로 보관한다.
+ * <p>
+ * 여러 팩토리가 함께 사용하는 공유 캐시이므로 private 응답은 저장하지 않고, Authorization 헤더가 있는 요청의 응답은
+ * public, s-maxage, must-revalidate 중 하나가 있을 때만 저장한다. (RFC 7234 3.2) 신선도는 s-maxage를 max-age보다 우선한다.
+ * <p>
+ * 신선도는 Cache-Control(max-age, no-cache, no-store), Expires, Last-Modified(추정) 순으로 계산하며,
+ * 신선도가 지난 응답은 ETag, Last-Modified로 조건부 요청(If-None-Match, If-Modified-Since)을 보내 재검증한다.
+ * <p>
+ * 저장 용량은 본문 크기(실제로 읽은 크기, 모르면 Content-Length, 둘 다 없으면 {@value #DEFAULT_WEIGHT} bytes로 간주)의 합으로 제한하며,
+ * 넘치면 최근에 사용하지 않은 응답부터 밀어낸다.
+ * <p>
+ * 캐시된 본문 객체는 여러 요청이 공유하므로 수정하지 않아야 한다.
+ * <p>
+ * 신선도가 지난 응답은 RFC 5861에 따라 stale-while-revalidate 시간 동안은 그대로 전달하면서 백그라운드에서 재검증하고
+ * ({@link Lookup#getRefresh()}, 같은 키의 재검증은 한 번만 진행한다), stale-if-error 시간 동안은 서버 오류(5xx, 통신 실패) 대신 전달한다.
+ * 서버가 지시자를 보내지 않으면 {@link Builder#setStaleWhileRevalidate(long)}, {@link Builder#setStaleIfError(long)} 값을 사용한다.
+ * <p>
+ * {@link DiskCache}를 설정하면 스트리밍 요청({@link HttpRequest#stream()})의 200 응답 본문은 디스크에 보관한다.
+ * 본문은 호출한 쪽이 {@link HttpStream}을 끝까지 읽었을 때 저장되며, 적중하면 매핑된 파일에서 바로 읽는 {@link HttpStream}을 전달한다.
+ *
+ * @since 1.2.0
+ */
+public final class HttpCache {
+  private static final int DEFAULT_WEIGHT = 4096;
+  private static final String STORED_AT = "stored-at"; // DiskCache metadata
+  private static final String HEADER_PREFIX = "h:"; // DiskCache metadata
+  private static final Set<Integer> CACHEABLE_STATUS = ImmutableSet.of(200, 203, 204, 300, 301, 404, 405, 410, 414, 501);
+  private static final int MAXIMUM_VARY_INDEX = 10_000;
+
+  private final Cache<Key, Entry> entries;
+  private final Cache<Key, Set<String>> varyIndex; // 키: URI, responseType, 값: 마지막으로 저장한 응답의 Vary 헤더 이름 (소문자)
+  private final ConcurrentMap<String, Set<Key>> uriIndex = Maps.newConcurrentMap(); // 키: URI, 값: entries에 보관중인 키
+  private final DiskCache diskCache;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder revalidatedCount = new LongAdder();
+  private final LongAdder staleCount = new LongAdder();
+  private final LongAdder staleIfErrorCount = new LongAdder();
+  private final Set<Key> refreshing = Sets.newConcurrentHashSet();
+  private final long staleWhileRevalidate;
+  private final long staleIfError;
+
+  private HttpCache(Builder builder) {
+    this.entries = CacheBuilder.newBuilder()
+        .maximumWeight(builder.maximumWeight)
+        .weigher((Key key, Entry entry) -> entry.weight)
+        .removalListener(this::unindex)
+        .recordStats()
+        .build();
+    this.varyIndex = CacheBuilder.newBuilder().maximumSize(MAXIMUM_VARY_INDEX).build();
+    this.diskCache = builder.diskCache;
+    this.staleWhileRevalidate = builder.staleWhileRevalidate;
+    this.staleIfError = builder.staleIfError;
+  }
+
+  /**
+   * 캐시 조회. 신선한 응답이 있으면 {@link Lookup#isHit()}가 true이고, 없으면 {@link Lookup#getRequest()}로 요청한 뒤
+   * 응답을 {@link #complete(Lookup, HttpResponse)}에 전달한다.
+   *
+   * @param request {@link HttpRequest}
+   * @return {@link Lookup}
+   * @since 1.2.0
+   */
+  public Lookup lookup(HttpRequest request) {
+    if (request.getMethod() != HttpMethod.Get) {
+      return new Lookup(request, null, null, null);
+    }
+    Map<String, String> directives = CacheHeaders.cacheControl(request.getHeader());
+    if (directives.containsKey("no-store") || request.getFollowRedirects() != null) {
+      return new Lookup(request, null, null, null); // 리다이렉트 설정이 다른 응답은 같은 URI의 캐시와 섞지 않는다
+    }
+    if (request.isStream()) {
+      return diskCache != null ? lookupDisk(request, directives) : new Lookup(request, null, null, null);
+    }
+    Key key = variantKey(request);
+    Entry entry = entries.getIfPresent(key);
+    if (entry != null && !entry.matches(request)) {
+      entry = null; // Vary 헤더 이름이 바뀌기 전에 저장된 변형
+    }
+    if (entry == null) {
+      missCount.increment();
+      return new Lookup(request, key, null, null);
+    }
+    long now = System.currentTimeMillis();
+    boolean forceRevalidate = isForceRevalidate(directives);
+    if (!forceRevalidate && entry.isFresh(now)) {
+      hitCount.increment();
+      return new Lookup(request, key, entry, entry.toResponse());
+    }
+    if (!forceRevalidate && now < entry.staleWhileRevalidateUntil) {
+      staleCount.increment();
+      Lookup lookup = new Lookup(request, key, entry, entry.toResponse());
+      if (refreshing.add(key)) {
+        lookup.refresh = new Lookup(revalidation(request, entry), key, entry, null);
+        lookup.refresh.refreshing = true;
+      }
+      return lookup;
+    }
+    missCount.increment();
+    if (!entry.hasValidator() && now >= entry.staleIfErrorUntil) {
+      entries.invalidate(key);
+      return new Lookup(request, key, null, null);
+    }
+    return new Lookup(revalidation(request, entry), key, entry, null);
+  }
+
+  /**
+   * 요청의 변형 키. 같은 URI, responseType으로 마지막에 저장한 응답의 Vary 헤더가 가리키는 요청 헤더값을 포함한다.
+   */
+  private Key variantKey(HttpRequest request) {
+    Key key = new Key(request.getEndpointUri(), request.getResponseType(), Collections.emptyMap());
+    Set<String> names = varyIndex.getIfPresent(key);
+    return names == null ? key : key.variant(varyValues(request, names));
+  }
+
+  /**
+   * Vary 헤더가 가리키는 요청 헤더값 (키: 요청 헤더 이름, 값: 요청 헤더값, 없으면 빈 문자열)
+   */
+  private static Map<String, String> varyValues(HttpRequest request, Set<String> names) {
+    Map<String, String> values = Maps.newHashMapWithExpectedSize(names.size());
+    for (String name : names) {
+      values.put(name, Objects.toString(CacheHeaders.get(request.getHeader(), name), ""));
+    }
+    return values;
+  }
+
+  /**
+   * 재검증 요청. 검증자(ETag, Last-Modified)가 있으면 조건부 요청을 만든다.
+   */
+  private static HttpRequest revalidation(HttpRequest request, Entry entry) {
+    if (!entry.hasValidator()) {
+      return request;
+    }
+    HttpRequest conditional = request.copy();
+    conditional.getHeader().add(IF_NONE_MATCH, entry.etag).add(IF_MODIFIED_SINCE, entry.lastModified);
+    return conditional;
+  }
+
+  /**
+   * 응답 반영. 304이면 보관중인 응답을 갱신해서 반환하고, 저장할 수 있는 응답이면 저장한다.
+   * 서버 오류이고 보관중인 응답이 stale-if-error 시간 안이면 보관중인 응답을 반환한다.
+   * GET 이외의 요청이 성공하면 같은 URI의 응답을 지운다.
+   *
+   * @param lookup {@link #lookup(HttpRequest)}의 결과
+   * @param response 통신 결과
+   * @return 호출한 쪽에 전달할 응답
+   * @since 1.2.0
+   */
+  @SuppressWarnings("unchecked")
+  public <R, E> HttpResponse<R, E> complete(Lookup lookup, HttpResponse<R, E> response) {
+    if (lookup.diskKey != null) {
+      return completeDisk(lookup, response);
+    }
+    if (lookup.key == null) {
+      HttpRequest request = lookup.request;
+      if (request.getMethod() != HttpMethod.Get && request.getMethod() != HttpMethod.Head && isSuccessful(response)) {
+        invalidate(request.getEndpointUri());
+      }
+      return response;
+    }
+    try {
+      return completeEntry(lookup, response);
+    } finally {
+      if (lookup.refreshing) {
+        refreshing.remove(lookup.key);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <R, E> HttpResponse<R, E> completeEntry(Lookup lookup, HttpResponse<R, E> response) {
+    long now = System.currentTimeMillis();
+    if (lookup.entry != null && response.getStatus() == HttpStatus.NOT_MODIFIED_304) {
+      revalidatedCount.increment();
+      HttpHeader header = HttpHeader.createForResponse().addAll(lookup.entry.header).addAll(response.getHeader());
+      Entry refreshed = lookup.entry.refresh(header, now, staleWhileRevalidate, staleIfError);
+      store(lookup.key, refreshed);
+      return (HttpResponse<R, E>) refreshed.toResponse();
+    }
+    if (lookup.entry != null && isServerError(response) && now < lookup.entry.staleIfErrorUntil) {
+      staleIfErrorCount.increment();
+      return (HttpResponse<R, E>) lookup.entry.toResponse();
+    }
+    if (response.getStatus() != null && !response.hasException() && CACHEABLE_STATUS.contains(response.getStatus().getCode())
+        && !(response.getBody() instanceof HttpStream)) {
+      Entry entry = Entry.create(lookup.request, response, now, staleWhileRevalidate, staleIfError);
+      if (entry != null) {
+        Key key = lookup.key.variant(entry.vary);
+        Key base = lookup.key.variant(Collections.emptyMap());
+        if (entry.vary.isEmpty()) {
+          varyIndex.invalidate(base);
+        } else {
+          varyIndex.put(base, entry.vary.keySet());
+        }
+        if (!key.equals(lookup.key)) {
+          entries.invalidate(lookup.key); // Vary 헤더 이름이 바뀌었다
+        }
+        store(key, entry);
+        return response;
+      }
+    }
+    if (lookup.entry != null && isSuccessful(response)) {
+      entries.invalidate(lookup.key); // 저장할 수 없는 응답으로 바뀌었다
+    }
+    return response;
+  }
+
+  /**
+   * URI에 해당하는 응답을 모두 지운다.
+   *
+   * @param uri 요청 URI (쿼리스트링 포함)
+   * @since 1.2.0
+   */
+  public void invalidate(String uri) {
+    Set<Key> keys = uriIndex.remove(uri);
+    if (keys != null) {
+      for (Key key : keys) {
+        entries.invalidate(key);
+        varyIndex.invalidate(key.variant(Collections.emptyMap()));
+      }
+    }
+    if (diskCache != null) {
+      diskCache.remove(uri);
+    }
+  }
+
+  /**
+   * 모든 응답을 지운다.
+   *
+   * @since 1.2.0
+   */
+  public void invalidateAll() {
+    entries.invalidateAll();
+    varyIndex.invalidateAll();
+    uriIndex.clear();
+  }
+
+  /**
+   * 응답을 저장하고 URI 색인에 키를 추가한다. 밀어낸 같은 키의 색인 정리가 먼저 끝나도 키가 남도록 저장한 뒤에 추가한다.
+   */
+  private void store(Key key, Entry entry) {
+    entries.put(key, entry);
+    uriIndex.compute(key.uri, (uri, keys) -> {
+      Set<Key> indexed = keys == null ? Sets.newHashSet() : keys;
+      indexed.add(key);
+      return indexed;
+    });
+  }
+
+  /**
+   * 응답을 지우거나 밀어내면 URI 색인에서 키를 뺀다. 그 사이에 같은 키로 다시 저장했으면 남겨둔다.
+   */
+  private void unindex(RemovalNotification<Key, Entry> notification) {
+    Key removed = notification.getKey();
+    if (removed == null || notification.getCause() == RemovalCause.REPLACED) {
+      return;
+    }
+    uriIndex.computeIfPresent(removed.uri, (uri, keys) -> {
+      if (!entries.asMap().containsKey(removed)) {
+        keys.remove(removed);
+      }
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  /**
+   * 적중, 실패, 재검증, 밀어내기 횟수
+   *
+   * @return {@link Stats}
+   * @since 1.2.0
+   */
+  public Stats getStats() {
+    return new Stats(hitCount.sum(), missCount.sum(), revalidatedCount.sum(), staleCount.sum(), staleIfErrorCount.sum(),
+        entries.stats().evictionCount(), entries.size());
+  }
+
+  // region disk
+
+  private Lookup lookupDisk(HttpRequest request, Map<String, String> directives) {
+    String diskKey = request.getEndpointUri();
+    DiskCache.Snapshot snapshot = diskCache.get(diskKey);
+    if (snapshot == null) {
+      missCount.increment();
+      return new Lookup(request, diskKey, null);
+    }
+    HttpHeader header = toHeader(snapshot.getMetadata());
+    long storedAt = Long.parseLong(snapshot.getMetadata().getOrDefault(STORED_AT, "0"));
+    long freshUntil = storedAt + CacheHeaders.freshness(header, CacheHeaders.cacheControl(header), storedAt);
+    if (!isForceRevalidate(directives) && System.currentTimeMillis() < freshUntil) {
+      hitCount.increment();
+      Lookup lookup = new Lookup(request, diskKey, snapshot);
+      lookup.response = toStreamResponse(snapshot, header);
+      return lookup;
+    }
+    missCount.increment();
+    String etag = CacheHeaders.get(header, ETAG);
+    String lastModified = CacheHeaders.get(header, LAST_MODIFIED);
+    if (etag == null && lastModified == null) {
+      diskCache.remove(diskKey);
+      return new Lookup(request, diskKey, null);
+    }
+    HttpRequest conditional = request.copy();
+    conditional.getHeader().add(IF_NONE_MATCH, etag).add(IF_MODIFIED_SINCE, lastModified);
+    Lookup lookup = new Lookup(conditional, diskKey, snapshot);
+    lookup.staleIfErrorUntil = freshUntil + CacheHeaders.staleWindow(CacheHeaders.cacheControl(header), "stale-if-error", staleIfError);
+    return lookup;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <R, E> HttpResponse<R, E> completeDisk(Lookup lookup, HttpResponse<R, E> response) {
+    long now = System.currentTimeMillis();
+    if (lookup.snapshot != null && response.getStatus() == HttpStatus.NOT_MODIFIED_304) {
+      revalidatedCount.increment();
+      HttpHeader header = toHeader(lookup.snapshot.getMetadata()).addAll(response.getHeader());
+      diskCache.updateMetadata(lookup.diskKey, toMetadata(header, now));
+      return (HttpResponse<R, E>) toStreamResponse(lookup.snapshot, header);
+    }
+    if (lookup.snapshot != null && isServerError(response) && now < lookup.staleIfErrorUntil) {
+      staleIfErrorCount.increment();
+      return (HttpResponse<R, E>) toStreamResponse(lookup.snapshot, toHeader(lookup.snapshot.getMetadata()));
+    }
+    HttpHeader header = response.getHeader();
+    if (response.getStatus() != HttpStatus.OK_200 || !(response.getBody() instanceof HttpStream) || CacheHeaders.get(header, VARY) != null) {
+      return response;
+    }
+    Map<String, String> directives = CacheHeaders.cacheControl(header);
+    boolean validator = CacheHeaders.get(header, ETAG) != null || CacheHeaders.get(header, LAST_MODIFIED) != null;
+    if (!CacheHeaders.isShareable(lookup.request.getHeader(), directives) || (!validator && CacheHeaders.freshness(header, directives, now) == 0)) {
+      return response;
+    }
+    HttpStream stream = (HttpStream) response.getBody();
+    try {
+      DiskCache.Editor editor = diskCache.edit(lookup.diskKey, toMetadata(header, now));
+      response.setBody((R) new HttpStream(new TeeInputStream(stream.getInputStream(), editor), stream.getContentLength(), stream.getContentType()));
+    } catch (IOException e) {
+      LogUtil.logger().warn("-http disk cache write failed: {}", e.getMessage());
+    }
+    return response;
+  }
+
+  private static Map<String, String> toMetadata(HttpHeader header, long storedAt) {
+    Map<String, String> metadata = Maps.newHashMap();
+    metadata.put(STORED_AT, Long.toString(storedAt));
+    header.getHeaderMap().forEach((name, value) -> metadata.put(HEADER_PREFIX + name, value));
+    return metadata;
+  }
+
+  private static HttpHeader toHeader(Map<String, String> metadata) {
+    HttpHeader header = HttpHeader.createForResponse();
+    metadata.forEach((name, value) -> {
+      if (name.startsWith(HEADER_PREFIX)) {
+        header.add(name.substring(HEADER_PREFIX.length()), value);
+      }
+    });
+    return header;
+  }
+
+  private static HttpResponse<?, ?> toStreamResponse(DiskCache.Snapshot snapshot, HttpHeader header) {
+    HttpStream stream = new HttpStream(snapshot.getInputStream(), snapshot.getLength(), CacheHeaders.get(header, "Content-Type"));
+    return new HttpResponse<>(HttpStatus.OK_200, header, stream, null, null);
+  }
+
+  /**
+   * 읽은 본문을 {@link DiskCache.Editor}에도 쓴다. 끝까지 읽으면 저장하고, 그 전에 닫으면 저장을 취소한다.
+   */
+  private static final class TeeInputStream extends FilterInputStream {
+    private final DiskCache.Editor editor;
+    private boolean writing = true;
+
+    private TeeInputStream(InputStream in, DiskCache.Editor editor) {
+      super(in);
+      this.editor = editor;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int read = super.read();
+      if (read == -1) {
+        commit();
+      } else if (writing) {
+        try {
+          editor.write(read);
+        } catch (IOException e) {
+          abort(e);
+        }
+      }
+      return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = super.read(buffer, offset, length);
+      if (read == -1) {
+        commit();
+      } else if (writing) {
+        try {
+          editor.write(buffer, offset, read);
+        } catch (IOException e) {
+          abort(e);
+        }
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      abort(null); // 건너뛴 본문은 저장할 수 없다
+      return super.skip(n);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        abort(null);
+      }
+    }
+
+    private void commit() {
+      if (writing) {
+        writing = false;
+        try {
+          editor.commit();
+        } catch (IOException e) {
+          LogUtil.logger().warn("-http disk cache write failed: {}", e.getMessage());
+        }
+      }
+    }
+
+    private void abort(IOException e) {
+      if (writing) {
+        writing = false;
+        editor.abort();
+        if (e != null) {
+          LogUtil.logger().warn("-http disk cache write failed: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  // endregion
+
+  private static boolean isForceRevalidate(Map<String, String> directives) {
+    return directives.containsKey("no-cache") || CacheHeaders.seconds(directives, "max-age") == 0;
+  }
+
+  /**
+   * stale-if-error를 적용하는 오류 (5xx, 통신 실패)
+   */
+  private static boolean isServerError(HttpResponse<?, ?> response) {
+    return response.getStatus() == null || response.hasException() || response.getStatus().getCode() >= 500;
+  }
+
+  private static boolean isSuccessful(HttpResponse<?, ?> response) {
+    return response.getStatus() != null && !response.hasError();
+  }
+
+  /**
+   * {@link #lookup(HttpRequest)}의 결과
+   */
+  public static final class Lookup {
+    private final @Getter HttpRequest request; // 실제로 보낼 요청 (재검증이면 조건부 요청)
+    private final Key key; // null: 메모리에 캐시하지 않는 요청
+    private final Entry entry; // 보관중인 응답 (재검증 대상)
+    private final String diskKey; // null: 디스크에 캐시하지 않는 요청
+    private final DiskCache.Snapshot snapshot; // 디스크에 보관중인 응답 (재검증 대상)
+    private HttpResponse<?, ?> response; // 캐시 적중시 응답
+    private Lookup refresh; // stale-while-revalidate 백그라운드 재검증
+    private boolean refreshing;
+    private long staleIfErrorUntil; // 디스크 응답의 stale-if-error 기한
+
+    private Lookup(HttpRequest request, Key key, Entry entry, HttpResponse<?, ?> response) {
+      this.request = request;
+      this.key = key;
+      this.entry = entry;
+      this.diskKey = null;
+      this.snapshot = null;
+      this.response = response;
+    }
+
+    private Lookup(HttpRequest request, String diskKey, DiskCache.Snapshot snapshot) {
+      this.request = request;
+      this.key = null;
+      this.entry = null;
+      this.diskKey = diskKey;
+      this.snapshot = snapshot;
+    }
+
+    public boolean isHit() {
+      return response != null;
+    }
+
+    /**
+     * 캐시 적중이지만 신선도가 지나 백그라운드에서 재검증해야 하면 재검증용 {@link Lookup}.
+     * {@link Lookup#getRequest()}로 요청하고 응답을 {@link #complete(Lookup, HttpResponse)}에 전달한다.
+     *
+     * @return {@link Lookup} (재검증이 필요 없거나 이미 진행중이면 null)
+     */
+    public Lookup getRefresh() {
+      return refresh;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R, E> HttpResponse<R, E> getResponse() {
+      return (HttpResponse<R, E>) response;
+    }
+  }
+
+  private static final class Key {
+    private final String uri;
+    private final Class<?> responseType;
+    private final Map<String, String> vary; // 키: 요청 헤더 이름, 값: 요청 헤더값
+
+    private Key(String uri, Class<?> responseType, Map<String, String> vary) {
+      this.uri = uri;
+      this.responseType = responseType;
+      this.vary = vary;
+    }
+
+    private Key variant(Map<String, String> vary) {
+      return new Key(uri, responseType, vary);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return uri.equals(key.uri) && responseType == key.responseType && vary.equals(key.vary);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(uri, responseType, vary);
+    }
+  }
+
+  /**
+   * 보관중인 응답 (불변)
+   */
+  private static final class Entry {
+    private final HttpStatus status;
+    private final HttpHeader header;
+    private final Object body;
+    private final Object error;
+    private final Map<String, String> vary; // 키: 요청 헤더 이름, 값: 저장 당시의 요청 헤더값
+    private final String etag;
+    private final String lastModified;
+    private final long freshUntil; // 단위: millisecond
+    private final long staleWhileRevalidateUntil;
+    private final long staleIfErrorUntil;
+    private final int weight;
+
+    private Entry(HttpStatus status, HttpHeader header, Object body, Object error, Map<String, String> vary, int weight, long now,
+                  long staleWhileRevalidate, long staleIfError) {
+      Map<String, String> directives = CacheHeaders.cacheControl(header);
+      this.status = status;
+      this.header = header;
+      this.body = body;
+      this.error = error;
+      this.vary = vary;
+      this.etag = CacheHeaders.get(header, ETAG);
+      this.lastModified = CacheHeaders.get(header, LAST_MODIFIED);
+      this.freshUntil = now + CacheHeaders.freshness(header, directives, now);
+      if (directives.containsKey("must-revalidate") || directives.containsKey("no-cache")) {
+        this.staleWhileRevalidateUntil = freshUntil;
+        this.staleIfErrorUntil = freshUntil;
+      } else {
+        this.staleWhileRevalidateUntil = freshUntil + CacheHeaders.staleWindow(directives, "stale-while-revalidate", staleWhileRevalidate);
+        this.staleIfErrorUntil = freshUntil + CacheHeaders.staleWindow(directives, "stale-if-error", staleIfError);
+      }
+      this.weight = weight;
+    }
+
+    /**
+     * 저장할 수 없는 응답이면 null
+     */
+    private static Entry create(HttpRequest request, HttpResponse<?, ?> response, long now, long staleWhileRevalidate, long staleIfError) {
+      HttpHeader header = response.getHeader();
+      Map<String, String> directives = CacheHeaders.cacheControl(header);
+      String varyValue = CacheHeaders.get(header, VARY);
+      if (!CacheHeaders.isShareable(request.getHeader(), directives) || (varyValue != null && varyValue.contains("*"))) {
+        return null;
+      }
+      Map<String, String> vary = Collections.emptyMap();
+      if (!StringUtil.isNullOrEmpty(varyValue)) {
+        Set<String> names = Sets.newHashSet();
+        for (String name : varyValue.split("[,;]")) {
+          String headerName = name.trim().toLowerCase(Locale.ROOT);
+          if (!headerName.isEmpty()) {
+            names.add(headerName);
+          }
+        }
+        vary = varyValues(request, names);
+      }
+      Entry entry = new Entry(response.getStatus(), header, response.getBody(), response.getError(), vary, weight(response),
+          now, staleWhileRevalidate, staleIfError);
+      return entry.staleWhileRevalidateUntil > now || entry.staleIfErrorUntil > now || entry.hasValidator() ? entry : null;
+    }
+
+    private Entry refresh(HttpHeader header, long now, long staleWhileRevalidate, long staleIfError) {
+      return new Entry(status, header, body, error, vary, weight, now, staleWhileRevalidate, staleIfError);
+    }
+
+    private boolean matches(HttpRequest request) {
+      for (Map.Entry<String, String> entry : vary.entrySet()) {
+        if (!entry.getValue().equals(Objects.toString(CacheHeaders.get(request.getHeader(), entry.getKey()), ""))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isFresh(long now) {
+      return now < freshUntil;
+    }
+
+    private boolean hasValidator() {
+      return etag != null || lastModified != null;
+    }
+
+    private HttpResponse<?, ?> toResponse() {
+      return new HttpResponse<>(status, HttpHeader.createForResponse().addAll(header), body, error, null);
+    }
+
+    private static int weight(HttpResponse<?, ?> response) {
+      if (response.getBodyLength() >= 0) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, response.getBodyLength()));
+      }
+      String contentLength = CacheHeaders.get(response.getHeader(), CONTENT_LENGTH);
+      if (!StringUtil.isNullOrEmpty(contentLength)) {
+        try {
+          return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Long.parseLong(contentLength.trim())));
+        } catch (NumberFormatException ignored) {
+          // ignored...
+        }
+      }
+      return DEFAULT_WEIGHT;
+    }
+  }
+
+  /**
+   * 캐시 현황
+   */
+  @ToString
+  @Getter
+  public static final class Stats {
+    private final long hitCount;
+    private final long missCount;
+    private final long revalidatedCount; // 304로 재사용한 횟수
+    private final long staleCount; // stale-while-revalidate로 전달한 횟수
+    private final long staleIfErrorCount; // stale-if-error로 전달한 횟수
+    private final long evictionCount;
+    private final long size;
+
+    private Stats(long hitCount, long missCount, long revalidatedCount, long staleCount, long staleIfErrorCount, long evictionCount, long size) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.revalidatedCount = revalidatedCount;
+      this.staleCount = staleCount;
+      this.staleIfErrorCount = staleIfErrorCount;
+      this.evictionCount = evictionCount;
+      this.size = size;
+    }
+  }
+
+  /**
+   * {@link HttpCache} Builder
+   */
+  public static final class Builder {
+    private long maximumWeight = 32L * 1024 * 1024;
+    private DiskCache diskCache;
+    private long staleWhileRevalidate;
+    private long staleIfError;
+
+    /**
+     * 최대 저장 용량 (단위: byte, 기본값: 32MB)
+     */
+    public Builder setMaximumWeight(long maximumWeight) {
+      this.maximumWeight = maximumWeight;
+      return this;
+    }
+
+    /**
+     * 스트리밍 요청의 응답 본문을 보관할 디스크 저장소 (기본값: null, 스트리밍 요청은 캐시하지 않음)
+     */
+    public Builder setDiskCache(DiskCache diskCache) {
+      this.diskCache = diskCache;
+      return this;
+    }
+
+    /**
+     * 서버가 stale-while-revalidate를 보내지 않았을 때 사용할 값 (단위: millisecond, 기본값: 0)
+     */
+    public Builder setStaleWhileRevalidate(long staleWhileRevalidate) {
+      this.staleWhileRevalidate = staleWhileRevalidate;
+      return this;
+    }
+
+    /**
+     * 서버가 stale-if-error를 보내지 않았을 때 사용할 값 (단위: millisecond, 기본값: 0)
+     */
+    public Builder setStaleIfError(long staleIfError) {
+      this.staleIfError = staleIfError;
+      return this;
+    }
+
+    public HttpCache build() {
+      if (maximumWeight < 1) {
+        throw new IllegalParameterException("-maximumWeight: " + maximumWeight + " (expected: 1 ~)");
+      }
+      if (staleWhileRevalidate < 0 || staleIfError < 0) {
+        throw new IllegalParameterException("-staleWhileRevalidate: " + staleWhileRevalidate + ", staleIfError: " + staleIfError);
+      }
+      return new HttpCache(this);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.rebolt.http.codecs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Content-Encoding 코덱
+ * <p>
+ * 스트림을 감싸는 방식으로 동작하므로 본문 전체를 메모리에 모으지 않는다.
+ * 기본 제공 코덱(gzip, deflate) 외의 코덱(br, zstd 등)은 구현해서 {@link ContentCodecs#register(ContentCodec)}로 등록한다.
+ *
+ * @since 1.2.0
+ */
+public interface ContentCodec {
+
+  /**
+   * Content-Encoding 토큰 (예: gzip, br)
+   */
+  String getEncoding();
+
+  /**
+   * 압축 해제. 반환한 스트림을 닫으면 inputStream도 닫혀야 한다.
+   *
+   * @param inputStream 압축된 본문
+   * @return 압축 해제된 본문
+   * @throws IOException 압축 형식 오류
+   */
+  InputStream decode(InputStream inputStream) throws IOException;
+
+  /**
+   * 압축. 반환한 스트림을 닫으면 압축을 마무리하고 outputStream도 닫아야 한다.
+   *
+   * @param outputStream 압축된 본문을 쓸 스트림
+   * @return 원본 본문을 쓸 스트림
+   * @throws IOException 전송 실패
+   */
+  OutputStream encode(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.rebolt.http.codecs;
+
+import com.google.common.collect.Maps;
+import io.rebolt.core.utils.ObjectUtil;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * {@link ContentCodec} 목록
+ * <p>
+ * gzip, deflate는 기본으로 등록되어 있다.
+ *
+ * @since 1.2.0
+ */
+public final class ContentCodecs {
+  public static final String GZIP = "gzip";
+  public static final String DEFLATE = "deflate";
+  public static final String BROTLI = "br";
+  public static final String ZSTD = "zstd";
+
+  private static final ConcurrentMap<String, ContentCodec> codecs = Maps.newConcurrentMap();
+
+  static {
+    register(new GzipCodec());
+    register(new DeflateCodec());
+  }
+
+  private ContentCodecs() {
+  }
+
+  /**
+   * {@link ContentCodec} 등록. 같은 encoding이 있으면 덮어쓴다.
+   *
+   * @param codec {@link ContentCodec}
+   * @since 1.2.0
+   */
+  public static void register(ContentCodec codec) {
+    ObjectUtil.requireNonNull(codec);
+    codecs.put(codec.getEncoding().toLowerCase(Locale.ROOT), codec);
+  }
+
+  /**
+   * {@link ContentCodec} 조회
+   *
+   * @param encoding Content-Encoding 토큰 (대소문자 구분 안함)
+   * @return {@link ContentCodec} (등록되지 않았으면 null)
+   * @since 1.2.0
+   */
+  public static ContentCodec get(String encoding) {
+    return ObjectUtil.isNull(encoding) ? null : codecs.get(encoding.trim().toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * gzip. okio의 {@link GzipSource}, {@link GzipSink}를 사용하므로 헤더도 처음 읽을 때 해석한다.
+   */
+  private static final class GzipCodec implements ContentCodec {
+    @Override
+    public String getEncoding() {
+      return GZIP;
+    }
+
+    @Override
+    public InputStream decode(InputStream inputStream) {
+      return Okio.buffer(new GzipSource(Okio.source(inputStream))).inputStream();
+    }
+
+    @Override
+    public OutputStream encode(OutputStream outputStream) {
+      return Okio.buffer(new GzipSink(Okio.sink(outputStream))).outputStream();
+    }
+  }
+
+  /**
+   * deflate. 표준(zlib 형식)과 달리 헤더 없이 보내는 서버가 있어 첫 2바이트로 형식을 구분한다.
+   */
+  private static final class DeflateCodec implements ContentCodec {
+    @Override
+    public String getEncoding() {
+      return DEFLATE;
+    }
+
+    @Override
+    public InputStream decode(InputStream inputStream) throws IOException {
+      InputStream buffered = new BufferedInputStream(inputStream);
+      buffered.mark(2);
+      int cmf = buffered.read();
+      int flg = buffered.read();
+      buffered.reset();
+      boolean zlib = (cmf & 0x0f) == 8 && flg >= 0 && ((cmf << 8) | flg) % 31 == 0;
+      Inflater inflater = new Inflater(!zlib);
+      return new InflaterInputStream(buffered, inflater) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            inflater.end();
+          }
+        }
+      };
+    }
+
+    @Override
+    public OutputStream encode(OutputStream outputStream) {
+      return new DeflaterOutputStream(outputStream);
+    }
+  }
+}
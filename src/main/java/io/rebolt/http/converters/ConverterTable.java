@@ -65,6 +65,11 @@ public final class ConverterTable {
      */
     add(String.class, JsonNode.class, StringToJsonConverter.class);
     add(void.class, JsonNode.class, VoidToJsonConverter.class);
+
+    /**
+     * {@link ObjectToJsonConverter}
+     */
+    add(Object.class, JsonNode.class, ObjectToJsonConverter.class);
   }
 
   /**
@@ -99,7 +104,9 @@ public final class ConverterTable {
   public static Converter get(Class<?> requestType, Class<?> responseType) {
     Map<Class, Converter> converterMap = converterTable.get(requestType);
     if (converterMap == null) {
-      converterMap = converterTable.get(void.class);
+      // 등록되지 않은 요청 타입은 Object(JSON 직렬화)로 처리한다.
+      converterMap = ObjectUtil.isNull(requestType) || requestType == void.class || requestType == Void.class
+          ? converterTable.get(void.class) : converterTable.get(Object.class);
     }
     Converter converter = converterMap.get(responseType);
     if (converter == null) {
@@ -111,6 +118,7 @@ public final class ConverterTable {
   /**
    * 매핑 타입 조회.
    * body에 들어온 Object 객체명을 통해 Converter Type을 조회한다.
+   * 등록되지 않은 타입은 {@link Object}로 간주해 JSON으로 직렬화한다.
    *
    * @param body Request Body
    * @return {@link Class}
@@ -120,7 +128,17 @@ public final class ConverterTable {
     if (ObjectUtil.isNull(body)) {
       return void.class;
     }
-    return typeMap.get(body.getClass().getName());
+    Class<?> type = typeMap.get(body.getClass().getName());
+    if (type != null) {
+      return type;
+    }
+    // 등록된 타입의 하위 클래스 (ObjectNode 등)
+    for (Class<?> registered : typeMap.values()) {
+      if (registered != Object.class && registered.isInstance(body)) {
+        return registered;
+      }
+    }
+    return Object.class;
   }
 
   /**
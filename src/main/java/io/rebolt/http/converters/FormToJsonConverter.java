@@ -21,6 +21,11 @@ import com.google.common.net.MediaType;
 import io.rebolt.core.utils.JsonUtil;
 import io.rebolt.core.utils.ObjectUtil;
 import io.rebolt.http.HttpForm;
+import io.rebolt.http.utils.BufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
 
@@ -30,10 +35,22 @@ import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
  * ContentType: "application/x-www-form-urlencoded;charset=utf-8"
  * Accept: "application/json;charset=utf-8"
  */
-final class FormToJsonConverter implements BytesConverter<HttpForm, JsonNode> {
+final class FormToJsonConverter implements StreamConverter<HttpForm, JsonNode>, TypedConverter {
   @Override
   public byte[] convertRequest(HttpForm httpForm) {
-    return !ObjectUtil.isNull(httpForm) ? httpForm.toFormString().getBytes(CHARSET_UTF8) : new byte[0];
+    return !ObjectUtil.isNull(httpForm) ? httpForm.toFormString().getBytes(CHARSET_UTF8) : BufferPool.EMPTY;
+  }
+
+  @Override
+  public void writeRequest(HttpForm httpForm, OutputStream outputStream) throws IOException {
+    if (!ObjectUtil.isNull(httpForm)) {
+      Utf8.write(httpForm.toFormString(), outputStream);
+    }
+  }
+
+  @Override
+  public long contentLength(HttpForm httpForm) {
+    return !ObjectUtil.isNull(httpForm) ? Utf8.length(httpForm.toFormString()) : 0;
   }
 
   @Override
@@ -41,6 +58,16 @@ final class FormToJsonConverter implements BytesConverter<HttpForm, JsonNode> {
     return !ObjectUtil.isNull(rawResponse) ? JsonUtil.read(new String(rawResponse, CHARSET_UTF8)) : null;
   }
 
+  @Override
+  public JsonNode readResponse(InputStream inputStream) throws IOException {
+    return JsonReaders.readTree(inputStream);
+  }
+
+  @Override
+  public <T> T readResponse(InputStream inputStream, Class<T> responseType) throws IOException {
+    return JsonReaders.read(inputStream, responseType);
+  }
+
   @Override
   public String getContentType() {
     return MediaType.FORM_DATA.toString();
@@ -22,6 +22,8 @@ import io.rebolt.core.utils.JsonUtil;
 import io.rebolt.core.utils.ObjectUtil;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
 
@@ -31,14 +33,20 @@ import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
  * ContentType: application/json;charset=utf-8"
  * Accept: "application/json;charset=utf-8"
  */
-final class JsonConverter implements BytesConverter<JsonNode, JsonNode> {
+final class JsonConverter implements StreamConverter<JsonNode, JsonNode>, TypedConverter {
   @Override
   public byte[] convertRequest(JsonNode jsonNode) {
-    try {
-      return !ObjectUtil.isNull(jsonNode) ? jsonNode.binaryValue() : new byte[0];
-    } catch (IOException ignore) {
-      return new byte[0];
-    }
+    return JsonWriters.toBytes(jsonNode);
+  }
+
+  @Override
+  public void writeRequest(JsonNode jsonNode, OutputStream outputStream) throws IOException {
+    JsonWriters.write(jsonNode, outputStream);
+  }
+
+  @Override
+  public long contentLength(JsonNode jsonNode) {
+    return ObjectUtil.isNull(jsonNode) ? 0 : -1;
   }
 
   @Override
@@ -46,6 +54,16 @@ final class JsonConverter implements BytesConverter<JsonNode, JsonNode> {
     return !ObjectUtil.isNull(rawResponse) ? JsonUtil.read(new String(rawResponse, CHARSET_UTF8)) : null;
   }
 
+  @Override
+  public JsonNode readResponse(InputStream inputStream) throws IOException {
+    return JsonReaders.readTree(inputStream);
+  }
+
+  @Override
+  public <T> T readResponse(InputStream inputStream, Class<T> responseType) throws IOException {
+    return JsonReaders.read(inputStream, responseType);
+  }
+
   @Override
   public String getContentType() {
     return MediaType.JSON_UTF_8.toString();
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.converters;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.collect.Maps;
+import io.rebolt.core.utils.LogUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JSON 컨버터가 공유하는 {@link ObjectMapper}와 응답 타입별 {@link ObjectReader}
+ * <p>
+ * {@link ObjectReader}는 불변이며 스레드에 안전하므로, 타입별로 한 번만 생성해서
+ * 역직렬화기(deserializer) 탐색 비용 없이 재사용한다.
+ *
+ * @since 1.2.0
+ */
+final class JsonReaders {
+  private static final ObjectMapper mapper = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private static final ConcurrentMap<Class<?>, ObjectReader> readers = Maps.newConcurrentMap();
+
+  private JsonReaders() {
+  }
+
+  /**
+   * {@link InputStream}을 {@link JsonNode}로 변환한다. 본문이 없거나 JSON이 아니면 null을 반환한다.
+   */
+  static JsonNode readTree(InputStream inputStream) throws IOException {
+    try {
+      JsonNode jsonNode = mapper.readTree(inputStream);
+      return jsonNode == null || jsonNode.isMissingNode() ? null : jsonNode;
+    } catch (JsonProcessingException e) {
+      LogUtil.logger().warn("-http json parse failed: {}", e.getOriginalMessage());
+      return null;
+    }
+  }
+
+  /**
+   * {@link InputStream}을 responseType으로 바로 변환한다. 본문이 없으면 null을 반환한다.
+   *
+   * @throws JsonProcessingException 변환 실패
+   */
+  static <T> T read(InputStream inputStream, Class<T> responseType) throws IOException {
+    try (JsonParser parser = mapper.getFactory().createParser(inputStream)) {
+      if (parser.nextToken() == null) {
+        return null;
+      }
+      return readers.computeIfAbsent(responseType, mapper::readerFor).readValue(parser);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.converters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.rebolt.http.utils.BufferPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * JSON 컨버터가 공유하는 {@link ObjectWriter}
+ *
+ * @since 1.2.0
+ */
+final class JsonWriters {
+  private static final ObjectWriter writer = new ObjectMapper()
+      .writer()
+      .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // 통신엔진의 스트림을 닫지 않는다
+
+  private JsonWriters() {
+  }
+
+  /**
+   * value를 JSON으로 직렬화해서 {@link OutputStream}에 바로 쓴다.
+   */
+  static void write(Object value, OutputStream outputStream) throws IOException {
+    if (value != null) {
+      writer.writeValue(outputStream, value);
+    }
+  }
+
+  /**
+   * value를 JSON으로 직렬화한다.
+   */
+  static byte[] toBytes(Object value) {
+    try {
+      return value != null ? writer.writeValueAsBytes(value) : BufferPool.EMPTY;
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.converters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.net.MediaType;
+import io.rebolt.core.utils.JsonUtil;
+import io.rebolt.core.utils.ObjectUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
+
+/**
+ * {@link Object} to {@link JsonNode} 컨버터
+ * <p>
+ * 등록되지 않은 타입(POJO 등)의 요청 페이로드를 JSON으로 직렬화한다.
+ * <p>
+ * ContentType: application/json;charset=utf-8"
+ * Accept: "application/json;charset=utf-8"
+ *
+ * @since 1.2.0
+ */
+final class ObjectToJsonConverter implements StreamConverter<Object, JsonNode>, TypedConverter {
+  @Override
+  public byte[] convertRequest(Object request) {
+    return JsonWriters.toBytes(request);
+  }
+
+  @Override
+  public void writeRequest(Object request, OutputStream outputStream) throws IOException {
+    JsonWriters.write(request, outputStream);
+  }
+
+  @Override
+  public long contentLength(Object request) {
+    return ObjectUtil.isNull(request) ? 0 : -1;
+  }
+
+  @Override
+  public JsonNode convertResponse(byte[] rawResponse) {
+    return !ObjectUtil.isNull(rawResponse) ? JsonUtil.read(new String(rawResponse, CHARSET_UTF8)) : null;
+  }
+
+  @Override
+  public JsonNode readResponse(InputStream inputStream) throws IOException {
+    return JsonReaders.readTree(inputStream);
+  }
+
+  @Override
+  public <T> T readResponse(InputStream inputStream, Class<T> responseType) throws IOException {
+    return JsonReaders.read(inputStream, responseType);
+  }
+
+  @Override
+  public String getContentType() {
+    return MediaType.JSON_UTF_8.toString();
+  }
+
+  @Override
+  public String getAccept() {
+    return MediaType.JSON_UTF_8.toString();
+  }
+}
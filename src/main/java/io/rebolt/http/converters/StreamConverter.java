@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.converters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 페이로드를 byte[]로 모으지 않고 스트림에서 바로 변환하는 컨버터
+ * <p>
+ * 통신엔진은 {@link Converter}가 {@link StreamConverter}를 구현했으면 요청 본문은 {@link #writeRequest(Object, OutputStream)}로
+ * 소켓에 바로 쓰고, 응답 본문은 메모리에 모으지 않고 {@link #readResponse(InputStream)}로 변환한다.
+ *
+ * @param <Request> 페이로드된 요청 프로토콜
+ * @param <Response> 페이로드된 응답 프로토콜
+ * @since 1.2.0
+ */
+public interface StreamConverter<Request, Response> extends BytesConverter<Request, Response> {
+
+  /**
+   * 응답 변환. {@link InputStream}은 호출한 쪽에서 닫는다.
+   *
+   * @param inputStream 응답 본문
+   * @return 응답 페이로드 (본문이 없으면 null)
+   * @throws IOException 본문 수신 실패
+   */
+  Response readResponse(InputStream inputStream) throws IOException;
+
+  /**
+   * 요청 본문 쓰기. 재시도할 때마다 다시 호출되므로 같은 요청을 여러 번 쓸 수 있어야 한다.
+   * {@link OutputStream}은 닫지 않는다.
+   *
+   * @param request 요청 페이로드 (null이면 아무것도 쓰지 않는다)
+   * @param outputStream 요청 본문
+   * @throws IOException 전송 실패
+   */
+  void writeRequest(Request request, OutputStream outputStream) throws IOException;
+
+  /**
+   * 요청 본문 크기
+   *
+   * @param request 요청 페이로드
+   * @return 본문 크기 (미리 알 수 없으면 -1, 이 경우 chunked 방식으로 전송된다)
+   */
+  long contentLength(Request request);
+}
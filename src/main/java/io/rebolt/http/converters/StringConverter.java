@@ -18,16 +18,34 @@ package io.rebolt.http.converters;
 
 import com.google.common.net.MediaType;
 import io.rebolt.core.utils.ObjectUtil;
+import io.rebolt.http.utils.BufferPool;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
 
 /**
  * {@link String} to {@link String} 컨버터
  */
-final class StringConverter implements BytesConverter<String, String> {
+final class StringConverter implements StreamConverter<String, String> {
   @Override
   public byte[] convertRequest(String request) {
-    return ObjectUtil.isNull(request) ? new byte[0] : request.getBytes(CHARSET_UTF8);
+    return ObjectUtil.isNull(request) ? BufferPool.EMPTY : request.getBytes(CHARSET_UTF8);
+  }
+
+  @Override
+  public void writeRequest(String request, OutputStream outputStream) throws IOException {
+    if (!ObjectUtil.isNull(request)) {
+      Utf8.write(request, outputStream);
+    }
+  }
+
+  @Override
+  public long contentLength(String request) {
+    return ObjectUtil.isNull(request) ? 0 : Utf8.length(request);
   }
 
   @Override
@@ -35,6 +53,11 @@ final class StringConverter implements BytesConverter<String, String> {
     return ObjectUtil.isNull(rawResponse) ? null : new String(rawResponse, CHARSET_UTF8);
   }
 
+  @Override
+  public String readResponse(InputStream inputStream) throws IOException {
+    return Okio.buffer(Okio.source(inputStream)).readUtf8(); // okio의 세그먼트 풀을 사용한다
+  }
+
   @Override
   public String getContentType() {
     return MediaType.PLAIN_TEXT_UTF_8.toString();
@@ -20,6 +20,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.net.MediaType;
 import io.rebolt.core.utils.JsonUtil;
 import io.rebolt.core.utils.ObjectUtil;
+import io.rebolt.http.utils.BufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
 
@@ -29,10 +34,22 @@ import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
  * ContentType: "application/x-www-form-urlencoded;charset=utf-8"
  * Accept: "application/json;charset=utf-8"
  */
-final class StringToJsonConverter implements BytesConverter<String, JsonNode> {
+final class StringToJsonConverter implements StreamConverter<String, JsonNode>, TypedConverter {
   @Override
   public byte[] convertRequest(String request) {
-    return ObjectUtil.isNull(request) ? new byte[0] : request.getBytes(CHARSET_UTF8);
+    return ObjectUtil.isNull(request) ? BufferPool.EMPTY : request.getBytes(CHARSET_UTF8);
+  }
+
+  @Override
+  public void writeRequest(String request, OutputStream outputStream) throws IOException {
+    if (!ObjectUtil.isNull(request)) {
+      Utf8.write(request, outputStream);
+    }
+  }
+
+  @Override
+  public long contentLength(String request) {
+    return ObjectUtil.isNull(request) ? 0 : Utf8.length(request);
   }
 
   @Override
@@ -40,6 +57,16 @@ final class StringToJsonConverter implements BytesConverter<String, JsonNode> {
     return !ObjectUtil.isNull(rawResponse) ? JsonUtil.read(new String(rawResponse, CHARSET_UTF8)) : null;
   }
 
+  @Override
+  public JsonNode readResponse(InputStream inputStream) throws IOException {
+    return JsonReaders.readTree(inputStream);
+  }
+
+  @Override
+  public <T> T readResponse(InputStream inputStream, Class<T> responseType) throws IOException {
+    return JsonReaders.read(inputStream, responseType);
+  }
+
   @Override
   public String getContentType() {
     return MediaType.FORM_DATA.toString();
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.converters;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 응답 본문을 중간 객체({@link com.fasterxml.jackson.databind.JsonNode}, {@link String}) 없이
+ * {@link io.rebolt.http.HttpRequest#getResponseType()}으로 바로 변환하는 컨버터
+ * <p>
+ * 통신엔진은 성공 응답(2xx)이고 응답 타입이 컨버터의 기본 응답 타입과 다를 때 이 인터페이스를 사용한다.
+ *
+ * @since 1.2.0
+ */
+public interface TypedConverter {
+
+  /**
+   * 응답 변환. {@link InputStream}은 호출한 쪽에서 닫는다.
+   *
+   * @param inputStream 응답 본문
+   * @param responseType 응답 클래스
+   * @param <T> 응답 클래스
+   * @return 응답 객체 (본문이 없으면 null)
+   * @throws IOException 본문 수신 실패, 변환 실패({@link com.fasterxml.jackson.core.JsonProcessingException})
+   */
+  <T> T readResponse(InputStream inputStream, Class<T> responseType) throws IOException;
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.converters;
+
+import io.rebolt.http.utils.BufferPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 문자열을 byte[]로 변환하지 않고 UTF-8로 쓴다.
+ *
+ * @since 1.2.0
+ */
+final class Utf8 {
+  private static final int BUFFER_SIZE = 8192;
+
+  private Utf8() {
+  }
+
+  /**
+   * UTF-8로 인코딩한 크기
+   */
+  static long length(CharSequence value) {
+    long length = 0;
+    for (int i = 0, size = value.length(); i < size; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (!Character.isSurrogate(c)) {
+        length += 3;
+      } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += 1; // 짝이 없는 surrogate는 '?'로 인코딩된다
+      }
+    }
+    return length;
+  }
+
+  /**
+   * UTF-8로 인코딩해서 쓴다. 작업용 버퍼는 {@link BufferPool}에서 빌린다.
+   */
+  static void write(CharSequence value, OutputStream outputStream) throws IOException {
+    byte[] buffer = BufferPool.lease(BUFFER_SIZE);
+    try {
+      int position = 0;
+      for (int i = 0, size = value.length(); i < size; i++) {
+        if (position > BUFFER_SIZE - 4) {
+          outputStream.write(buffer, 0, position);
+          position = 0;
+        }
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+          buffer[position++] = (byte) (0xc0 | c >> 6);
+          buffer[position++] = (byte) (0x80 | c & 0x3f);
+        } else if (!Character.isSurrogate(c)) {
+          buffer[position++] = (byte) (0xe0 | c >> 12);
+          buffer[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+          buffer[position++] = (byte) (0x80 | c & 0x3f);
+        } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          buffer[position++] = (byte) (0xf0 | codePoint >> 18);
+          buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+          buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+          buffer[position++] = (byte) (0x80 | codePoint & 0x3f);
+        } else {
+          buffer[position++] = '?';
+        }
+      }
+      outputStream.write(buffer, 0, position); // 통신엔진의 스트림을 닫지 않는다
+    } finally {
+      BufferPool.release(buffer);
+    }
+  }
+}
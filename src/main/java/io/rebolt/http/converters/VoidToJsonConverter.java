@@ -5,6 +5,10 @@ import com.google.common.net.MediaType;
 import io.rebolt.core.utils.JsonUtil;
 import io.rebolt.core.utils.ObjectUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
 
 /**
@@ -12,17 +16,36 @@ import static io.rebolt.core.constants.Constants.CHARSET_UTF8;
  * <p>
  * Accept: "application/json;charset=utf-8"
  */
-public class VoidToJsonConverter implements BytesConverter<Void, JsonNode> {
+public class VoidToJsonConverter implements StreamConverter<Void, JsonNode>, TypedConverter {
   @Override
   public byte[] convertRequest(Void aVoid) {
     return null;
   }
 
+  @Override
+  public void writeRequest(Void aVoid, OutputStream outputStream) {
+  }
+
+  @Override
+  public long contentLength(Void aVoid) {
+    return 0;
+  }
+
   @Override
   public JsonNode convertResponse(byte[] rawResponse) {
     return !ObjectUtil.isNull(rawResponse) ? JsonUtil.read(new String(rawResponse, CHARSET_UTF8)) : null;
   }
 
+  @Override
+  public JsonNode readResponse(InputStream inputStream) throws IOException {
+    return JsonReaders.readTree(inputStream);
+  }
+
+  @Override
+  public <T> T readResponse(InputStream inputStream, Class<T> responseType) throws IOException {
+    return JsonReaders.read(inputStream, responseType);
+  }
+
   @Override
   public String getContentType() {
     return null;
@@ -23,12 +23,22 @@ import io.rebolt.http.HttpCallback;
 import io.rebolt.http.HttpRequest;
 import io.rebolt.http.HttpResponse;
 import io.rebolt.http.HttpStatus;
+import io.rebolt.http.executors.AdaptiveLimiter;
+import io.rebolt.http.executors.CircuitBreaker;
+import io.rebolt.http.executors.DispatchGate;
+import io.rebolt.http.executors.ExecutorType;
+import io.rebolt.http.executors.OverflowPolicy;
+import io.rebolt.http.executors.RateLimiter;
+import io.rebolt.http.executors.SimpleThreadFactory;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Random;
+import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadFactory;
 
+import static io.rebolt.http.HttpStatus.BAD_GATEWAY_502;
 import static io.rebolt.http.HttpStatus.GATEWAY_TIMEOUT_504;
 import static io.rebolt.http.HttpStatus.REQUEST_TIMEOUT_408;
 import static io.rebolt.http.HttpStatus.TOO_MANY_REQUESTS_429;
@@ -55,6 +65,20 @@ public abstract class AbstractEngine<RQ, RS, CB> {
    */
   private @Getter @Setter int retryCount = 3;
 
+  /**
+   * 재시도 대기시간의 기준값. n번째 재시도는 0 ~ retryBaseDelay * 2^n 사이에서 대기한다.
+   * <p>
+   * 기본값 : 200 milliseconds
+   */
+  private @Getter @Setter int retryBaseDelay = 200;
+
+  /**
+   * 재시도 대기시간의 최대값
+   * <p>
+   * 기본값 : 3,000 milliseconds
+   */
+  private @Getter @Setter int retryMaxDelay = 3000;
+
   /**
    * 커넥션 타임아웃 설정
    * <p>
@@ -91,11 +115,39 @@ public abstract class AbstractEngine<RQ, RS, CB> {
   private @Getter @Setter int connectionPoolKeepAliveDuration = 2000;
 
   /**
-   * 재시도 {@link HttpStatus} 정의
+   * 응답 압축 협상에 사용할 Accept-Encoding (예: "gzip, br", 클라이언트 생성 전에 설정해야 한다)
    * <p>
-   * 기본값 : 408 (Request timeout), 429 (Too many requests), 504 (Gateway timeout)
+   * 기본값 : null (OkHttp 기본 동작, gzip만 요청하고 자동으로 푼다)
    */
-  private Set<HttpStatus> retryStatus = Sets.newHashSet(REQUEST_TIMEOUT_408, TOO_MANY_REQUESTS_429, GATEWAY_TIMEOUT_504);
+  private @Getter @Setter String acceptEncoding;
+
+  /**
+   * 요청 본문 압축에 사용할 Content-Encoding (클라이언트 생성 전에 설정해야 한다)
+   * <p>
+   * 기본값 : null (압축하지 않음)
+   */
+  private @Getter @Setter String requestEncoding;
+
+  /**
+   * 요청 본문을 압축하는 최소 크기 (단위: byte, 크기를 알 수 없는 본문은 항상 압축한다)
+   * <p>
+   * 기본값 : 1,024 bytes
+   */
+  private @Getter @Setter int requestCompressionThreshold = 1024;
+
+  /**
+   * 요청 deadline까지 남은 시간(단위: millisecond)을 하위 서비스로 전달하는 요청 헤더 (클라이언트 생성 전에 설정해야 한다)
+   * <p>
+   * 기본값 : null (전달하지 않음)
+   */
+  private @Getter @Setter String deadlineHeader;
+
+  /**
+   * 재시도 {@link HttpStatus} 정의 (retryPolicy를 설정하지 않은 경우에 사용한다)
+   * <p>
+   * 기본값 : 408 (Request timeout), 429 (Too many requests), 502 (Bad gateway), 504 (Gateway timeout)
+   */
+  private Set<HttpStatus> retryStatus = Sets.newHashSet(REQUEST_TIMEOUT_408, TOO_MANY_REQUESTS_429, BAD_GATEWAY_502, GATEWAY_TIMEOUT_504);
 
   public boolean containsRetryStatus(HttpStatus status) {
     return retryStatus.contains(status);
@@ -107,6 +159,21 @@ public abstract class AbstractEngine<RQ, RS, CB> {
     }
   }
 
+  /**
+   * 재시도 정책. 요청별로 지정한 정책({@link HttpRequest#retryPolicy(RetryPolicy)})이 우선한다.
+   * <p>
+   * 기본값 : null (retryStatus의 응답코드와 {@link java.io.IOException}을 멱등 요청에 한해 retryCount만큼 재시도한다)
+   */
+  private @Getter @Setter RetryPolicy retryPolicy;
+
+  private final RetryPolicy statusRetryPolicy = new RetryPolicy.Builder()
+      .retryOnStatus(code -> {
+        HttpStatus status = HttpStatus.lookup(code);
+        return status != null && status.getCode() == code && containsRetryStatus(status);
+      })
+      .retryOnException(IOException.class)
+      .build();
+
   /**
    * 스레드풀 수 (Async 전용)
    * <p>
@@ -122,27 +189,149 @@ public abstract class AbstractEngine<RQ, RS, CB> {
   private @Getter @Setter int threadIdleTime = 1000;
 
   /**
-   * 요청 최대 대기수 (Async 전용)
+   * 스레드풀 종류 (Async 전용, 클라이언트 생성 전에 설정해야 한다)
+   * <p>
+   * 기본값 : {@link ExecutorType#LinkedBlocking}
+   */
+  private @Getter @Setter ExecutorType executorType = ExecutorType.LinkedBlocking;
+
+  /**
+   * 스레드풀에서 사용하는 {@link ThreadFactory} (Async 전용, 클라이언트 생성 전에 설정해야 한다)
+   * <p>
+   * 기본값 : {@link SimpleThreadFactory} (데몬 스레드, 기본 우선순위)
+   */
+  private @Getter @Setter ThreadFactory threadFactory = new SimpleThreadFactory();
+
+  /**
+   * 요청 최대 대기수 (Async 전용, overflowPolicy를 설정한 경우에 사용한다)
    * <p>
    * 기본값 : 0
    */
   private @Getter @Setter int requestQueueSize = 0;
 
+  /**
+   * 동시 요청수(maxRequests)와 대기큐(requestQueueSize)가 모두 가득 찼을 때의 처리 정책 (Async 전용, 클라이언트 생성 전에 설정해야 한다)
+   * <p>
+   * 기본값 : null (대기큐 크기를 제한하지 않음)
+   */
+  private @Getter @Setter OverflowPolicy overflowPolicy;
+
+  /**
+   * {@link OverflowPolicy#Block}의 최대 대기시간 (단위: millisecond)
+   * <p>
+   * 기본값 : 1000
+   */
+  private @Getter @Setter int overflowTimeout = 1000;
+
+  /**
+   * 전체 최대 동시 요청수 (Async 전용, 클라이언트 생성 전에 설정해야 한다)
+   * <p>
+   * 기본값 : 64
+   */
+  private @Getter @Setter int maxRequests = 64;
+
+  /**
+   * 호스트별 동시 요청수 제한 (Async 전용)
+   */
+  private final DispatchGate dispatchGate = new DispatchGate(64);
+
+  /**
+   * 호스트별 최대 동시 요청수의 기본값 (Async 전용)
+   * <p>
+   * 기본값 : 64
+   *
+   * @return 최대 동시 요청수
+   */
+  public int getMaxRequestsPerHost() {
+    return dispatchGate.getDefaultLimit();
+  }
+
+  public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+    dispatchGate.setDefaultLimit(maxRequestsPerHost);
+  }
+
+  /**
+   * 특정 호스트의 최대 동시 요청수 (Async 전용)
+   *
+   * @param host 호스트
+   * @param maxRequests 최대 동시 요청수 (0 이하이면 기본값을 사용한다)
+   */
+  public void setMaxRequestsPerHost(String host, int maxRequests) {
+    dispatchGate.setLimit(host, maxRequests);
+  }
+
+  /**
+   * 호스트별 대기, 진행중인 요청 현황 (Async 전용)
+   *
+   * @return 키: 호스트, 값: {@link DispatchGate.HostStats}
+   */
+  public Map<String, DispatchGate.HostStats> getHostStats() {
+    return dispatchGate.getStats();
+  }
+
+  /**
+   * 응답시간에 따라 호스트별 동시 요청수를 조정하는 {@link AdaptiveLimiter} (Async 전용)
+   * <p>
+   * 기본값 : null (사용하지 않음)
+   */
+  private @Getter @Setter AdaptiveLimiter adaptiveLimiter;
+
+  /**
+   * 응답이 늦은 멱등 요청을 한 번 더 보내는 {@link HedgePolicy}
+   * <p>
+   * 기본값 : null (사용하지 않음)
+   */
+  private @Getter @Setter HedgePolicy hedgePolicy;
+
+  /**
+   * 실패가 이어지는 호스트로의 요청을 즉시 거절하는 {@link CircuitBreaker}
+   * <p>
+   * 기본값 : null (사용하지 않음)
+   */
+  private @Getter @Setter CircuitBreaker circuitBreaker;
+
+  /**
+   * 호스트, 경로별 요청 속도를 제한하는 {@link RateLimiter}
+   * <p>
+   * 기본값 : null (사용하지 않음)
+   */
+  private @Getter @Setter RateLimiter rateLimiter;
+
+  protected DispatchGate getDispatchGate() {
+    return dispatchGate;
+  }
+
   // endregion
 
   /**
-   * 요청에 할당된 스레드를 1~2초사이의 Sleep을 진행한다
+   * 요청 단위의 재시도 상태를 생성한다. 요청별 정책, 통신엔진의 정책, retryStatus 순서로 {@link RetryPolicy}를 정하며,
+   * 요청에 재시도 횟수({@link HttpRequest#retryCount(int)})를 지정했으면 그 값을 사용한다.
    *
-   * @since 1.0
+   * @param request {@link HttpRequest} (null이면 통신엔진의 정책을 사용한다)
+   * @return {@link RetryContext}
+   * @since 1.2.0
    */
-  protected void goSleep() {
-    try {
-      Thread.sleep(new Random().nextInt(1000) + 1000); // 1~2초 사이
-    } catch (InterruptedException ignored) {
-      // ignored...
+  protected RetryContext newRetryContext(HttpRequest request) {
+    RetryPolicy policy = request != null && request.getRetryPolicy() != null ? request.getRetryPolicy() : retryPolicy;
+    if (policy == null) {
+      policy = statusRetryPolicy;
     }
+    int budget = policy.getMaxRetries() >= 0 ? policy.getMaxRetries() : retryCount;
+    if (request != null && request.getRetryCount() != null) {
+      budget = request.getRetryCount();
+    }
+    RetryBackoff backoff = policy.getBaseDelay() >= 0 ? new RetryBackoff(policy.getBaseDelay(), policy.getMaxDelay()) : new RetryBackoff(retryBaseDelay, retryMaxDelay);
+    return new RetryContext(budget, backoff, policy, request);
   }
 
+  /**
+   * 다른 통신엔진과 커넥션풀을 공유한다. 첫 요청 전에 호출해야 한다.
+   *
+   * @param engine 커넥션풀을 공유할 통신엔진 (같은 종류의 엔진이어야 한다)
+   * @since 1.2.0
+   */
+  public abstract void shareConnectionPool(AbstractEngine<?, ?, ?> engine);
+
   /**
    * 요청 객체를 생성한다.
    *
@@ -180,6 +369,19 @@ public abstract class AbstractEngine<RQ, RS, CB> {
    */
   public abstract void invokeAsync(RQ request, CB callback);
 
+  /**
+   * 비동기 요청. 대기큐가 가득 차면 {@link OverflowPolicy}와 관계없이 요청하지 않고 false를 반환한다.
+   *
+   * @param request 통신엔진에서 사용하는 Request 인스턴스
+   * @param callback 통신엔진에서 사용하는 Callback 인스턴스
+   * @return 요청 여부 (false이면 callback은 호출되지 않는다)
+   * @since 1.2.0
+   */
+  public boolean tryInvokeAsync(RQ request, CB callback) {
+    invokeAsync(request, callback);
+    return true;
+  }
+
   /**
    * 콜백 객체를 생성한다.
    *
@@ -190,4 +392,16 @@ public abstract class AbstractEngine<RQ, RS, CB> {
    */
   public abstract CB makeCallback(HttpRequest request, HttpCallback callback);
 
+  /**
+   * 비동기 요청 취소. 진행중인 요청과 예약된 재시도를 중단한다.
+   * <p>
+   * 취소를 지원하지 않는 통신엔진은 무시한다.
+   *
+   * @param callback {@link #makeCallback(HttpRequest, HttpCallback)}로 생성한 콜백 인스턴스
+   * @since 1.2.0
+   */
+  public void cancel(CB callback) {
+    // not supported
+  }
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.rebolt.http.engines;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.rebolt.core.utils.LogUtil;
+import io.rebolt.http.codecs.ContentCodec;
+import io.rebolt.http.codecs.ContentCodecs;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 압축 협상 인터셉터
+ * <p>
+ * 응답: Accept-Encoding을 직접 지정하면 OkHttp가 gzip을 자동으로 풀지 않으므로 응답의 Content-Encoding에 맞는
+ * {@link ContentCodec}으로 본문을 스트림 단위로 풀어서 전달한다.
+ * <p>
+ * 요청: 본문이 threshold 이상이거나 크기를 알 수 없으면(chunked) 압축해서 보낸다.
+ * 서버가 415(Unsupported Media Type)로 거절하면 호스트를 기억해두고 압축하지 않은 본문으로 한 번 더 보낸다.
+ *
+ * @since 1.2.0
+ */
+final class CompressionInterceptor implements Interceptor {
+  private static final String ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String CONTENT_ENCODING = "Content-Encoding";
+  private static final int UNSUPPORTED_MEDIA_TYPE = 415;
+
+  /**
+   * 요청 압축을 거절한 호스트 (서버 설정이 바뀔 수 있으므로 1시간 뒤에 다시 시도한다)
+   */
+  private static final Cache<String, Boolean> identityHosts = CacheBuilder.newBuilder()
+      .maximumSize(1024)
+      .expireAfterWrite(1, TimeUnit.HOURS)
+      .build();
+
+  private final String acceptEncoding; // null: OkHttp 기본 동작
+  private final ContentCodec requestCodec; // null: 요청을 압축하지 않음
+  private final int threshold;
+
+  CompressionInterceptor(String acceptEncoding, ContentCodec requestCodec, int threshold) {
+    this.acceptEncoding = acceptEncoding;
+    this.requestCodec = requestCodec;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    boolean decode = false;
+    if (acceptEncoding != null && request.header(ACCEPT_ENCODING) == null) {
+      request = request.newBuilder().header(ACCEPT_ENCODING, acceptEncoding).build();
+      decode = true;
+    }
+    Request compressed = compress(request);
+    Response response = chain.proceed(compressed != null ? compressed : request);
+    if (compressed != null && response.code() == UNSUPPORTED_MEDIA_TYPE) {
+      String host = request.url().host();
+      identityHosts.put(host, Boolean.TRUE);
+      LogUtil.logger().warn("-http request compression rejected: {}", host);
+      response.close();
+      response = chain.proceed(request);
+    }
+    return decode ? decode(request, response) : response;
+  }
+
+  /**
+   * 호스트가 요청 압축을 거절한 적이 있는지 여부
+   */
+  static boolean isIdentityHost(String host) {
+    return identityHosts.getIfPresent(host) != null;
+  }
+
+  private Request compress(Request request) throws IOException {
+    RequestBody body = request.body();
+    if (requestCodec == null || body == null || request.header(CONTENT_ENCODING) != null || isIdentityHost(request.url().host())) {
+      return null;
+    }
+    long length = body.contentLength();
+    if (length >= 0 && length < threshold) {
+      return null;
+    }
+    return request.newBuilder()
+        .header(CONTENT_ENCODING, requestCodec.getEncoding())
+        .method(request.method(), new EncodedRequestBody(body, requestCodec))
+        .build();
+  }
+
+  private static Response decode(Request request, Response response) throws IOException {
+    String encoding = response.header(CONTENT_ENCODING);
+    ResponseBody body = response.body();
+    if (encoding == null || body == null || "HEAD".equals(request.method()) || body.contentLength() == 0) {
+      return response;
+    }
+    ContentCodec codec = ContentCodecs.get(encoding);
+    if (codec == null) {
+      return response; // identity 또는 알 수 없는 encoding은 그대로 전달한다
+    }
+    ResponseBody decoded = ResponseBody.create(body.contentType(), -1, Okio.buffer(Okio.source(codec.decode(body.byteStream()))));
+    return response.newBuilder()
+        .removeHeader(CONTENT_ENCODING)
+        .removeHeader("Content-Length")
+        .body(decoded)
+        .build();
+  }
+
+  /**
+   * 원본 본문을 압축하면서 쓰는 요청 본문. 재시도시 원본 본문을 다시 쓴다.
+   */
+  private static final class EncodedRequestBody extends RequestBody {
+    private final RequestBody body;
+    private final ContentCodec codec;
+
+    private EncodedRequestBody(RequestBody body, ContentCodec codec) {
+      this.body = body;
+      this.codec = codec;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return body.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      // 코덱 스트림을 닫아 압축을 마무리하되, 통신엔진의 sink는 닫지 않는다
+      OutputStream target = new FilterOutputStream(sink.outputStream()) {
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+          out.write(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+          flush();
+        }
+      };
+      try (BufferedSink encoded = Okio.buffer(Okio.sink(codec.encode(target)))) {
+        body.writeTo(encoded);
+      }
+    }
+  }
+}
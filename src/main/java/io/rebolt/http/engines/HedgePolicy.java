@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.engines;
+
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HedgePolicy
+ * <p>
+ * 멱등 요청({@link io.rebolt.http.HttpRequest#isIdempotent()})이 일정 시간 안에 응답하지 않으면 같은 요청을 한 번 더 보내고(hedge),
+ * 먼저 도착한 응답을 사용한다. 늦게 도착하는 응답은 취소된다.
+ * <p>
+ * hedge 대기시간은 호스트별 최근 응답시간의 백분위수(기본값: p95)로 정한다. 느린 일부 레플리카 때문에 생기는
+ * 꼬리 지연(tail latency)만 줄이고, 대부분의 요청은 hedge 없이 끝난다.
+ * 추가 요청량은 hedge budget(요청수 대비 비율)으로 제한하므로 백엔드 전체가 느려져도 요청량이 두 배가 되지 않는다.
+ *
+ * @since 1.2.0
+ */
+public final class HedgePolicy {
+  private static final int WINDOW = 256; // 호스트별로 보관하는 응답시간 샘플 수
+  private static final int REFRESH = 32; // 백분위수를 다시 계산하는 샘플 간격
+  private static final long TOKEN = 1000; // hedge 1회에 필요한 budget (milli-token)
+
+  private final ConcurrentMap<String, Latency> latencies = Maps.newConcurrentMap();
+  private final AtomicLong balance;
+  private final LongAdder requestCount = new LongAdder();
+  private final LongAdder hedgeCount = new LongAdder();
+  private final LongAdder wonCount = new LongAdder();
+  private final LongAdder exhaustedCount = new LongAdder();
+  private final @Getter double percentile;
+  private final @Getter long minDelay;
+  private final @Getter long maxDelay;
+  private final @Getter int minSamples;
+  private final @Getter double budget;
+  private final @Getter int burst;
+
+  private HedgePolicy(Builder builder) {
+    this.percentile = builder.percentile;
+    this.minDelay = builder.minDelay;
+    this.maxDelay = builder.maxDelay;
+    this.minSamples = builder.minSamples;
+    this.budget = builder.budget;
+    this.burst = builder.burst;
+    this.balance = new AtomicLong(burst * TOKEN);
+  }
+
+  /**
+   * hedge 대기시간. 응답시간 샘플이 minSamples보다 적으면 maxDelay를 사용한다.
+   * <p>
+   * hedge 대상 요청마다 한 번 호출되며, 호출할 때마다 hedge budget이 적립된다.
+   *
+   * @param host 호스트
+   * @return 대기시간 (단위: millisecond)
+   * @since 1.2.0
+   */
+  public long delay(String host) {
+    requestCount.increment();
+    long deposit = (long) (budget * TOKEN);
+    long cap = burst * TOKEN;
+    balance.getAndUpdate(current -> Math.min(cap, current + deposit));
+    Latency latency = latencies.get(host);
+    long delay = latency == null ? -1 : latency.percentile();
+    return delay < 0 ? maxDelay : Math.max(minDelay, Math.min(maxDelay, delay));
+  }
+
+  /**
+   * hedge 허가. budget이 남아 있으면 1회분을 차감하고 허가한다.
+   *
+   * @return 허가 여부
+   * @since 1.2.0
+   */
+  public boolean tryHedge() {
+    while (true) {
+      long current = balance.get();
+      if (current < TOKEN) {
+        exhaustedCount.increment();
+        return false;
+      }
+      if (balance.compareAndSet(current, current - TOKEN)) {
+        hedgeCount.increment();
+        return true;
+      }
+    }
+  }
+
+  /**
+   * hedge 요청의 응답이 먼저 도착해서 사용된 경우
+   *
+   * @since 1.2.0
+   */
+  public void onHedgeWon() {
+    wonCount.increment();
+  }
+
+  /**
+   * 응답시간 기록
+   *
+   * @param host 호스트
+   * @param elapsedTime 응답시간 (단위: nanosecond)
+   * @since 1.2.0
+   */
+  public void record(String host, long elapsedTime) {
+    latencies.computeIfAbsent(host, key -> new Latency(this)).add(TimeUnit.NANOSECONDS.toMillis(elapsedTime));
+  }
+
+  /**
+   * hedge 현황
+   *
+   * @return {@link Stats}
+   * @since 1.2.0
+   */
+  public Stats getStats() {
+    return new Stats(requestCount.sum(), hedgeCount.sum(), wonCount.sum(), exhaustedCount.sum());
+  }
+
+  private static final class Latency {
+    private final HedgePolicy policy;
+    private final long[] samples = new long[WINDOW];
+    private long count;
+    private volatile long percentile = -1;
+
+    private Latency(HedgePolicy policy) {
+      this.policy = policy;
+    }
+
+    private synchronized void add(long elapsedTime) {
+      samples[(int) (count++ % WINDOW)] = elapsedTime;
+      if (count >= policy.minSamples && (count < WINDOW || count % REFRESH == 0)) {
+        int size = (int) Math.min(count, WINDOW);
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        percentile = sorted[Math.min(size - 1, (int) Math.ceil(policy.percentile * size) - 1)];
+      }
+    }
+
+    private long percentile() {
+      return percentile;
+    }
+  }
+
+  /**
+   * hedge 현황
+   */
+  @ToString
+  @Getter
+  public static final class Stats {
+    private final long requests; // hedge 대상 요청 수
+    private final long hedged; // hedge를 보낸 수
+    private final long won; // hedge 응답이 먼저 도착한 수
+    private final long exhausted; // budget이 부족해서 hedge를 보내지 못한 수
+
+    private Stats(long requests, long hedged, long won, long exhausted) {
+      this.requests = requests;
+      this.hedged = hedged;
+      this.won = won;
+      this.exhausted = exhausted;
+    }
+  }
+
+  /**
+   * {@link HedgePolicy} Builder
+   */
+  public static final class Builder {
+    private double percentile = 0.95;
+    private long minDelay = 5;
+    private long maxDelay = 1000;
+    private int minSamples = 20;
+    private double budget = 0.05;
+    private int burst = 10;
+
+    /**
+     * hedge 대기시간으로 사용할 응답시간 백분위수 (0 ~ 1, 기본값: 0.95)
+     */
+    public Builder setPercentile(double percentile) {
+      this.percentile = percentile;
+      return this;
+    }
+
+    /**
+     * hedge 대기시간 범위 (단위: millisecond, 기본값: 5 ~ 1,000)
+     */
+    public Builder setDelay(long minDelay, long maxDelay) {
+      this.minDelay = minDelay;
+      this.maxDelay = maxDelay;
+      return this;
+    }
+
+    /**
+     * 백분위수를 사용하기 위한 최소 샘플 수. 샘플이 부족하면 최대 대기시간을 사용한다. (기본값: 20)
+     */
+    public Builder setMinSamples(int minSamples) {
+      this.minSamples = minSamples;
+      return this;
+    }
+
+    /**
+     * hedge budget. 요청 1회당 적립되는 hedge 횟수이며, 추가 요청량의 상한이 된다. (0 ~ 1, 기본값: 0.05)
+     */
+    public Builder setBudget(double budget) {
+      this.budget = budget;
+      return this;
+    }
+
+    /**
+     * 적립할 수 있는 최대 hedge 횟수 (기본값: 10)
+     */
+    public Builder setBurst(int burst) {
+      this.burst = burst;
+      return this;
+    }
+
+    public HedgePolicy build() {
+      if (percentile <= 0 || percentile > 1 || minSamples < 1 || minSamples > WINDOW) {
+        throw new IllegalParameterException("-percentile: " + percentile + ", minSamples: " + minSamples + " (expected: 1 ~ " + WINDOW + ")");
+      }
+      if (minDelay < 0 || maxDelay < minDelay || budget <= 0 || budget > 1 || burst < 1) {
+        throw new IllegalParameterException("-delay: " + minDelay + " ~ " + maxDelay + ", budget: " + budget + ", burst: " + burst);
+      }
+      return new HedgePolicy(this);
+    }
+  }
+}
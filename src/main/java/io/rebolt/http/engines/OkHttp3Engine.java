@@ -18,38 +18,77 @@ package io.rebolt.http.engines;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.io.CountingInputStream;
+import io.rebolt.core.exceptions.IllegalParameterException;
 import io.rebolt.core.utils.JsonUtil;
 import io.rebolt.core.utils.LogUtil;
 import io.rebolt.core.utils.ObjectUtil;
+import io.rebolt.http.HttpAttempt;
 import io.rebolt.http.HttpCallback;
 import io.rebolt.http.HttpHeader;
 import io.rebolt.http.HttpMethod;
 import io.rebolt.http.HttpRequest;
 import io.rebolt.http.HttpResponse;
 import io.rebolt.http.HttpStatus;
+import io.rebolt.http.HttpStream;
+import io.rebolt.http.codecs.ContentCodecs;
+import io.rebolt.http.converters.Converter;
+import io.rebolt.http.converters.StreamConverter;
+import io.rebolt.http.converters.TypedConverter;
 import io.rebolt.http.exceptions.HttpException;
+import io.rebolt.http.executors.AdaptiveLimiter;
+import io.rebolt.http.executors.BoundedSubmitter;
+import io.rebolt.http.executors.CircuitBreaker;
+import io.rebolt.http.executors.DispatchGate;
+import io.rebolt.http.executors.ExecutorType;
 import io.rebolt.http.executors.LinkedBlockingThreadExecutor;
-import io.rebolt.http.executors.SimpleThreadFactory;
+import io.rebolt.http.executors.LockFreeThreadExecutor;
+import io.rebolt.http.executors.OverflowPolicy;
+import io.rebolt.http.executors.RateLimiter;
+import io.rebolt.http.executors.SharedTimer;
+import io.rebolt.http.executors.VirtualThreads;
 import io.rebolt.http.factories.AbstractFactory;
+import io.rebolt.http.utils.BufferPool;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.ConnectionPool;
 import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static io.rebolt.http.HttpMethod.Get;
 import static io.rebolt.http.HttpStatus.BAD_REQUEST_400;
+import static io.rebolt.http.HttpStatus.CIRCUIT_OPEN_496;
+import static io.rebolt.http.HttpStatus.DEADLINE_EXCEEDED_494;
+import static io.rebolt.http.HttpStatus.LIMIT_EXCEEDED_498;
+import static io.rebolt.http.HttpStatus.RATE_LIMITED_495;
 import static io.rebolt.http.HttpStatus.REQUEST_FAILED_499;
+import static io.rebolt.http.HttpStatus.REQUEST_REJECTED_497;
 import static io.rebolt.http.HttpStatus.REQUEST_TIMEOUT_408;
+import static io.rebolt.http.HttpStatus.SERVICE_UNAVAILABLE_503;
+import static io.rebolt.http.HttpStatus.TOO_MANY_REQUESTS_429;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * OkHttp3 통신엔진
@@ -57,9 +96,14 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * @since 1.0
  */
 public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callback> {
-  private OkHttpClient client;
-  private OkHttpClient asyncClient;
-  private final Object _lock = new Object();
+  private volatile OkHttpClient core;
+  private volatile OkHttp3Engine coreEngine; // 커넥션풀을 공유하는 다른 엔진 (null이면 자신의 core를 사용한다)
+  private volatile OkHttpClient client;
+  private volatile OkHttpClient asyncClient;
+  private volatile OkHttpClient redirectClient; // client의 followRedirects 설정을 반대로 적용한 파생 클라이언트
+  private volatile OkHttpClient asyncRedirectClient; // asyncClient의 followRedirects 설정을 반대로 적용한 파생 클라이언트
+  private volatile BoundedSubmitter submitter;
+  private final ReentrantLock lock = new ReentrantLock(); // 가상 스레드가 캐리어 스레드에 고정(pinning)되지 않도록 synchronized 대신 사용한다
 
   // region make request & response
 
@@ -72,7 +116,7 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
    */
   @Override
   public Request makeRequest(HttpRequest httpRequest) {
-    Request.Builder builder = new Request.Builder();
+    Request.Builder builder = new Request.Builder().tag(httpRequest);
     // step 1 : header
     ObjectUtil.nullGuard(httpRequest.getHeader().getHeaderMap()).forEach(builder::addHeader);
     // step 2 : uri and path and query
@@ -83,9 +127,7 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
     if (method.equals(Get)) {
       builder.get();
     } else {
-      @SuppressWarnings("unchecked")
-      byte[] bodyBytes = (byte[]) httpRequest.getConverter().convertRequest(httpRequest.getBody());
-      RequestBody body = RequestBody.create(MediaType.parse(httpRequest.getHeader().getContentType()), bodyBytes);
+      RequestBody body = makeRequestBody(httpRequest);
       switch (method) {
         default:
           builder.get();
@@ -100,7 +142,7 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
           builder.put(body);
           break;
         case Delete:
-          if (ObjectUtil.isEmpty(bodyBytes)) {
+          if (!httpRequest.isBody()) {
             builder.delete();
           } else {
             builder.delete(body);
@@ -114,6 +156,56 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
     return builder.build();
   }
 
+  /**
+   * 요청 본문 생성. {@link StreamConverter}는 byte[]로 모으지 않고 소켓에 바로 쓴다.
+   *
+   * @param httpRequest {@link HttpRequest}
+   * @return {@link RequestBody}
+   * @since 1.2.0
+   */
+  @SuppressWarnings("unchecked")
+  private static RequestBody makeRequestBody(HttpRequest httpRequest) {
+    MediaType contentType = MediaType.parse(httpRequest.getHeader().getContentType());
+    Converter<Object, ?, ?> converter = httpRequest.getConverter();
+    if (converter instanceof StreamConverter) {
+      return new ConverterRequestBody(contentType, (StreamConverter<Object, ?>) converter, httpRequest.getBody());
+    }
+    byte[] bodyBytes = (byte[]) converter.convertRequest(httpRequest.getBody());
+    return RequestBody.create(contentType, ObjectUtil.isNull(bodyBytes) ? BufferPool.EMPTY : bodyBytes);
+  }
+
+  /**
+   * {@link StreamConverter}로 쓰는 요청 본문. 재시도시 다시 쓸 수 있다.
+   */
+  private static final class ConverterRequestBody extends RequestBody {
+    private final MediaType contentType;
+    private final StreamConverter<Object, ?> converter;
+    private final Object body;
+    private final long contentLength;
+
+    private ConverterRequestBody(MediaType contentType, StreamConverter<Object, ?> converter, Object body) {
+      this.contentType = contentType;
+      this.converter = converter;
+      this.body = body;
+      this.contentLength = converter.contentLength(body);
+    }
+
+    @Override
+    public MediaType contentType() {
+      return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+      return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      converter.writeRequest(body, sink.outputStream());
+    }
+  }
+
   /**
    * 통신엔진용 응답객체 생성
    *
@@ -127,18 +219,48 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
     // get response header
     HttpHeader header = HttpHeader.createForResponse();
     ObjectUtil.nullGuard(response.headers().toMultimap()).forEach(header::add);
-    // get response body
-    byte[] responseBytes = null;
+    // streaming response
     ResponseBody responseBody = response.body();
+    if (isStream(httpRequest, response)) {
+      MediaType contentType = responseBody.contentType();
+      return new HttpResponse<>(response.code(), header,
+          new HttpStream(responseBody.byteStream(), responseBody.contentLength(), contentType != null ? contentType.toString() : null));
+    }
+    // parse response
+    Object responseObject = null;
+    long bodyLength = -1; // 압축을 푼 응답이나 chunked 응답은 Content-Length가 없으므로 읽은 크기를 센다
+    Converter<?, byte[], ?> converter = httpRequest.getConverter();
+    if (responseBody != null && converter instanceof TypedConverter && httpRequest.getResponseType() != JsonNode.class && response.isSuccessful()) {
+      // 응답 본문을 JsonNode를 거치지 않고 responseType으로 바로 변환
+      try (ResponseBody body = responseBody) {
+        CountingInputStream input = new CountingInputStream(body.byteStream());
+        responseObject = ((TypedConverter) converter).readResponse(input, httpRequest.getResponseType());
+        bodyLength = input.getCount();
+      } catch (JsonProcessingException e) {
+        // parse error
+        return new HttpResponse<>(BAD_REQUEST_400, header, new HttpException(BAD_REQUEST_400, e.getMessage()));
+      } catch (IOException e) {
+        LogUtil.warn(e);
+      }
+      return withBodyLength(new HttpResponse<>(response.code(), header, responseObject), bodyLength);
+    }
     if (responseBody != null) {
-      try {
-        responseBytes = responseBody.bytes();
+      try (ResponseBody body = responseBody) {
+        if (converter instanceof StreamConverter) {
+          CountingInputStream input = new CountingInputStream(body.byteStream());
+          responseObject = ((StreamConverter<?, ?>) converter).readResponse(input); // byte[]로 모으지 않고 변환
+          bodyLength = input.getCount();
+        } else {
+          byte[] bytes = body.bytes();
+          bodyLength = bytes.length;
+          responseObject = converter.convertResponse(bytes);
+        }
       } catch (IOException e) {
         LogUtil.warn(e);
       }
+    } else {
+      responseObject = converter.convertResponse(null);
     }
-    // parse response
-    Object responseObject = httpRequest.getConverter().convertResponse(responseBytes);
     if (responseObject instanceof JsonNode && httpRequest.getResponseType() != JsonNode.class && response.isSuccessful()) {
       Object parsedResponseObject;
       try {
@@ -147,12 +269,133 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
         // parse error
         return new HttpResponse(BAD_REQUEST_400, header, new HttpException(BAD_REQUEST_400, e.getMessage()));
       }
-      return new HttpResponse(response.code(), header, parsedResponseObject);
+      return withBodyLength(new HttpResponse(response.code(), header, parsedResponseObject), bodyLength);
     } else {
-      return new HttpResponse(response.code(), header, responseObject);
+      return withBodyLength(new HttpResponse(response.code(), header, responseObject), bodyLength);
     }
   }
 
+  private static HttpResponse<?, ?> withBodyLength(HttpResponse<?, ?> httpResponse, long bodyLength) {
+    httpResponse.setBodyLength(bodyLength);
+    return httpResponse;
+  }
+
+  /**
+   * 응답 본문을 {@link HttpStream}으로 전달하는지 여부. 이 경우 응답을 닫는 것은 {@link HttpStream}을 받은 쪽의 책임이다.
+   */
+  private static boolean isStream(HttpRequest httpRequest, Response response) {
+    return httpRequest.isStream() && response.isSuccessful() && response.body() != null;
+  }
+
+  // endregion
+
+  // region client core
+
+  /**
+   * 동기, 비동기 클라이언트가 공유하는 기본 {@link OkHttpClient}
+   * <p>
+   * 커넥션풀, DNS, TLS 세션을 공유한다. 타임아웃, 디스패처와 같은 경로별 설정은
+   * {@link OkHttpClient#newBuilder()}로 파생한 클라이언트에만 적용된다.
+   *
+   * @return {@link OkHttpClient}
+   * @since 1.2.0
+   */
+  private OkHttpClient getCore() {
+    OkHttp3Engine sharedEngine = coreEngine;
+    if (sharedEngine != null) {
+      return sharedEngine.getCore();
+    }
+    if (core == null) {
+      lock.lock();
+      try {
+        if (core == null) {
+          core = new OkHttpClient.Builder()
+              .connectionPool(new ConnectionPool(getConnectionPoolMaxIdleCount(), getConnectionPoolKeepAliveDuration(), MILLISECONDS))
+              .build();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return core;
+  }
+
+  /**
+   * 다른 {@link OkHttp3Engine}의 기본 클라이언트(커넥션풀, DNS, TLS 세션)를 공유한다.
+   * 커넥션풀 설정은 공유되는 엔진의 설정을 따른다.
+   *
+   * @param engine {@link OkHttp3Engine}
+   * @since 1.2.0
+   */
+  @Override
+  public void shareConnectionPool(AbstractEngine<?, ?, ?> engine) {
+    if (!(engine instanceof OkHttp3Engine)) {
+      throw new IllegalParameterException("-engine: " + engine.getClass().getName() + " (expected: OkHttp3Engine)");
+    }
+    if (client != null || asyncClient != null) {
+      throw new IllegalParameterException("-engine: connection pool must be shared before the first request");
+    }
+    OkHttp3Engine other = (OkHttp3Engine) engine;
+    OkHttp3Engine root = other.coreEngine != null ? other.coreEngine : other;
+    if (root != this) {
+      coreEngine = root;
+    }
+  }
+
+  /**
+   * 공용 클라이언트에서 엔진 설정(타임아웃, deadline, 압축)을 적용한 클라이언트를 파생한다.
+   *
+   * @return {@link OkHttpClient.Builder}
+   * @since 1.2.0
+   */
+  private OkHttpClient.Builder newClientBuilder() {
+    OkHttpClient.Builder builder = getCore().newBuilder()
+        .connectTimeout(getConnectionTimeout(), MILLISECONDS)
+        .readTimeout(getReadTimeout(), MILLISECONDS)
+        .writeTimeout(getWriteTimeout(), MILLISECONDS)
+        .addInterceptor(new TimeoutInterceptor(getDeadlineHeader()));
+    if (getAcceptEncoding() != null || getRequestEncoding() != null) {
+      builder.addInterceptor(new CompressionInterceptor(getAcceptEncoding(), ContentCodecs.get(getRequestEncoding()), getRequestCompressionThreshold()));
+    }
+    return builder;
+  }
+
+  /**
+   * 요청에 맞는 클라이언트. 타임아웃은 {@link TimeoutInterceptor}에서 요청별로 적용하므로, 리다이렉트 설정이 다른 요청만
+   * 공용 클라이언트에서 파생한 클라이언트(커넥션풀, 디스패처 공유)를 사용한다.
+   *
+   * @param request {@link Request}
+   * @param async 비동기 요청 여부
+   * @return {@link OkHttpClient}
+   * @since 1.2.0
+   */
+  private OkHttpClient clientFor(Request request, boolean async) {
+    OkHttpClient base = async ? getAsyncClient() : getClient();
+    HttpRequest httpRequest = httpRequest(request);
+    Boolean followRedirects = httpRequest == null ? null : httpRequest.getFollowRedirects();
+    if (followRedirects == null || followRedirects == base.followRedirects()) {
+      return base;
+    }
+    OkHttpClient derived = async ? asyncRedirectClient : redirectClient;
+    if (derived == null) {
+      lock.lock();
+      try {
+        derived = async ? asyncRedirectClient : redirectClient;
+        if (derived == null) {
+          derived = base.newBuilder().followRedirects(followRedirects).followSslRedirects(followRedirects).build();
+          if (async) {
+            asyncRedirectClient = derived;
+          } else {
+            redirectClient = derived;
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return derived;
+  }
+
   // endregion
 
   // region sync-invoke
@@ -164,15 +407,13 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
    */
   private OkHttpClient getClient() {
     if (client == null) {
-      synchronized (_lock) {
+      lock.lock();
+      try {
         if (client == null) {
-          client = new OkHttpClient.Builder()
-              .connectTimeout(getConnectionTimeout(), MILLISECONDS)
-              .readTimeout(getReadTimeout(), MILLISECONDS)
-              .writeTimeout(getWriteTimeout(), MILLISECONDS)
-              .connectionPool(new ConnectionPool(getConnectionPoolMaxIdleCount(), getConnectionPoolKeepAliveDuration(), MILLISECONDS))
-              .build();
+          client = newClientBuilder().build();
         }
+      } finally {
+        lock.unlock();
       }
     }
     return client;
@@ -180,39 +421,313 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
 
   @Override
   public Response invoke(Request request) {
-    return invokeInternal(request, getRetryCount());
+    return invokeInternal(request, newRetryContext(httpRequest(request)));
   }
 
   /**
-   * 재시도횟수(Retry count)가 포함된 요청 - 동기화 방식에서만 사용된다
+   * 재시도 상태({@link RetryContext})가 포함된 요청 - 동기화 방식에서만 사용된다
    *
    * @param request {@link Request}
-   * @param retryCount 재시도 수
+   * @param retry {@link RetryContext}
    * @return {@link Response}
    * @since 1.0.0
    */
-  private Response invokeInternal(Request request, int retryCount) {
-    if (retryCount < 0) {
-      LogUtil.logger().error("-http request retry failed: {}", request.url().toString());
-      throw new HttpException(REQUEST_FAILED_499, "Retry failed");
+  private Response invokeInternal(Request request, RetryContext retry) {
+    HedgePolicy policy = isIdempotent(request) ? getHedgePolicy() : null;
+    CircuitBreaker breaker = getCircuitBreaker();
+    String circuitKey = breaker == null ? null : circuitKey(breaker, request);
+    RateLimiter rateLimiter = getRateLimiter();
+    while (true) {
+      checkDeadline(request);
+      // 회로가 열려 있으면 rate limit 자리를 예약하지 않고 바로 종료한다
+      CircuitBreaker.Permit permit = breaker == null ? null : breaker.tryAcquire(circuitKey);
+      if (breaker != null && permit == null) {
+        LogUtil.logger().warn("-http circuit open: {}, key: {}", request.url().toString(), circuitKey);
+        throw new HttpException(CIRCUIT_OPEN_496, "Circuit open: " + circuitKey);
+      }
+      if (rateLimiter != null) {
+        try {
+          awaitRateLimit(rateLimiter, request);
+        } catch (HttpException ex) {
+          if (breaker != null) {
+            breaker.onIgnored(permit); // 요청하지 못한 시도는 회로 상태에 반영하지 않는다
+          }
+          throw ex;
+        }
+      }
+      long startTime = System.nanoTime();
+      Response response;
+      try {
+        // 헤징은 첫 시도에만 적용한다
+        response = policy != null && retry.getAttempt() == 0 ? executeHedged(request, policy) : execute(clientFor(request, false).newCall(request));
+      } catch (IOException ex) {
+        if (breaker != null && isExpired(request)) {
+          breaker.onIgnored(permit); // deadline으로 중단된 시도는 회로 상태에 반영하지 않는다
+        } else if (breaker != null) {
+          breaker.onResult(permit, System.nanoTime() - startTime, true);
+        }
+        LogUtil.logger().warn("-http exception: {}, retry: {}", request.url().toString(), retry.getRemaining());
+        awaitRetry(request, retry, retry.isRetryable(ex) ? retry.next() : -1);
+        continue;
+      }
+      if (breaker != null) {
+        breaker.onResult(permit, System.nanoTime() - startTime, CircuitBreaker.isFailure(response.code()));
+      }
+      if (rateLimiter != null) {
+        rateLimiter.onResponse(request.url().host(), request.url().encodedPath(), response.code(), response::header);
+      }
+      if (retry.isRetryable(response.code(), response::header)) {
+        LogUtil.logger().warn("-http request failed: {}, retry: {}, status: {}", request.url().toString(), retry.getRemaining(), response.code());
+        long delay = retry.next(response.code(), response::header);
+        closeQuietly(response); // 버려지는 응답의 커넥션을 풀에 반환한다
+        awaitRetry(request, retry, delay);
+        continue;
+      }
+      return response;
     }
-    Response response;
+  }
+
+  /**
+   * 헤징 동기 요청. 대기시간 안에 응답이 없으면 비동기 디스패처로 같은 요청을 한 번 더 보내고, 먼저 도착한 응답을 사용한다.
+   *
+   * @param request {@link Request}
+   * @param policy {@link HedgePolicy}
+   * @return {@link Response}
+   * @throws IOException 두 요청이 모두 실패한 경우 원래 요청의 예외
+   * @since 1.2.0
+   */
+  private Response executeHedged(Request request, HedgePolicy policy) throws IOException {
+    String host = request.url().host();
+    Call call = clientFor(request, false).newCall(request);
+    AtomicBoolean decided = new AtomicBoolean();
+    AtomicReference<Call> hedgeCall = new AtomicReference<>();
+    CompletableFuture<Response> hedged = new CompletableFuture<>();
+    long startTime = System.nanoTime();
+    ScheduledFuture<?> timer = SharedTimer.schedule(() -> {
+      if (decided.get() || !policy.tryHedge()) {
+        return;
+      }
+      Call hedge = clientFor(request, true).newCall(request);
+      hedgeCall.set(hedge);
+      cancelAtTimeout(hedge);
+      hedge.enqueue(new Callback() {
+        @Override
+        public void onFailure(Call hedge, IOException ex) {
+          hedged.completeExceptionally(ex);
+        }
+
+        @Override
+        public void onResponse(Call hedge, Response response) {
+          if (!decided.compareAndSet(false, true)) {
+            closeQuietly(response);
+            hedged.complete(null);
+            return;
+          }
+          policy.onHedgeWon();
+          policy.record(host, System.nanoTime() - startTime);
+          hedged.complete(response);
+          call.cancel();
+        }
+      });
+    }, policy.delay(host), MILLISECONDS);
     try {
-      response = getClient().newCall(request).execute();
+      Response response = execute(call);
+      if (decided.compareAndSet(false, true)) {
+        timer.cancel(false);
+        policy.record(host, System.nanoTime() - startTime);
+        Call hedge = hedgeCall.get();
+        if (hedge != null) {
+          hedge.cancel();
+        }
+        return response;
+      }
+      closeQuietly(response); // hedge 응답이 먼저 도착했다
+      return awaitHedge(hedged, null);
     } catch (IOException ex) {
-      LogUtil.logger().warn("-http exception: {}, retry: {}", request.url().toString(), retryCount);
-      return invokeInternal(request, --retryCount);
+      timer.cancel(false);
+      if (hedgeCall.get() == null && decided.compareAndSet(false, true)) {
+        throw ex;
+      }
+      return awaitHedge(hedged, ex); // hedge 응답을 기다린다
     }
-    if (response == null) {
-      LogUtil.logger().error("-http request failed: {}, null response", request.url().toString());
-      throw new HttpException(REQUEST_FAILED_499, "Null response");
+  }
+
+  private static Response awaitHedge(CompletableFuture<Response> hedged, IOException ex) throws IOException {
+    try {
+      Response response = hedged.get();
+      if (response == null) {
+        throw ex;
+      }
+      return response;
+    } catch (ExecutionException e) {
+      throw ex != null ? ex : new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("hedge interrupted");
     }
-    if (containsRetryStatus(HttpStatus.lookup(response.code()))) {
-      LogUtil.logger().warn("-http request failed: {}, retry: {}, status: {}", request.url().toString(), retryCount, response.code());
-      goSleep();
-      return invokeInternal(request, --retryCount);
+  }
+
+  /**
+   * 동기 요청 실행. deadline이나 callTimeout이 지정된 요청은 시간이 지나면 진행중인 {@link Call}을 취소해 커넥션을 반납한다.
+   *
+   * @param call {@link Call}
+   * @return {@link Response}
+   * @throws IOException 요청 실패 (deadline, callTimeout으로 취소된 경우 포함)
+   * @since 1.2.0
+   */
+  private static Response execute(Call call) throws IOException {
+    ScheduledFuture<?> timer = cancelAtTimeout(call);
+    try {
+      return call.execute();
+    } catch (IOException ex) {
+      if (timer != null && timer.isDone() && !isExpired(call.request())) {
+        throw new InterruptedIOException("call timeout"); // 재시도 여부는 RetryPolicy가 판단한다
+      }
+      throw ex;
+    } finally {
+      if (timer != null) {
+        timer.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * deadline과 callTimeout 중 먼저 도래하는 시각에 {@link Call}을 취소하도록 예약한다.
+   *
+   * @param call {@link Call}
+   * @return 예약된 작업 (deadline, callTimeout이 없으면 null)
+   * @since 1.2.0
+   */
+  private static ScheduledFuture<?> cancelAtTimeout(Call call) {
+    HttpRequest httpRequest = httpRequest(call.request());
+    if (httpRequest == null) {
+      return null;
+    }
+    long timeout = callTimeout(httpRequest);
+    if (httpRequest.hasDeadline()) {
+      timeout = Math.min(timeout, Math.max(0, httpRequest.getRemainingTime()));
+    }
+    return timeout == Long.MAX_VALUE ? null : SharedTimer.schedule(call::cancel, timeout, MILLISECONDS);
+  }
+
+  /**
+   * @return 시도별 전체 타임아웃 (단위: millisecond, 지정하지 않았으면 Long.MAX_VALUE)
+   */
+  private static long callTimeout(HttpRequest httpRequest) {
+    Integer callTimeout = httpRequest.getCallTimeout();
+    return callTimeout == null || callTimeout == 0 ? Long.MAX_VALUE : callTimeout;
+  }
+
+  private static boolean isExpired(Request request) {
+    HttpRequest httpRequest = httpRequest(request);
+    return httpRequest != null && httpRequest.isExpired();
+  }
+
+  /**
+   * deadline이 지난 요청은 494 (Deadline exceeded)로 실패한다.
+   *
+   * @param request {@link Request}
+   * @since 1.2.0
+   */
+  private static void checkDeadline(Request request) {
+    if (isExpired(request)) {
+      LogUtil.logger().warn("-http deadline exceeded: {}", request.url().toString());
+      throw new HttpException(DEADLINE_EXCEEDED_494, "Deadline exceeded");
+    }
+  }
+
+  private static String circuitKey(CircuitBreaker breaker, Request request) {
+    return breaker.getKey(httpRequest(request), request.url().host());
+  }
+
+  private static boolean isIdempotent(Request request) {
+    HttpRequest httpRequest = httpRequest(request);
+    if (httpRequest != null) {
+      return httpRequest.isIdempotent();
+    }
+    return "GET".equals(request.method()) || "HEAD".equals(request.method());
+  }
+
+  /**
+   * {@link #makeRequest(HttpRequest)}에서 태그로 붙인 {@link HttpRequest}
+   */
+  private static HttpRequest httpRequest(Request request) {
+    Object tag = request.tag();
+    return tag instanceof HttpRequest ? (HttpRequest) tag : null;
+  }
+
+  /**
+   * {@link RateLimiter}가 허용할 때까지 대기한다. 최대 대기시간을 넘으면 495 (Rate limited), 요청 deadline을 넘으면 494 (Deadline exceeded)로 실패한다.
+   *
+   * @param rateLimiter {@link RateLimiter}
+   * @param request {@link Request}
+   * @since 1.2.0
+   */
+  private static void awaitRateLimit(RateLimiter rateLimiter, Request request) {
+    long delay = rateLimiter.reserve(request.url().host(), request.url().encodedPath());
+    if (delay < 0) {
+      LogUtil.logger().warn("-http rate limited: {}", request.url().toString());
+      throw new HttpException(RATE_LIMITED_495, "Rate limit exceeded: " + request.url().host());
+    }
+    if (delay == 0) {
+      return;
+    }
+    HttpRequest httpRequest = httpRequest(request);
+    if (httpRequest != null && NANOSECONDS.toMillis(delay) >= httpRequest.getRemainingTime()) {
+      LogUtil.logger().warn("-http deadline exceeded while rate limited: {}", request.url().toString());
+      throw new HttpException(DEADLINE_EXCEEDED_494, "Deadline exceeded");
+    }
+    try {
+      NANOSECONDS.sleep(delay);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new HttpException(REQUEST_FAILED_499, "Rate limit wait interrupted");
+    }
+  }
+
+  /**
+   * 다음 재시도까지 대기한다. 동기 요청은 호출 스레드가 결과를 기다려야 하므로 대기시간 동안 호출 스레드를 점유한다.
+   * (비동기 요청만 {@link SharedTimer}로 대기한다)
+   * <p>
+   * 대기시간은 재시도 대기시간의 최대값(maxDelay)을 넘지 않으며, 기다리는 동안 요청 deadline이 지나면 기다리지 않고 494 (Deadline exceeded)로 실패한다.
+   *
+   * @param request {@link Request}
+   * @param retry {@link RetryContext}
+   * @param delay 대기시간 (단위: millisecond, 음수이면 재시도하지 않는다)
+   * @since 1.2.0
+   */
+  private void awaitRetry(Request request, RetryContext retry, long delay) {
+    checkDeadline(request);
+    if (delay < 0) {
+      LogUtil.logger().error("-http request retry failed: {}", request.url().toString());
+      throw new HttpException(REQUEST_FAILED_499, "Retry failed");
+    }
+    delay = Math.min(delay, retry.getMaxDelay());
+    HttpRequest httpRequest = httpRequest(request);
+    if (httpRequest != null && delay >= httpRequest.getRemainingTime()) {
+      LogUtil.logger().warn("-http deadline exceeded while waiting for retry: {}", request.url().toString());
+      throw new HttpException(DEADLINE_EXCEEDED_494, "Deadline exceeded");
+    }
+    try {
+      MILLISECONDS.sleep(delay);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new HttpException(REQUEST_FAILED_499, "Retry interrupted");
+    }
+  }
+
+  /**
+   * 응답 본문을 닫아 커넥션을 풀에 반환한다.
+   *
+   * @param response {@link Response}
+   * @since 1.2.0
+   */
+  static void closeQuietly(Response response) {
+    try {
+      response.close();
+    } catch (Exception ignored) {
+      // ignored...
     }
-    return response;
   }
 
   // endregion
@@ -221,28 +736,116 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
 
   private OkHttpClient getAsyncClient() {
     if (asyncClient == null) {
-      synchronized (_lock) {
+      lock.lock();
+      try {
         if (asyncClient == null) {
-          asyncClient = new OkHttpClient.Builder()
-              .connectTimeout(getConnectionTimeout(), MILLISECONDS)
-              .readTimeout(getReadTimeout(), MILLISECONDS)
-              .writeTimeout(getWriteTimeout(), MILLISECONDS)
-              .connectionPool(new ConnectionPool(getConnectionPoolMaxIdleCount(), getConnectionPoolKeepAliveDuration(), MILLISECONDS))
-              .dispatcher(new Dispatcher(new LinkedBlockingThreadExecutor.Builder()
-                  .setThreadCount(getThreadCount())
-                  .setThreadFactory(new SimpleThreadFactory())
-                  .setThreadIdleTime(getThreadIdleTime())
-                  .setLinkedBlockingQueue(getRequestQueueSize()).build()))
+          if (getOverflowPolicy() != null) {
+            submitter = new BoundedSubmitter(getMaxRequests(), getRequestQueueSize(), getOverflowPolicy(), getOverflowTimeout());
+          }
+          asyncClient = newClientBuilder()
+              .dispatcher(makeDispatcher())
               .build();
         }
+      } finally {
+        lock.unlock();
       }
     }
     return asyncClient;
   }
 
+  /**
+   * 비동기 요청용 {@link Dispatcher} 생성
+   * <p>
+   * 호스트별 동시 요청수는 {@link DispatchGate}에서 제한하므로, {@link Dispatcher}에는 전체 최대 동시 요청수만 적용한다.
+   *
+   * @return {@link Dispatcher}
+   * @since 1.2.0
+   */
+  private Dispatcher makeDispatcher() {
+    Dispatcher dispatcher = new Dispatcher(makeExecutor());
+    dispatcher.setMaxRequests(getMaxRequests());
+    dispatcher.setMaxRequestsPerHost(getMaxRequests());
+    return dispatcher;
+  }
+
+  /**
+   * 비동기 요청용 {@link ExecutorService} 생성
+   * <p>
+   * {@link Dispatcher}는 동시 요청수(maxRequests)를 넘겨서 작업을 넘기지 않으므로,
+   * {@link LockFreeThreadExecutor}의 큐 크기는 maxRequests면 충분하다.
+   * {@link ExecutorType#Virtual}은 JDK 21 미만이면 {@link LinkedBlockingThreadExecutor}로 대체한다.
+   *
+   * @return {@link ExecutorService}
+   * @since 1.2.0
+   */
+  private ExecutorService makeExecutor() {
+    if (getExecutorType() == ExecutorType.Virtual) {
+      if (VirtualThreads.isAvailable()) {
+        return VirtualThreads.newThreadPerTaskExecutor("rebolt-http");
+      }
+      LogUtil.logger().warn("-http virtual threads are not available, java: {}", System.getProperty("java.version"));
+    }
+    if (getExecutorType() == ExecutorType.LockFree) {
+      return new LockFreeThreadExecutor.Builder()
+          .setThreadCount(getThreadCount())
+          .setThreadFactory(getThreadFactory())
+          .setQueueSize(getMaxRequests()).build();
+    }
+    return new LinkedBlockingThreadExecutor.Builder()
+        .setThreadCount(getThreadCount())
+        .setThreadFactory(getThreadFactory())
+        .setThreadIdleTime(getThreadIdleTime())
+        .setLinkedBlockingQueue(getRequestQueueSize()).build();
+  }
+
   @Override
   public void invokeAsync(Request request, Callback callback) {
-    getAsyncClient().newCall(request).enqueue(callback);
+    submit(request, callback, false);
+  }
+
+  @Override
+  public boolean tryInvokeAsync(Request request, Callback callback) {
+    return submit(request, callback, true);
+  }
+
+  /**
+   * 비동기 요청 제출. {@link BoundedSubmitter}를 사용하는 경우 대기큐를 거쳐 디스패처에 전달된다.
+   *
+   * @param request {@link Request}
+   * @param callback {@link Callback}
+   * @param tryOnly true이면 {@link OverflowPolicy}와 관계없이 대기큐가 가득 찼을 때 즉시 false를 반환한다
+   * @return 제출 여부
+   * @since 1.2.0
+   */
+  private boolean submit(Request request, Callback callback, boolean tryOnly) {
+    Call call = clientFor(request, true).newCall(request);
+    if (!(callback instanceof OkHttp3Callback)) {
+      call.enqueue(callback);
+      return true;
+    }
+    OkHttp3Callback okHttp3Callback = (OkHttp3Callback) callback;
+    BoundedSubmitter boundedSubmitter = submitter;
+    if (boundedSubmitter == null) {
+      okHttp3Callback.dispatch(call);
+      return true;
+    }
+    Runnable task = () -> okHttp3Callback.admit(boundedSubmitter, call);
+    Runnable onDrop = () -> okHttp3Callback.reject(call);
+    switch (tryOnly ? boundedSubmitter.trySubmit(task, onDrop) : boundedSubmitter.submit(task, onDrop)) {
+      case Rejected:
+        if (tryOnly) {
+          okHttp3Callback.discard();
+          return false;
+        }
+        okHttp3Callback.reject(call);
+        break;
+      case CallerRuns:
+        okHttp3Callback.execute(call);
+        break;
+      default:
+        break;
+    }
+    return true;
   }
 
   @Override
@@ -250,64 +853,510 @@ public final class OkHttp3Engine extends AbstractEngine<Request, Response, Callb
     return new OkHttp3Callback(this, request, callback);
   }
 
+  @Override
+  public void cancel(Callback callback) {
+    if (callback instanceof OkHttp3Callback) {
+      ((OkHttp3Callback) callback).cancel();
+    }
+  }
+
+  /**
+   * 비동기 요청 콜백
+   * <p>
+   * 재시도가 필요하면 응답을 닫고, {@link SharedTimer}에서 대기시간이 지난 뒤 복제한 {@link Call}을 디스패처에 다시 넣는다.
+   * 대기하는 동안 디스패처 스레드를 점유하지 않으며, 시도별 소요시간은 {@link HttpResponse#getAttempts()}로 전달된다.
+   * <p>
+   * 모든 요청은 {@link #receive(HttpResponse)}로 한 번만 종료되며, 이때 {@link BoundedSubmitter}의 자리를 반납한다.
+   * <p>
+   * {@link HedgePolicy} 대상이면 첫 시도의 대기시간이 지났을 때 hedge 요청(재시도 없음)을 만들어 함께 진행한다.
+   * 원래 요청의 콜백(primary)이 먼저 도착한 성공 응답을 전달하고 나머지 요청을 취소한다. 실패 응답은 다른 요청이 모두 끝날 때까지 보류한다.
+   * <p>
+   * 요청 deadline이 지정되면 대기큐, 재시도 대기를 포함해 deadline이 지났을 때 모든 시도를 취소하고 494 (Deadline exceeded)로 종료한다.
+   */
   private static class OkHttp3Callback implements Callback {
     private final OkHttp3Engine engine;
     private final HttpRequest httpRequest;
     private final HttpCallback httpCallback;
-    private final AtomicInteger retryCount;
+    private final RetryContext retry;
+    private final AdaptiveLimiter limiter;
+    private final List<HttpAttempt> attempts;
+    private final AtomicBoolean received = new AtomicBoolean();
+    private final AtomicReference<BoundedSubmitter> submitter = new AtomicReference<>(); // 반납하지 않은 BoundedSubmitter의 자리
+    private volatile long attemptStartTime;
+    private volatile boolean gated; // 현재 시도가 DispatchGate, AdaptiveLimiter를 거쳤는지 여부
+    private volatile Call currentCall;
+    private volatile ScheduledFuture<?> pendingRetry;
+    private volatile boolean canceled;
+    private final OkHttp3Callback primary; // hedge 요청이면 원래 요청의 콜백, 아니면 자신
+    private final HedgePolicy hedgePolicy;
+    private final AtomicBoolean delivered = new AtomicBoolean(); // primary만 사용한다
+    private final AtomicInteger outstanding = new AtomicInteger(1); // 응답을 기다리는 요청 수 (primary만 사용한다)
+    private volatile OkHttp3Callback hedge;
+    private volatile CircuitBreaker.Permit circuitPermit; // 현재 시도가 받은 CircuitBreaker의 허가
+    private volatile ScheduledFuture<?> pendingHedge;
+    private volatile ScheduledFuture<?> deadlineTimer; // primary만 사용한다
+    private volatile ScheduledFuture<?> attemptTimer; // 현재 시도의 callTimeout
+    private volatile boolean timedOut; // 현재 시도가 callTimeout으로 취소되었는지 여부
+    private volatile boolean expired; // primary만 사용한다
 
     private OkHttp3Callback(final OkHttp3Engine engine, final HttpRequest httpRequest, final HttpCallback httpCallback) {
       this.engine = engine;
       this.httpRequest = httpRequest;
       this.httpCallback = httpCallback;
-      this.retryCount = new AtomicInteger(engine.getRetryCount());
+      this.retry = engine.newRetryContext(httpRequest);
+      this.limiter = engine.getAdaptiveLimiter();
+      this.attempts = new CopyOnWriteArrayList<>();
+      this.primary = this;
+      this.hedgePolicy = httpRequest.isIdempotent() ? engine.getHedgePolicy() : null;
+      if (httpRequest.hasDeadline()) {
+        this.deadlineTimer = SharedTimer.schedule(this::expire, Math.max(0, httpRequest.getRemainingTime()), MILLISECONDS);
+      }
+    }
+
+    /**
+     * hedge 요청 콜백
+     */
+    private OkHttp3Callback(final OkHttp3Callback primary) {
+      this.engine = primary.engine;
+      this.httpRequest = primary.httpRequest;
+      this.httpCallback = primary.httpCallback;
+      this.retry = new RetryContext(0, null);
+      this.limiter = primary.limiter;
+      this.attempts = new CopyOnWriteArrayList<>();
+      this.primary = primary;
+      this.hedgePolicy = null;
+    }
+
+    /**
+     * {@link BoundedSubmitter}에서 처리가 허가된 요청
+     */
+    private void admit(BoundedSubmitter submitter, Call call) {
+      this.submitter.set(submitter);
+      if (received.get()) {
+        releaseSubmitter(); // 대기큐에서 기다리는 동안 deadline이 지난 경우
+        return;
+      }
+      dispatch(call);
+    }
+
+    private void releaseSubmitter() {
+      BoundedSubmitter boundedSubmitter = submitter.getAndSet(null);
+      if (boundedSubmitter != null) {
+        boundedSubmitter.release();
+      }
+    }
+
+    /**
+     * 제출되지 않고 호출자에게 거절이 반환된 요청 ({@link #tryInvokeAsync(Request, Callback)})
+     * 콜백이 호출되지 않도록 종료 상태로 표시하고 deadline 타이머를 취소한다.
+     */
+    private void discard() {
+      received.set(true);
+      ScheduledFuture<?> timer = deadlineTimer;
+      if (timer != null) {
+        timer.cancel(false);
+      }
+    }
+
+    /**
+     * {@link BoundedSubmitter}의 대기큐가 가득 차서 거절된 요청
+     */
+    private void reject(Call call) {
+      LogUtil.logger().warn("-http async request rejected: {}, queue is full", call.request().url().toString());
+      receive(new HttpResponse<>(new HttpException(REQUEST_REJECTED_497, "Request queue is full")));
+    }
+
+    private void dispatch(Call call) {
+      if (acquireCircuit(call) && reserveRate(call)) {
+        admitDispatch(call);
+      }
+    }
+
+    /**
+     * {@link RateLimiter} 예약. 기다려야 하면 디스패처 스레드를 점유하지 않고 허용 시각에 디스패치하도록 예약한다.
+     * 회로의 허가를 먼저 받은 뒤에 호출하며, 예약이 거절되면 허가를 반납한다. (예약된 디스패치의 취소는 재시도 대기와 같이 처리된다)
+     *
+     * @return 바로 요청할 수 있으면 true
+     */
+    private boolean reserveRate(Call call) {
+      RateLimiter rateLimiter = engine.getRateLimiter();
+      if (rateLimiter == null) {
+        return true;
+      }
+      HttpUrl url = call.request().url();
+      long delay = rateLimiter.reserve(url.host(), url.encodedPath());
+      if (delay < 0) {
+        releaseCircuit(call, 0, 0);
+        LogUtil.logger().warn("-http async request rate limited: {}", url.toString());
+        receive(new HttpResponse<>(new HttpException(RATE_LIMITED_495, "Rate limit exceeded: " + url.host())));
+        return false;
+      }
+      if (delay > 0) {
+        pendingRetry = SharedTimer.schedule(() -> admitDispatch(call), delay, NANOSECONDS);
+        return false;
+      }
+      return true;
+    }
+
+    private void admitDispatch(Call call) {
+      String host = call.request().url().host();
+      if (limiter != null && !limiter.tryAcquire(host)) {
+        releaseCircuit(call, 0, 0);
+        LogUtil.logger().warn("-http async request rejected: {}, limit: {}", call.request().url().toString(), limiter.getLimit(host));
+        receive(new HttpResponse<>(new HttpException(LIMIT_EXCEEDED_498, "Concurrency limit exceeded: " + host)));
+        return;
+      }
+      engine.getDispatchGate().submit(host, () -> start(call));
+    }
+
+    private void start(Call call) {
+      gated = true;
+      if (canceled) {
+        release(call, 0, 0); // 대기중에 취소된 경우
+        error(REQUEST_FAILED_499);
+        return;
+      }
+      currentCall = call;
+      attemptStartTime = System.nanoTime();
+      startTimer(call);
+      call.enqueue(this);
+      if (canceled) {
+        call.cancel(); // dispatch 도중 취소된 경우
+      } else if (hedgePolicy != null && pendingHedge == null && attempts.isEmpty()) {
+        scheduleHedge(call.request());
+      }
+    }
+
+    /**
+     * 첫 시도가 대기시간 안에 끝나지 않으면 hedge 요청을 보낸다.
+     */
+    private void scheduleHedge(Request request) {
+      pendingHedge = SharedTimer.schedule(() -> {
+        if (canceled || delivered.get() || !hedgePolicy.tryHedge() || !tryAddOutstanding()) {
+          return;
+        }
+        OkHttp3Callback hedgeCallback = new OkHttp3Callback(this);
+        hedge = hedgeCallback;
+        hedgeCallback.dispatch(engine.clientFor(request, true).newCall(request));
+        if (canceled || delivered.get()) {
+          hedgeCallback.cancelAttempt(); // hedge를 보내는 도중 끝난 경우
+        }
+      }, hedgePolicy.delay(request.url().host()), MILLISECONDS);
+    }
+
+    private boolean tryAddOutstanding() {
+      while (true) {
+        int count = outstanding.get();
+        if (count <= 0 || delivered.get()) {
+          return false;
+        }
+        if (outstanding.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * 호출 스레드에서 직접 요청한다. ({@link OverflowPolicy#CallerRuns})
+     * 재시도는 다른 요청과 같이 디스패처를 통해 진행된다.
+     */
+    private void execute(Call call) {
+      if (!acquireCircuit(call) || !reserveRate(call)) {
+        return;
+      }
+      gated = false;
+      currentCall = call;
+      attemptStartTime = System.nanoTime();
+      startTimer(call);
+      Response response;
+      try {
+        response = call.execute();
+      } catch (IOException ex) {
+        onFailure(call, ex);
+        return;
+      }
+      onResponse(call, response);
+    }
+
+    /**
+     * callTimeout이 지정된 요청은 시간이 지나면 현재 시도를 취소한다. 취소된 시도는 요청 취소가 아닌 실패로 처리되어 재시도 대상이 된다.
+     * (deadline은 {@link #expire()}에서 처리한다)
+     */
+    private void startTimer(Call call) {
+      timedOut = false;
+      long timeout = callTimeout(httpRequest);
+      if (timeout != Long.MAX_VALUE) {
+        attemptTimer = SharedTimer.schedule(() -> {
+          timedOut = true;
+          call.cancel();
+        }, timeout, MILLISECONDS);
+      }
+    }
+
+    private void stopTimer() {
+      ScheduledFuture<?> timer = attemptTimer;
+      if (timer != null) {
+        timer.cancel(false);
+        attemptTimer = null;
+      }
+    }
+
+    /**
+     * 요청 취소 여부 (callTimeout으로 취소된 시도는 제외한다)
+     */
+    private boolean isCanceled(Call call) {
+      return canceled || (call.isCanceled() && !timedOut);
+    }
+
+    /**
+     * 시도 종료 통지. {@link DispatchGate}의 자리를 반납하고, {@link AdaptiveLimiter}에 응답시간을 반영한다.
+     *
+     * @param statusCode 응답코드 (응답을 받지 못했으면 0)
+     * @param elapsedTime 응답시간 (단위: nanosecond)
+     */
+    private void release(Call call, int statusCode, long elapsedTime) {
+      releaseCircuit(call, statusCode, elapsedTime);
+      if (!gated) {
+        return;
+      }
+      String host = call.request().url().host();
+      engine.getDispatchGate().release(host);
+      HedgePolicy policy = engine.getHedgePolicy();
+      if (policy != null && statusCode > 0 && !isCanceled(call)) {
+        policy.record(host, elapsedTime);
+      }
+      if (limiter == null) {
+        return;
+      }
+      if (isCanceled(call)) {
+        limiter.onIgnored(host);
+      } else if (statusCode == 0 || statusCode == TOO_MANY_REQUESTS_429.getCode() || statusCode == SERVICE_UNAVAILABLE_503.getCode()) {
+        limiter.onDropped(host); // 네트워크 오류, 과부하 응답
+      } else {
+        limiter.onSuccess(host, elapsedTime);
+      }
+    }
+
+    /**
+     * {@link CircuitBreaker}의 허가. 회로가 열려 있으면 496 (Circuit open) {@link HttpResponse}로 즉시 종료한다.
+     */
+    private boolean acquireCircuit(Call call) {
+      CircuitBreaker breaker = engine.getCircuitBreaker();
+      if (breaker == null) {
+        return true;
+      }
+      String key = circuitKey(breaker, call.request());
+      CircuitBreaker.Permit permit = breaker.tryAcquire(key);
+      if (permit == null) {
+        LogUtil.logger().warn("-http async circuit open: {}, key: {}", call.request().url().toString(), key);
+        receive(new HttpResponse<>(new HttpException(CIRCUIT_OPEN_496, "Circuit open: " + key)));
+        return false;
+      }
+      circuitPermit = permit;
+      return true;
+    }
+
+    /**
+     * {@link CircuitBreaker}에 시도 결과를 반영한다. 취소되었거나 요청하지 못한 시도는 결과에 반영하지 않는다.
+     *
+     * @param statusCode 응답코드 (응답을 받지 못했으면 0)
+     * @param elapsedTime 응답시간 (단위: nanosecond, 요청하지 못했으면 0)
+     */
+    private void releaseCircuit(Call call, int statusCode, long elapsedTime) {
+      CircuitBreaker.Permit permit = circuitPermit;
+      CircuitBreaker breaker = engine.getCircuitBreaker();
+      if (permit == null || breaker == null) {
+        return;
+      }
+      circuitPermit = null;
+      if (elapsedTime == 0 || isCanceled(call)) {
+        breaker.onIgnored(permit);
+      } else {
+        breaker.onResult(permit, elapsedTime, CircuitBreaker.isFailure(statusCode));
+      }
+    }
+
+    /**
+     * 요청 deadline 초과. 모든 시도를 취소하고 494 (Deadline exceeded)로 종료한다.
+     * 진행중인 시도의 자리(DispatchGate, AdaptiveLimiter 등)는 취소된 시도가 끝날 때 반납된다.
+     */
+    private void expire() {
+      if (received.get() || delivered.get()) {
+        return;
+      }
+      LogUtil.logger().warn("-http async deadline exceeded: {}", httpRequest.getEndpointUri());
+      expired = true;
+      cancel();
+      error(DEADLINE_EXCEEDED_494); // 대기큐에서 기다리는 중이면 바로 종료한다
+    }
+
+    /**
+     * 진행중인 {@link Call}과 예약된 재시도, hedge 요청을 취소한다.
+     */
+    private void cancel() {
+      canceled = true;
+      ScheduledFuture<?> hedgeFuture = pendingHedge;
+      if (hedgeFuture != null) {
+        hedgeFuture.cancel(false);
+      }
+      OkHttp3Callback hedgeCallback = hedge;
+      if (hedgeCallback != null) {
+        hedgeCallback.cancelAttempt();
+      }
+      cancelAttempt();
+    }
+
+    /**
+     * 이 콜백의 {@link Call}과 예약된 재시도를 취소한다.
+     */
+    private void cancelAttempt() {
+      canceled = true;
+      ScheduledFuture<?> retryFuture = pendingRetry;
+      if (retryFuture != null && retryFuture.cancel(false)) {
+        releaseCircuit(currentCall, 0, 0); // rate limit 대기중이면 회로의 허가를 반납한다
+        error(REQUEST_FAILED_499); // 재시도 대기중에 취소된 경우
+        return;
+      }
+      Call call = currentCall;
+      if (call != null) {
+        call.cancel();
+      }
     }
 
     @Override
     public void onFailure(Call call, IOException ex) {
-      LogUtil.logger().warn("-http async exception: {}, retry: {}, exception: {}", call.request().url().toString(), retryCount, ex);
-      if (retryCount.decrementAndGet() > 0) {
-        call.enqueue(this);
+      stopTimer();
+      if (timedOut && !canceled) {
+        ex = new InterruptedIOException("call timeout");
+      }
+      long elapsedTime = record(0, ex.toString());
+      release(call, 0, elapsedTime);
+      LogUtil.logger().warn("-http async exception: {}, retry: {}, exception: {}", call.request().url().toString(), retry.getRemaining(), ex);
+      long delay;
+      if (isCanceled(call)) {
+        error(REQUEST_FAILED_499);
+      } else if (retry.isRetryable(ex) && (delay = retry.next()) >= 0) {
+        scheduleRetry(call, delay);
       } else {
-        error(call, REQUEST_TIMEOUT_408);
+        error(REQUEST_TIMEOUT_408);
       }
     }
 
     @Override
-    public void onResponse(Call call, Response response) throws IOException {
+    public void onResponse(Call call, Response response) {
+      stopTimer();
+      long elapsedTime = record(response.code(), null);
+      RateLimiter rateLimiter = engine.getRateLimiter();
+      if (rateLimiter != null) {
+        rateLimiter.onResponse(call.request().url().host(), call.request().url().encodedPath(), response.code(), response::header);
+      }
+      boolean streaming = false;
       try {
-        if (!engine.containsRetryStatus(HttpStatus.lookup(response.code()))) {
+        if (!retry.isRetryable(response.code(), response::header)) {
+          streaming = isStream(httpRequest, response);
           success(response);
         } else {
-          if (retryCount.decrementAndGet() < 0) {
-            LogUtil.logger().info("-http async exception: {}, retry: {}", call.request().url().toString(), retryCount);
-            call.enqueue(this);
+          long delay = canceled ? -1 : retry.next(response.code(), response::header);
+          if (delay >= 0) {
+            LogUtil.logger().info("-http async request failed: {}, retry: {}, status: {}", call.request().url().toString(), retry.getRemaining(), response.code());
+            scheduleRetry(call, delay);
           } else {
-            error(call, HttpStatus.lookup(response.code()));
+            error(HttpStatus.lookup(response.code()));
           }
         }
       } catch (Exception ex) {
-        errorException(call, ex);
+        streaming = false;
+        errorException(ex);
+      } finally {
+        if (!streaming) {
+          closeQuietly(response); // 재시도로 버려지는 응답도 커넥션을 풀에 반환한다
+        }
+        release(call, response.code(), elapsedTime);
       }
     }
 
-    private void error(Call call, HttpStatus httpStatus) {
-      call.cancel();
-      LogUtil.logger().info("-http async request retry failed: {}", call.request().url().toString());
-      //noinspection unchecked
-      httpCallback.onReceive(new HttpResponse(new HttpException(httpStatus)));
+    /**
+     * 이미 실행된 {@link Call}은 다시 사용할 수 없으므로 복제해서 재요청한다.
+     */
+    private void scheduleRetry(Call call, long delay) {
+      Call retryCall = call.clone();
+      pendingRetry = SharedTimer.schedule(() -> dispatch(retryCall), delay, MILLISECONDS);
     }
 
-    private void errorException(Call call, Exception ex) {
-      call.cancel();
-      LogUtil.logger().error("-http async request error: {}, exception: {}", call.request().url().toString(), ex);
-      //noinspection unchecked
-      httpCallback.onReceive(new HttpResponse(new HttpException(REQUEST_FAILED_499, ex.getMessage())));
+    /**
+     * 시도 결과 기록
+     *
+     * @return 응답시간 (단위: nanosecond)
+     */
+    private long record(int statusCode, String exception) {
+      long elapsedTime = System.nanoTime() - attemptStartTime;
+      attempts.add(new HttpAttempt(attempts.size(), statusCode, MILLISECONDS.convert(elapsedTime, NANOSECONDS), exception));
+      return elapsedTime;
+    }
+
+    private void error(HttpStatus httpStatus) {
+      if (primary.expired) {
+        httpStatus = DEADLINE_EXCEEDED_494; // deadline으로 취소된 시도
+      }
+      LogUtil.logger().info("-http async request retry failed: {}", httpRequest.getEndpointUri());
+      receive(new HttpResponse<>(new HttpException(httpStatus)));
+    }
+
+    private void errorException(Exception ex) {
+      LogUtil.logger().error("-http async request error: {}, exception: {}", httpRequest.getEndpointUri(), ex);
+      receive(new HttpResponse<>(new HttpException(REQUEST_FAILED_499, ex.getMessage())));
     }
 
     private void success(Response response) {
+      receive(engine.makeResponse(httpRequest, response));
+    }
+
+    private void receive(HttpResponse<?, ?> httpResponse) {
+      if (!received.compareAndSet(false, true)) {
+        if (httpResponse.getBody() instanceof HttpStream) {
+          ((HttpStream) httpResponse.getBody()).close(); // 취소된 요청의 스트림은 아무도 닫지 않는다
+        }
+        return;
+      }
+      releaseSubmitter();
+      httpResponse.setAttempts(Collections.unmodifiableList(attempts));
+      primary.settle(this, httpResponse);
+    }
+
+    /**
+     * 응답 전달. hedge 요청이 없으면 바로 전달하고, 있으면 먼저 도착한 성공 응답을 전달한다. (primary에서 호출된다)
+     *
+     * @param source 응답을 받은 콜백 (자신 또는 hedge)
+     */
+    private void settle(OkHttp3Callback source, HttpResponse<?, ?> httpResponse) {
+      boolean failure = httpResponse.hasException() || httpResponse.getStatus() == null || httpResponse.getStatus().getCode() >= 500;
+      if (failure && outstanding.decrementAndGet() > 0) {
+        return; // 진행중인 다른 요청의 응답을 기다린다
+      }
+      if (!delivered.compareAndSet(false, true)) {
+        if (httpResponse.getBody() instanceof HttpStream) {
+          ((HttpStream) httpResponse.getBody()).close(); // 먼저 도착한 응답이 전달되었다
+        }
+        return;
+      }
+      ScheduledFuture<?> timer = deadlineTimer;
+      if (timer != null) {
+        timer.cancel(false);
+      }
+      ScheduledFuture<?> hedgeFuture = pendingHedge;
+      if (hedgeFuture != null) {
+        hedgeFuture.cancel(false);
+      }
+      OkHttp3Callback loser = source == this ? hedge : this;
+      if (loser != null) {
+        if (source != this && !failure) {
+          hedgePolicy.onHedgeWon();
+          hedgePolicy.record(currentCall.request().url().host(), System.nanoTime() - attemptStartTime); // 원래 요청은 취소되므로 기다린 시간을 기록한다
+        }
+        loser.cancelAttempt();
+      }
       //noinspection unchecked
-      httpCallback.onReceive(engine.makeResponse(httpRequest, response));
+      httpCallback.onReceive(httpResponse);
     }
   }
 
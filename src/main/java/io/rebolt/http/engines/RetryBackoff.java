@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.engines;
+
+import io.rebolt.core.exceptions.IllegalParameterException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 재시도 대기시간 계산 (Exponential backoff with full jitter)
+ * <p>
+ * n번째 재시도의 대기시간은 0 ~ min(maxDelay, baseDelay * 2^n) 사이의 임의의 값이다.
+ * 동시에 실패한 요청들이 같은 시각에 다시 몰리지 않도록 대기시간을 구간 전체에 분산시킨다.
+ *
+ * @since 1.2.0
+ */
+@ToString
+public final class RetryBackoff {
+  private final @Getter long baseDelay;
+  private final @Getter long maxDelay;
+
+  public RetryBackoff(long baseDelay, long maxDelay) {
+    if (baseDelay < 0 || maxDelay < baseDelay) {
+      throw new IllegalParameterException("-baseDelay: " + baseDelay + ", maxDelay: " + maxDelay);
+    }
+    this.baseDelay = baseDelay;
+    this.maxDelay = maxDelay;
+  }
+
+  /**
+   * 재시도 대기시간 계산
+   *
+   * @param attempt 재시도 순번 (0부터 시작)
+   * @return 대기시간 (단위: millisecond)
+   * @since 1.2.0
+   */
+  public long delay(int attempt) {
+    long ceiling = ceiling(attempt);
+    return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  /**
+   * 재시도 대기시간의 상한
+   *
+   * @param attempt 재시도 순번 (0부터 시작)
+   * @return 대기시간 상한 (단위: millisecond)
+   * @since 1.2.0
+   */
+  public long ceiling(int attempt) {
+    if (attempt >= Long.numberOfLeadingZeros(baseDelay) - 1) {
+      return maxDelay; // overflow guard
+    }
+    return Math.min(maxDelay, baseDelay << attempt);
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.engines;
+
+import io.rebolt.http.HttpRequest;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 요청 단위의 재시도 상태
+ * <p>
+ * 하나의 요청이 사용할 수 있는 재시도 횟수(retry budget)와 현재까지의 재시도 순번을 관리한다.
+ * 동기, 비동기 요청이 같은 방식으로 재시도 여부와 대기시간을 결정하도록 통신엔진에서 요청마다 생성한다.
+ * <p>
+ * {@link RetryPolicy}가 지정되면 재시도 대상, Retry-After, 최대 소요시간도 함께 판단하고,
+ * 요청 deadline({@link HttpRequest#deadline(long, TimeUnit)})이 지나기 전에 시작할 수 없는 재시도는 하지 않는다.
+ *
+ * @since 1.2.0
+ */
+@ToString(exclude = "request")
+public final class RetryContext {
+  private final RetryBackoff backoff;
+  private final @Getter int budget;
+  private final RetryPolicy policy;
+  private final HttpRequest request;
+  private final long startTime = System.nanoTime();
+  private volatile @Getter int attempt;
+
+  public RetryContext(int budget, RetryBackoff backoff) {
+    this(budget, backoff, null, null);
+  }
+
+  public RetryContext(int budget, RetryBackoff backoff, RetryPolicy policy, HttpRequest request) {
+    this.budget = Math.max(0, budget);
+    this.backoff = backoff;
+    this.policy = policy;
+    this.request = request;
+  }
+
+  /**
+   * 재시도 가능 여부
+   *
+   * @return 남은 재시도 횟수가 있으면 true
+   * @since 1.2.0
+   */
+  public boolean hasNext() {
+    return attempt < budget;
+  }
+
+  /**
+   * 남은 재시도 횟수
+   *
+   * @return 남은 재시도 횟수
+   * @since 1.2.0
+   */
+  public int getRemaining() {
+    return budget - attempt;
+  }
+
+  /**
+   * 재시도 횟수를 하나 소모하고 다음 재시도까지의 대기시간을 반환한다.
+   *
+   * @return 대기시간 (단위: millisecond, 남은 재시도 횟수가 없거나 최대 소요시간, deadline을 넘으면 -1)
+   * @since 1.2.0
+   */
+  public long next() {
+    return next(-1);
+  }
+
+  /**
+   * 응답의 재시도 대기시간. Retry-After 헤더가 있으면 서버가 지정한 시간을 사용한다.
+   *
+   * @param statusCode 응답코드
+   * @param header 헤더 조회 함수 (헤더 이름 → 값, 없으면 null)
+   * @return 대기시간 (단위: millisecond, 남은 재시도 횟수가 없거나 최대 소요시간, deadline을 넘으면 -1)
+   * @since 1.2.0
+   */
+  public long next(int statusCode, Function<String, String> header) {
+    return next(policy == null ? -1 : policy.retryAfter(statusCode, header));
+  }
+
+  /**
+   * 응답 재시도 대상 여부 ({@link RetryPolicy}가 없으면 true)
+   * <p>
+   * Retry-After가 최대 대기시간(maxDelay)이나 남은 deadline보다 길면 재시도하지 않고 응답(429, 503)을 그대로 반환하도록 false를 반환한다.
+   *
+   * @param statusCode 응답코드
+   * @param header 헤더 조회 함수
+   * @return 재시도 대상이면 true
+   * @since 1.2.0
+   */
+  public boolean isRetryable(int statusCode, Function<String, String> header) {
+    if (policy == null) {
+      return true;
+    }
+    if (!policy.isRetryable(request, statusCode, header)) {
+      return false;
+    }
+    long retryAfter = policy.retryAfter(statusCode, header);
+    return retryAfter < 0 || canWait(retryAfter);
+  }
+
+  /**
+   * 예외 재시도 대상 여부 ({@link RetryPolicy}가 없으면 true)
+   *
+   * @param exception 요청중 발생한 예외
+   * @return 재시도 대상이면 true
+   * @since 1.2.0
+   */
+  public boolean isRetryable(Throwable exception) {
+    return policy == null || policy.isRetryable(request, exception);
+  }
+
+  /**
+   * 재시도 대기시간의 최대값
+   *
+   * @return 대기시간 최대값 (단위: millisecond, 대기하지 않는 컨텍스트이면 0)
+   * @since 1.2.0
+   */
+  public long getMaxDelay() {
+    return backoff == null ? 0 : backoff.getMaxDelay();
+  }
+
+  /**
+   * 최초 요청부터의 소요시간
+   *
+   * @return 소요시간 (단위: millisecond)
+   * @since 1.2.0
+   */
+  public long getElapsedTime() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+  }
+
+  /**
+   * @param retryAfter 서버가 지정한 대기시간 (단위: millisecond, 없으면 -1)
+   */
+  private long next(long retryAfter) {
+    if (!hasNext()) {
+      return -1;
+    }
+    if (retryAfter >= 0 && !canWait(retryAfter)) {
+      return -1;
+    }
+    long delay = retryAfter >= 0 ? retryAfter : backoff.delay(attempt);
+    if (policy != null && policy.getMaxElapsedTime() > 0 && getElapsedTime() + delay > policy.getMaxElapsedTime()) {
+      return -1;
+    }
+    if (request != null && delay >= request.getRemainingTime()) {
+      return -1; // 재시도를 시작하기 전에 요청 deadline이 지난다
+    }
+    attempt++;
+    return delay;
+  }
+
+  /**
+   * @param retryAfter 서버가 지정한 대기시간 (단위: millisecond)
+   * @return 최대 대기시간, 요청 deadline 안에 기다릴 수 있으면 true
+   */
+  private boolean canWait(long retryAfter) {
+    return retryAfter <= getMaxDelay() && (request == null || retryAfter < request.getRemainingTime());
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.engines;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import io.rebolt.http.HttpMethod;
+import io.rebolt.http.HttpRequest;
+import io.rebolt.http.utils.HeaderParser;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * RetryPolicy
+ * <p>
+ * 재시도 대상(응답코드 범위, 예외 클래스, 응답 헤더)과 재시도 횟수, 대기시간, 최대 소요시간을 정의한다.
+ * 통신엔진 전체({@link AbstractEngine#setRetryPolicy(RetryPolicy)})나 요청별({@link HttpRequest#retryPolicy(RetryPolicy)})로 지정한다.
+ * <p>
+ * 멱등하지 않은 요청(POST, PATCH 등)은 서버가 요청을 처리하지 않은 것이 확실한 경우에만 재시도한다.
+ * (연결 실패, 429 Too many requests) 504 등을 그대로 재시도하면 백엔드에서 같은 작업이 중복 실행될 수 있기 때문이다.
+ * <p>
+ * 429, 503 응답의 Retry-After 헤더가 있으면 백오프 대기시간 대신 서버가 알려준 시간만큼 기다린다.
+ * Retry-After가 최대 대기시간(maxDelay)이나 남은 deadline보다 길면 재시도하지 않고 응답을 그대로 반환한다.
+ *
+ * @since 1.2.0
+ */
+public final class RetryPolicy {
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int SERVICE_UNAVAILABLE = 503;
+
+  private final List<IntPredicate> statuses;
+  private final List<Class<? extends Throwable>> exceptions;
+  private final List<HeaderRule> headers;
+  private final Set<HttpMethod> idempotentMethods;
+  private final @Getter int maxRetries; // -1: 통신엔진의 retryCount
+  private final @Getter long baseDelay; // -1: 통신엔진의 retryBaseDelay, retryMaxDelay
+  private final @Getter long maxDelay;
+  private final @Getter boolean retryAfter;
+  private final @Getter long maxElapsedTime; // 0: 제한 없음
+
+  private RetryPolicy(Builder builder) {
+    this.statuses = Collections.unmodifiableList(Lists.newArrayList(builder.statuses));
+    this.exceptions = Collections.unmodifiableList(Lists.newArrayList(builder.exceptions));
+    this.headers = Collections.unmodifiableList(Lists.newArrayList(builder.headers));
+    this.idempotentMethods = Collections.unmodifiableSet(Sets.newEnumSet(builder.idempotentMethods, HttpMethod.class));
+    this.maxRetries = builder.maxRetries;
+    this.baseDelay = builder.baseDelay;
+    this.maxDelay = builder.maxDelay;
+    this.retryAfter = builder.retryAfter;
+    this.maxElapsedTime = builder.maxElapsedTime;
+  }
+
+  /**
+   * 멱등 요청 여부. {@link HttpRequest#idempotent()}로 표시된 요청이거나 멱등 메소드(기본값: GET, HEAD, PUT, DELETE)이면 멱등 요청이다.
+   *
+   * @param request {@link HttpRequest} (null이면 멱등 요청으로 취급한다)
+   * @return 멱등 요청이면 true
+   * @since 1.2.0
+   */
+  public boolean isIdempotent(HttpRequest request) {
+    return request == null || request.isIdempotent() || idempotentMethods.contains(request.getMethod());
+  }
+
+  /**
+   * 응답 재시도 여부
+   *
+   * @param request {@link HttpRequest}
+   * @param statusCode 응답코드
+   * @param header 헤더 조회 함수 (헤더 이름 → 값, 없으면 null)
+   * @return 재시도 대상이면 true
+   * @since 1.2.0
+   */
+  public boolean isRetryable(HttpRequest request, int statusCode, Function<String, String> header) {
+    if (!isIdempotent(request) && statusCode != TOO_MANY_REQUESTS) {
+      return false;
+    }
+    for (IntPredicate status : statuses) {
+      if (status.test(statusCode)) {
+        return true;
+      }
+    }
+    for (HeaderRule rule : headers) {
+      String value = header.apply(rule.name);
+      if (value != null && rule.value.test(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 예외 재시도 여부. 멱등하지 않은 요청은 연결 실패(요청을 보내지 못한 경우)만 재시도한다.
+   *
+   * @param request {@link HttpRequest}
+   * @param exception 요청중 발생한 예외
+   * @return 재시도 대상이면 true
+   * @since 1.2.0
+   */
+  public boolean isRetryable(HttpRequest request, Throwable exception) {
+    if (!isIdempotent(request) && !isConnectFailure(exception)) {
+      return false;
+    }
+    for (Class<? extends Throwable> type : exceptions) {
+      if (type.isInstance(exception)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 서버가 지정한 재시도 대기시간. Retry-After는 429, 503 응답에만 적용한다.
+   *
+   * @param statusCode 응답코드
+   * @param header 헤더 조회 함수
+   * @return 대기시간 (단위: millisecond, 지정되지 않았으면 -1)
+   * @since 1.2.0
+   */
+  public long retryAfter(int statusCode, Function<String, String> header) {
+    if (!retryAfter || (statusCode != TOO_MANY_REQUESTS && statusCode != SERVICE_UNAVAILABLE)) {
+      return -1;
+    }
+    return HeaderParser.parseRetryAfter(header.apply("Retry-After"));
+  }
+
+  private static boolean isConnectFailure(Throwable exception) {
+    return exception instanceof ConnectException || exception instanceof NoRouteToHostException || exception instanceof UnknownHostException;
+  }
+
+  private static final class HeaderRule {
+    private final String name;
+    private final Predicate<String> value;
+
+    private HeaderRule(String name, Predicate<String> value) {
+      this.name = name;
+      this.value = value;
+    }
+  }
+
+  /**
+   * {@link RetryPolicy} Builder
+   * <p>
+   * 재시도 대상을 하나도 지정하지 않으면 408, 429, 502, 503, 504 응답과 {@link IOException}을 재시도한다.
+   */
+  public static final class Builder {
+    private final List<IntPredicate> statuses = Lists.newArrayList();
+    private final List<Class<? extends Throwable>> exceptions = Lists.newArrayList();
+    private final List<HeaderRule> headers = Lists.newArrayList();
+    private final Set<HttpMethod> idempotentMethods = Sets.newHashSet(HttpMethod.Get, HttpMethod.Head, HttpMethod.Put, HttpMethod.Delete);
+    private int maxRetries = -1;
+    private long baseDelay = -1;
+    private long maxDelay = -1;
+    private boolean retryAfter = true;
+    private long maxElapsedTime;
+
+    /**
+     * 재시도할 응답코드
+     */
+    public Builder retryOnStatus(int... codes) {
+      for (int code : codes) {
+        statuses.add(status -> status == code);
+      }
+      return this;
+    }
+
+    /**
+     * 재시도할 응답코드 범위 (예: 500 ~ 599)
+     */
+    public Builder retryOnStatus(int from, int to) {
+      if (from > to) {
+        throw new IllegalParameterException("-status: " + from + " ~ " + to);
+      }
+      statuses.add(status -> status >= from && status <= to);
+      return this;
+    }
+
+    /**
+     * 재시도할 응답코드 조건
+     */
+    public Builder retryOnStatus(IntPredicate predicate) {
+      statuses.add(predicate);
+      return this;
+    }
+
+    /**
+     * 재시도할 예외 클래스 (하위 클래스 포함)
+     */
+    @SafeVarargs
+    public final Builder retryOnException(Class<? extends Throwable>... types) {
+      for (Class<? extends Throwable> type : types) {
+        exceptions.add(type);
+      }
+      return this;
+    }
+
+    /**
+     * 응답 헤더 조건. 헤더값이 조건을 만족하면 응답코드와 관계없이 재시도한다.
+     */
+    public Builder retryOnHeader(String name, Predicate<String> value) {
+      headers.add(new HeaderRule(name, value));
+      return this;
+    }
+
+    /**
+     * 멱등 메소드 (기본값: GET, HEAD, PUT, DELETE)
+     */
+    public Builder setIdempotentMethods(HttpMethod... methods) {
+      idempotentMethods.clear();
+      idempotentMethods.addAll(Lists.newArrayList(methods));
+      return this;
+    }
+
+    /**
+     * 최대 재시도 횟수 (기본값: -1, 통신엔진의 retryCount를 따른다)
+     */
+    public Builder setMaxRetries(int maxRetries) {
+      this.maxRetries = maxRetries;
+      return this;
+    }
+
+    /**
+     * 재시도 대기시간 (단위: millisecond, 기본값: 통신엔진의 retryBaseDelay, retryMaxDelay를 따른다)
+     */
+    public Builder setBackoff(long baseDelay, long maxDelay) {
+      this.baseDelay = baseDelay;
+      this.maxDelay = maxDelay;
+      return this;
+    }
+
+    /**
+     * Retry-After 헤더 적용 여부 (기본값: true, 최대 대기시간보다 긴 Retry-After는 재시도하지 않는다)
+     */
+    public Builder setRetryAfter(boolean retryAfter) {
+      this.retryAfter = retryAfter;
+      return this;
+    }
+
+    /**
+     * 최초 요청부터의 최대 소요시간. 다음 재시도까지 기다리면 이 시간을 넘는 경우 재시도하지 않는다. (단위: millisecond, 기본값: 0, 제한 없음)
+     */
+    public Builder setMaxElapsedTime(long maxElapsedTime) {
+      this.maxElapsedTime = maxElapsedTime;
+      return this;
+    }
+
+    public RetryPolicy build() {
+      if (maxElapsedTime < 0) {
+        throw new IllegalParameterException("-maxElapsedTime: " + maxElapsedTime + " (expected: 0 ~)");
+      }
+      if (baseDelay >= 0 && maxDelay < baseDelay) {
+        throw new IllegalParameterException("-baseDelay: " + baseDelay + ", maxDelay: " + maxDelay);
+      }
+      if (statuses.isEmpty() && exceptions.isEmpty() && headers.isEmpty()) {
+        retryOnStatus(408, 429, 502, 503, 504);
+        retryOnException(IOException.class);
+      }
+      return new RetryPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.engines;
+
+import io.rebolt.http.HttpRequest;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * 요청별 타임아웃 인터셉터
+ * <p>
+ * 요청에 지정한 커넥션, 읽기, 쓰기 타임아웃({@link HttpRequest#connectTimeout(int)} 등)을 클라이언트 설정 대신 적용한다.
+ * 클라이언트를 새로 만들지 않으므로 커넥션풀과 디스패처를 그대로 공유한다.
+ * <p>
+ * {@link HttpRequest#deadline(long, java.util.concurrent.TimeUnit)}가 지정된 요청은 시도마다 타임아웃을
+ * deadline까지 남은 시간으로 줄여서 적용한다. 이미 deadline이 지난 시도는 보내지 않는다.
+ * header를 지정하면 남은 시간(단위: millisecond)을 요청 헤더로 전달해 하위 서비스도 같은 deadline을 지킬 수 있게 한다.
+ *
+ * @since 1.2.0
+ */
+final class TimeoutInterceptor implements Interceptor {
+  private final String header; // null: 전달하지 않음
+
+  TimeoutInterceptor(String header) {
+    this.header = header;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    Object tag = request.tag();
+    if (!(tag instanceof HttpRequest)) {
+      return chain.proceed(request);
+    }
+    HttpRequest httpRequest = (HttpRequest) tag;
+    int connectTimeout = override(httpRequest.getConnectTimeout(), chain.connectTimeoutMillis());
+    int readTimeout = override(httpRequest.getReadTimeout(), chain.readTimeoutMillis());
+    int writeTimeout = override(httpRequest.getWriteTimeout(), chain.writeTimeoutMillis());
+    if (httpRequest.hasDeadline()) {
+      long remaining = httpRequest.getRemainingTime();
+      if (remaining <= 0) {
+        throw new InterruptedIOException("deadline exceeded");
+      }
+      if (header != null) {
+        request = request.newBuilder().header(header, String.valueOf(remaining)).build();
+      }
+      connectTimeout = clamp(connectTimeout, remaining);
+      readTimeout = clamp(readTimeout, remaining);
+      writeTimeout = clamp(writeTimeout, remaining);
+    }
+    if (connectTimeout != chain.connectTimeoutMillis()) {
+      chain = chain.withConnectTimeout(connectTimeout, MILLISECONDS);
+    }
+    if (readTimeout != chain.readTimeoutMillis()) {
+      chain = chain.withReadTimeout(readTimeout, MILLISECONDS);
+    }
+    if (writeTimeout != chain.writeTimeoutMillis()) {
+      chain = chain.withWriteTimeout(writeTimeout, MILLISECONDS);
+    }
+    return chain.proceed(request);
+  }
+
+  private static int override(Integer timeout, int current) {
+    return timeout == null ? current : timeout;
+  }
+
+  /**
+   * @param timeout 설정된 타임아웃 (0이면 제한 없음)
+   */
+  private static int clamp(int timeout, long remaining) {
+    return (int) (timeout == 0 ? Math.min(remaining, Integer.MAX_VALUE) : Math.min(timeout, remaining));
+  }
+}
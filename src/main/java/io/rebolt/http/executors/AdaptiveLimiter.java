@@ -0,0 +1,284 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AdaptiveLimiter
+ * <p>
+ * 호스트별 최대 동시 요청수(limit)를 응답시간(RTT)에 따라 자동으로 조정한다. (Gradient 방식)
+ * <p>
+ * 최근 응답시간(short RTT)과 장기 평균 응답시간(long RTT)의 비율(gradient)로 limit을 조정한다.
+ * 백엔드가 느려지면 short RTT가 커지므로 limit이 줄고, 회복되면 limit이 다시 늘어난다.
+ * limit을 넘는 요청은 대기하지 않고 즉시 거절({@link #tryAcquire(String)} == false)되므로
+ * 느려진 백엔드 앞에 요청이 무한정 쌓이지 않는다.
+ *
+ * @since 1.2.0
+ */
+public final class AdaptiveLimiter {
+  private final ConcurrentMap<String, Limit> limits = Maps.newConcurrentMap();
+  private final @Getter int initialLimit;
+  private final @Getter int minLimit;
+  private final @Getter int maxLimit;
+  private final @Getter double tolerance;
+  private final @Getter double smoothing;
+  private final @Getter double backoffRatio;
+
+  private AdaptiveLimiter(Builder builder) {
+    this.initialLimit = builder.initialLimit;
+    this.minLimit = builder.minLimit;
+    this.maxLimit = builder.maxLimit;
+    this.tolerance = builder.tolerance;
+    this.smoothing = builder.smoothing;
+    this.backoffRatio = builder.backoffRatio;
+  }
+
+  /**
+   * 요청 시작 허가. 진행중인 요청수가 limit보다 작으면 허가한다.
+   * <p>
+   * 허가된 요청은 끝났을 때 {@link #onSuccess(String, long)}, {@link #onDropped(String)},
+   * {@link #onIgnored(String)} 중 하나를 반드시 호출해야 한다.
+   *
+   * @param host 호스트
+   * @return 허가 여부
+   * @since 1.2.0
+   */
+  public boolean tryAcquire(String host) {
+    Limit limit = limits.computeIfAbsent(host, key -> new Limit(initialLimit));
+    while (true) {
+      int inflight = limit.inflight.get();
+      if (inflight >= (int) limit.limit) {
+        return false;
+      }
+      if (limit.inflight.compareAndSet(inflight, inflight + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 정상 응답 통지. 응답시간을 반영해 limit을 조정한다.
+   *
+   * @param host 호스트
+   * @param rtt 응답시간 (단위: nanosecond)
+   * @since 1.2.0
+   */
+  public void onSuccess(String host, long rtt) {
+    Limit limit = limits.get(host);
+    if (limit != null) {
+      int inflight = limit.inflight.getAndDecrement();
+      limit.sample(this, Math.max(1, rtt), inflight);
+    }
+  }
+
+  /**
+   * 과부하로 인한 실패 통지 (타임아웃, 429, 503 등). limit을 backoffRatio 비율로 줄인다.
+   *
+   * @param host 호스트
+   * @since 1.2.0
+   */
+  public void onDropped(String host) {
+    Limit limit = limits.get(host);
+    if (limit != null) {
+      limit.inflight.decrementAndGet();
+      limit.drop(this);
+    }
+  }
+
+  /**
+   * limit에 영향을 주지 않는 종료 통지 (취소 등)
+   *
+   * @param host 호스트
+   * @since 1.2.0
+   */
+  public void onIgnored(String host) {
+    Limit limit = limits.get(host);
+    if (limit != null) {
+      limit.inflight.decrementAndGet();
+    }
+  }
+
+  /**
+   * 호스트의 현재 limit
+   *
+   * @param host 호스트
+   * @return limit (요청 이력이 없으면 initialLimit)
+   * @since 1.2.0
+   */
+  public int getLimit(String host) {
+    Limit limit = limits.get(host);
+    return limit == null ? initialLimit : (int) limit.limit;
+  }
+
+  /**
+   * 호스트별 limit, 진행중인 요청수, 측정된 응답시간
+   *
+   * @return 키: 호스트, 값: {@link LimitStats}
+   * @since 1.2.0
+   */
+  public Map<String, LimitStats> getStats() {
+    Map<String, LimitStats> stats = Maps.newHashMapWithExpectedSize(limits.size());
+    limits.forEach((host, limit) -> stats.put(host, limit.stats()));
+    return stats;
+  }
+
+  private static final class Limit {
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    private double shortRtt; // 최근 응답시간 (nanosecond)
+    private double longRtt; // 장기 평균 응답시간 (nanosecond)
+    private long samples;
+
+    private Limit(int initialLimit) {
+      this.limit = initialLimit;
+    }
+
+    private synchronized void sample(AdaptiveLimiter limiter, long rtt, int inflight) {
+      samples++;
+      if (samples == 1) {
+        shortRtt = longRtt = rtt;
+        return;
+      }
+      shortRtt = ewma(shortRtt, rtt, 10);
+      longRtt = ewma(longRtt, rtt, 600);
+      if (longRtt / shortRtt > 2) {
+        longRtt = longRtt * 0.95; // 백엔드가 회복되면 기준 응답시간도 빠르게 따라 내려간다
+      }
+      double current = limit;
+      double gradient = Math.max(0.5, Math.min(1.0, limiter.tolerance * longRtt / shortRtt));
+      double target = current * gradient + Math.sqrt(current);
+      if (target > current && inflight < current / 2) {
+        return; // limit을 절반도 쓰지 않는 상태에서는 limit을 늘리지 않는다
+      }
+      update(limiter, current * (1 - limiter.smoothing) + target * limiter.smoothing);
+    }
+
+    private synchronized void drop(AdaptiveLimiter limiter) {
+      update(limiter, limit * limiter.backoffRatio);
+    }
+
+    private void update(AdaptiveLimiter limiter, double next) {
+      limit = Math.max(limiter.minLimit, Math.min(limiter.maxLimit, next));
+    }
+
+    private static double ewma(double average, long sample, int window) {
+      double factor = 2.0 / (window + 1);
+      return average * (1 - factor) + sample * factor;
+    }
+
+    private synchronized LimitStats stats() {
+      return new LimitStats((int) limit, inflight.get(), shortRtt / 1_000_000d, longRtt / 1_000_000d);
+    }
+  }
+
+  /**
+   * 호스트별 limit 현황
+   */
+  @ToString
+  @Getter
+  public static final class LimitStats {
+    private final int limit;
+    private final int inflight;
+    private final double rtt; // 최근 응답시간 (단위: millisecond)
+    private final double longRtt; // 장기 평균 응답시간 (단위: millisecond)
+
+    private LimitStats(int limit, int inflight, double rtt, double longRtt) {
+      this.limit = limit;
+      this.inflight = inflight;
+      this.rtt = rtt;
+      this.longRtt = longRtt;
+    }
+  }
+
+  /**
+   * {@link AdaptiveLimiter} Builder
+   */
+  public static final class Builder {
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double tolerance = 1.5;
+    private double smoothing = 0.2;
+    private double backoffRatio = 0.9;
+
+    /**
+     * 최초 limit (기본값: 20)
+     */
+    public Builder setInitialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+      return this;
+    }
+
+    /**
+     * 최소 limit (기본값: 1)
+     */
+    public Builder setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    /**
+     * 최대 limit (기본값: 200)
+     */
+    public Builder setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * 장기 평균 대비 허용하는 응답시간 증가 비율. 이 비율을 넘어서 느려지면 limit을 줄인다. (기본값: 1.5)
+     */
+    public Builder setTolerance(double tolerance) {
+      this.tolerance = tolerance;
+      return this;
+    }
+
+    /**
+     * limit 변경 반영 비율 (0 ~ 1, 기본값: 0.2)
+     */
+    public Builder setSmoothing(double smoothing) {
+      this.smoothing = smoothing;
+      return this;
+    }
+
+    /**
+     * 과부하 실패시 limit 감소 비율 (0 ~ 1, 기본값: 0.9)
+     */
+    public Builder setBackoffRatio(double backoffRatio) {
+      this.backoffRatio = backoffRatio;
+      return this;
+    }
+
+    public AdaptiveLimiter build() {
+      if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+        throw new IllegalParameterException("-limit: " + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+      }
+      if (tolerance < 1 || smoothing <= 0 || smoothing > 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+        throw new IllegalParameterException("-tolerance: " + tolerance + ", smoothing: " + smoothing + ", backoffRatio: " + backoffRatio);
+      }
+      return new AdaptiveLimiter(this);
+    }
+  }
+}
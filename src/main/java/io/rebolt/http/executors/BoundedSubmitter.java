@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import io.rebolt.core.exceptions.IllegalParameterException;
+import io.rebolt.core.utils.LogUtil;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * BoundedSubmitter
+ * <p>
+ * 동시에 처리하는 요청수(maxRunning)와 대기큐의 크기(queueSize)를 모두 제한한다.
+ * 대기큐까지 가득 차면 {@link OverflowPolicy}에 따라 요청을 거절하거나, 호출자에게 처리를 넘기거나,
+ * 자리가 날 때까지 대기시키거나, 가장 오래된 요청을 버린다.
+ * <p>
+ * {@link LinkedBlockingThreadExecutor}와 달리 요청이 힙메모리에 무한정 쌓이지 않으므로
+ * 호출자가 하위 시스템의 처리량에 맞춰 유입속도를 조절(backpressure)할 수 있다.
+ *
+ * @since 1.2.0
+ */
+public final class BoundedSubmitter {
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final ArrayDeque<Entry> queue;
+  private final ThreadLocal<Drain> drains = ThreadLocal.withInitial(Drain::new);
+  private final @Getter int maxRunning;
+  private final @Getter int queueSize;
+  private final @Getter OverflowPolicy policy;
+  private final @Getter long overflowTimeout;
+  private int running;
+
+  /**
+   * @param maxRunning 동시에 처리하는 최대 요청수
+   * @param queueSize 대기큐 크기
+   * @param policy {@link OverflowPolicy}
+   * @param overflowTimeout {@link OverflowPolicy#Block}의 최대 대기시간 (단위: millisecond)
+   */
+  public BoundedSubmitter(int maxRunning, int queueSize, OverflowPolicy policy, long overflowTimeout) {
+    if (maxRunning < 1 || queueSize < 0 || policy == null) {
+      throw new IllegalParameterException("-maxRunning: " + maxRunning + ", queueSize: " + queueSize + ", policy: " + policy);
+    }
+    this.maxRunning = maxRunning;
+    this.queueSize = queueSize;
+    this.policy = policy;
+    this.overflowTimeout = overflowTimeout;
+    this.queue = new ArrayDeque<>(Math.max(1, queueSize));
+  }
+
+  /**
+   * 요청 제출 결과
+   */
+  public enum Result {
+    Started, // 호출 스레드에서 바로 실행됨
+    Queued, // 대기큐에 보관됨
+    Rejected, // 거절됨
+    CallerRuns // 대기큐가 가득 차서 호출자가 직접 처리해야 함 (실행되지 않음)
+  }
+
+  /**
+   * 요청 제출. 대기큐가 가득 차면 {@link OverflowPolicy}를 따른다.
+   * <p>
+   * 실행된 작업({@link Result#Started}, {@link Result#Queued})은 처리가 끝나면 반드시 {@link #release()}를 호출해야 한다.
+   *
+   * @param task 요청을 시작하는 작업
+   * @param onDrop {@link OverflowPolicy#DropOldest}로 대기큐에서 버려질 때 실행할 작업
+   * @return {@link Result}
+   * @since 1.2.0
+   */
+  public Result submit(Runnable task, Runnable onDrop) {
+    return submit(task, onDrop, policy);
+  }
+
+  /**
+   * 요청 제출. 대기큐가 가득 차면 대기하지 않고 즉시 거절한다.
+   *
+   * @param task 요청을 시작하는 작업
+   * @param onDrop {@link OverflowPolicy#DropOldest}로 대기큐에서 버려질 때 실행할 작업
+   * @return {@link Result}
+   * @since 1.2.0
+   */
+  public Result trySubmit(Runnable task, Runnable onDrop) {
+    return submit(task, onDrop, OverflowPolicy.Reject);
+  }
+
+  private Result submit(Runnable task, Runnable onDrop, OverflowPolicy policy) {
+    Runnable dropped = null;
+    lock.lock();
+    try {
+      if (running < maxRunning && queue.isEmpty()) {
+        running++;
+      } else if (queue.size() < queueSize) {
+        queue.add(new Entry(task, onDrop));
+        return Result.Queued;
+      } else {
+        switch (policy) {
+          default:
+          case Reject:
+            return Result.Rejected;
+          case CallerRuns:
+            return Result.CallerRuns;
+          case Block:
+            if (!awaitNotFull()) {
+              return Result.Rejected;
+            }
+            if (running < maxRunning && queue.isEmpty()) {
+              running++;
+              break;
+            }
+            queue.add(new Entry(task, onDrop));
+            return Result.Queued;
+          case DropOldest:
+            Entry oldest = queue.poll();
+            if (oldest == null) {
+              return Result.Rejected; // 대기큐를 사용하지 않는 경우 (queueSize == 0)
+            }
+            dropped = oldest.onDrop;
+            queue.add(new Entry(task, onDrop));
+            break;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (dropped != null) {
+      dropped.run();
+      return Result.Queued;
+    }
+    task.run();
+    return Result.Started;
+  }
+
+  private boolean awaitNotFull() {
+    long nanos = TimeUnit.MILLISECONDS.toNanos(overflowTimeout);
+    try {
+      while (running >= maxRunning && queue.size() >= queueSize) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * 처리 종료 통지. 대기큐에 요청이 있으면 이어서 실행한다.
+   * <p>
+   * 이어서 실행한 요청이 바로 끝나서(회로 열림, deadline 초과 등) 같은 스레드에서 다시 호출되면 재귀하지 않고,
+   * 처음 호출된 release()의 반복문에서 이어서 처리한다. 대기큐가 길어도 스택이 깊어지지 않는다.
+   *
+   * @since 1.2.0
+   */
+  public void release() {
+    Drain drain = drains.get();
+    drain.pending++;
+    if (drain.active) {
+      return;
+    }
+    drain.active = true;
+    try {
+      while (drain.pending > 0) {
+        drain.pending--;
+        Entry next = poll();
+        if (next == null) {
+          continue;
+        }
+        try {
+          next.task.run();
+        } catch (RuntimeException ex) {
+          LogUtil.logger().error("-http queued task failed: {}", ex);
+        }
+      }
+    } finally {
+      drain.active = false;
+    }
+  }
+
+  /**
+   * 자리 하나를 반납하고 대기큐의 다음 요청을 꺼낸다. 다음 요청이 있으면 반납한 자리를 이어받는다.
+   */
+  private Entry poll() {
+    lock.lock();
+    try {
+      Entry next = queue.poll();
+      if (next == null && running > 0) {
+        running--;
+      }
+      notFull.signal();
+      return next;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 처리중인 요청수
+   *
+   * @return 처리중인 요청수
+   * @since 1.2.0
+   */
+  public int getRunning() {
+    lock.lock();
+    try {
+      return running;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 대기중인 요청수
+   *
+   * @return 대기중인 요청수
+   * @since 1.2.0
+   */
+  public int getQueued() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 스레드별 release() 진행 상태
+   */
+  private static final class Drain {
+    private boolean active;
+    private int pending; // 처리하지 않은 release() 호출 수
+  }
+
+  private static final class Entry {
+    private final Runnable task;
+    private final Runnable onDrop;
+
+    private Entry(Runnable task, Runnable onDrop) {
+      this.task = task;
+      this.onDrop = onDrop;
+    }
+  }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import io.rebolt.core.utils.LogUtil;
+import io.rebolt.http.HttpRequest;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * CircuitBreaker
+ * <p>
+ * 키(기본값: 호스트)별로 최근 요청 결과를 슬라이딩 윈도우로 집계해서, 실패율 또는 느린 요청 비율이 임계값을 넘으면
+ * 회로를 연다(Open). 열린 회로는 요청을 보내지 않고 즉시 거절하므로 죽은 백엔드에 연결 타임아웃과 재시도를 기다리지 않는다.
+ * <p>
+ * openDuration이 지나면 반열림(HalfOpen) 상태에서 halfOpenPermits개의 요청만 시험삼아 보내고,
+ * 그 결과가 임계값 아래이면 회로를 닫고(Closed) 그렇지 않으면 다시 연다.
+ * <p>
+ * 닫힌 상태에서는 락을 사용하지 않는다. (상태 확인은 volatile 읽기 한 번, 결과 기록은 원자적 연산)
+ * <p>
+ * 허가({@link Permit})는 허가된 상태 구간에만 유효하다. 상태가 바뀐 뒤에 끝난 요청의 결과는 집계하지 않으므로,
+ * 닫힌 상태에서 보낸 요청이 반열림 상태에서 끝나도 시험 요청으로 집계되지 않는다.
+ *
+ * @since 1.2.0
+ */
+public final class CircuitBreaker {
+  private final ConcurrentMap<String, Circuit> circuits = Maps.newConcurrentMap();
+  private final List<StateListener> listeners;
+  private final Function<HttpRequest, String> keyFunction;
+  private final @Getter double failureRateThreshold;
+  private final @Getter double slowCallRateThreshold;
+  private final @Getter long slowCallDuration; // 단위: millisecond
+  private final @Getter int windowSize;
+  private final @Getter int minimumCalls;
+  private final @Getter long openDuration; // 단위: millisecond
+  private final @Getter int halfOpenPermits;
+  private final long slowCallNanos;
+  private final long openNanos;
+
+  private CircuitBreaker(Builder builder) {
+    this.listeners = Lists.newCopyOnWriteArrayList(builder.listeners);
+    this.keyFunction = builder.keyFunction;
+    this.failureRateThreshold = builder.failureRateThreshold;
+    this.slowCallRateThreshold = builder.slowCallRateThreshold;
+    this.slowCallDuration = builder.slowCallDuration;
+    this.windowSize = builder.windowSize;
+    this.minimumCalls = builder.minimumCalls;
+    this.openDuration = builder.openDuration;
+    this.halfOpenPermits = builder.halfOpenPermits;
+    this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallDuration);
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDuration);
+  }
+
+  /**
+   * 회로 상태
+   */
+  public enum State {
+    Closed, Open, HalfOpen
+  }
+
+  /**
+   * 상태 변경 리스너. 상태를 바꾼 요청 스레드에서 호출되므로 오래 걸리는 작업을 하면 안 된다.
+   */
+  @FunctionalInterface
+  public interface StateListener {
+    void onStateChange(String key, State from, State to);
+  }
+
+  /**
+   * 회로 키. keyFunction이 없거나 null을 반환하면 호스트를 사용한다.
+   *
+   * @param request 요청객체 (알 수 없으면 null)
+   * @param host 호스트
+   * @return 회로 키
+   * @since 1.2.0
+   */
+  public String getKey(HttpRequest request, String host) {
+    if (keyFunction == null || request == null) {
+      return host;
+    }
+    String key = keyFunction.apply(request);
+    return key == null ? host : key;
+  }
+
+  /**
+   * 요청 허가. 허가된 요청은 끝났을 때 {@link #onResult(Permit, long, boolean)} 또는 {@link #onIgnored(Permit)}를 반드시 호출해야 한다.
+   *
+   * @param key 회로 키
+   * @return {@link Permit} (null이면 회로가 열려 있다)
+   * @since 1.2.0
+   */
+  public Permit tryAcquire(String key) {
+    Circuit circuit = circuits.get(key);
+    if (circuit == null) {
+      circuit = circuits.computeIfAbsent(key, k -> new Circuit(k, windowSize));
+    }
+    Permit phase = circuit.phase.get();
+    if (phase.state == State.Closed) {
+      return phase;
+    }
+    if (phase.state == State.Open) {
+      if (System.nanoTime() - circuit.openedAt < openNanos) {
+        return null;
+      }
+      if (transition(circuit, State.Open, State.HalfOpen)) {
+        circuit.resetHalfOpen(halfOpenPermits);
+      }
+      phase = circuit.phase.get();
+    }
+    return phase.state == State.HalfOpen && circuit.acquirePermit() ? phase : null;
+  }
+
+  /**
+   * 요청 결과 통지. 허가 이후 상태가 바뀌었으면 결과를 집계하지 않는다.
+   *
+   * @param permit {@link #tryAcquire(String)}로 받은 허가
+   * @param elapsedTime 응답시간 (단위: nanosecond)
+   * @param failure 실패 여부 (네트워크 오류, 5xx 응답 등)
+   * @since 1.2.0
+   */
+  public void onResult(Permit permit, long elapsedTime, boolean failure) {
+    Circuit circuit = permit.circuit;
+    if (circuit.phase.get() != permit) {
+      return; // 다른 상태 구간에서 허가된 요청
+    }
+    boolean slow = elapsedTime >= slowCallNanos;
+    State state = permit.state;
+    if (state == State.Closed) {
+      circuit.record(failure, slow);
+      int calls = circuit.calls();
+      if (calls >= minimumCalls && exceeded(circuit.failures.get(), circuit.slowCalls.get(), calls)) {
+        open(circuit, State.Closed);
+      }
+    } else if (state == State.HalfOpen) {
+      int failures = failure ? circuit.halfOpenFailures.incrementAndGet() : circuit.halfOpenFailures.get();
+      int slowCalls = slow ? circuit.halfOpenSlowCalls.incrementAndGet() : circuit.halfOpenSlowCalls.get();
+      int calls = circuit.halfOpenCalls.incrementAndGet();
+      if (calls < halfOpenPermits) {
+        return;
+      }
+      if (exceeded(failures, slowCalls, calls)) {
+        open(circuit, State.HalfOpen);
+      } else if (transition(circuit, State.HalfOpen, State.Closed)) {
+        circuit.reset();
+      }
+    }
+  }
+
+  /**
+   * 결과에 반영하지 않는 종료 통지 (취소 등). 같은 반열림 구간에서 받은 허가이면 반납한다.
+   *
+   * @param permit {@link #tryAcquire(String)}로 받은 허가
+   * @since 1.2.0
+   */
+  public void onIgnored(Permit permit) {
+    Circuit circuit = permit.circuit;
+    if (permit.state == State.HalfOpen && circuit.phase.get() == permit) {
+      circuit.permits.incrementAndGet();
+    }
+  }
+
+  /**
+   * 실패 판단 기준. 응답을 받지 못했거나 5xx 응답이면 실패로 집계한다.
+   *
+   * @param statusCode 응답코드 (응답을 받지 못했으면 0)
+   * @return 실패 여부
+   * @since 1.2.0
+   */
+  public static boolean isFailure(int statusCode) {
+    return statusCode == 0 || statusCode >= 500;
+  }
+
+  /**
+   * 회로 상태
+   *
+   * @param key 회로 키
+   * @return {@link State} (요청 이력이 없으면 Closed)
+   * @since 1.2.0
+   */
+  public State getState(String key) {
+    Circuit circuit = circuits.get(key);
+    return circuit == null ? State.Closed : circuit.phase.get().state;
+  }
+
+  /**
+   * 키별 회로 상태와 집계 현황
+   *
+   * @return 키: 회로 키, 값: {@link CircuitStats}
+   * @since 1.2.0
+   */
+  public Map<String, CircuitStats> getStats() {
+    Map<String, CircuitStats> stats = Maps.newHashMapWithExpectedSize(circuits.size());
+    circuits.forEach((key, circuit) -> {
+      int calls = circuit.calls();
+      stats.put(key, new CircuitStats(circuit.phase.get().state, calls, rate(circuit.failures.get(), calls), rate(circuit.slowCalls.get(), calls)));
+    });
+    return stats;
+  }
+
+  /**
+   * 리스너 추가
+   *
+   * @param listener {@link StateListener}
+   * @since 1.2.0
+   */
+  public void addListener(StateListener listener) {
+    listeners.add(listener);
+  }
+
+  private boolean exceeded(int failures, int slowCalls, int calls) {
+    return rate(failures, calls) >= failureRateThreshold || rate(slowCalls, calls) >= slowCallRateThreshold;
+  }
+
+  private static double rate(int count, int calls) {
+    return calls == 0 ? 0 : (double) count / calls;
+  }
+
+  private void open(Circuit circuit, State from) {
+    circuit.openedAt = System.nanoTime(); // 상태를 바꾸기 전에 기록해야 다른 스레드가 바로 반열림으로 바꾸지 않는다
+    if (transition(circuit, from, State.Open)) {
+      circuit.permits.set(0);
+    }
+  }
+
+  /**
+   * 상태 변경. 상태마다 새 {@link Permit}을 만들어 이전 구간의 허가를 무효화한다.
+   */
+  private boolean transition(Circuit circuit, State from, State to) {
+    Permit current = circuit.phase.get();
+    if (current.state != from || !circuit.phase.compareAndSet(current, new Permit(circuit, to))) {
+      return false;
+    }
+    String key = circuit.key;
+    if (to == State.Open) {
+      LogUtil.logger().warn("-http circuit opened: {}, from: {}", key, from);
+    }
+    for (StateListener listener : listeners) {
+      try {
+        listener.onStateChange(key, from, to);
+      } catch (RuntimeException e) {
+        LogUtil.logger().warn("-http circuit listener failed: {}", e.getMessage());
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 요청 허가. 회로의 상태 구간마다 하나씩 만들어지며, 같은 구간에서 허가된 요청은 같은 객체를 받는다.
+   * (닫힌 상태의 허가는 객체를 새로 만들지 않는다)
+   */
+  public static final class Permit {
+    private final Circuit circuit;
+    private final @Getter State state;
+
+    private Permit(Circuit circuit, State state) {
+      this.circuit = circuit;
+      this.state = state;
+    }
+
+    public String getKey() {
+      return circuit.key;
+    }
+  }
+
+  /**
+   * 키별 회로. 닫힌 상태의 결과는 크기가 windowSize인 링버퍼에 기록하고, 실패수와 느린 요청수를 함께 갱신한다.
+   */
+  private static final class Circuit {
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+    private static final int SLOW = 4;
+
+    private final String key;
+    private final AtomicReference<Permit> phase;
+    private final AtomicIntegerArray window;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    private final AtomicInteger permits = new AtomicInteger();
+    private final AtomicInteger halfOpenCalls = new AtomicInteger();
+    private final AtomicInteger halfOpenFailures = new AtomicInteger();
+    private final AtomicInteger halfOpenSlowCalls = new AtomicInteger();
+    private volatile long openedAt;
+
+    private Circuit(String key, int windowSize) {
+      this.key = key;
+      this.window = new AtomicIntegerArray(windowSize);
+      this.phase = new AtomicReference<>(new Permit(this, State.Closed));
+    }
+
+    private void record(boolean failure, boolean slow) {
+      int outcome = (failure ? FAILURE : SUCCESS) | (slow ? SLOW : 0);
+      int old = window.getAndSet((int) (cursor.getAndIncrement() % window.length()), outcome);
+      int failureDelta = (failure ? 1 : 0) - ((old & FAILURE) != 0 ? 1 : 0);
+      int slowDelta = (slow ? 1 : 0) - ((old & SLOW) != 0 ? 1 : 0);
+      if (failureDelta != 0) {
+        failures.addAndGet(failureDelta);
+      }
+      if (slowDelta != 0) {
+        slowCalls.addAndGet(slowDelta);
+      }
+    }
+
+    private int calls() {
+      return (int) Math.min(cursor.get(), window.length());
+    }
+
+    private boolean acquirePermit() {
+      while (true) {
+        int current = permits.get();
+        if (current <= 0) {
+          return false;
+        }
+        if (permits.compareAndSet(current, current - 1)) {
+          return true;
+        }
+      }
+    }
+
+    private void resetHalfOpen(int halfOpenPermits) {
+      halfOpenCalls.set(0);
+      halfOpenFailures.set(0);
+      halfOpenSlowCalls.set(0);
+      permits.set(halfOpenPermits);
+    }
+
+    private void reset() {
+      for (int i = 0; i < window.length(); i++) {
+        window.set(i, 0);
+      }
+      cursor.set(0);
+      failures.set(0);
+      slowCalls.set(0);
+    }
+  }
+
+  /**
+   * 키별 회로 현황
+   */
+  @ToString
+  @Getter
+  public static final class CircuitStats {
+    private final State state;
+    private final int calls; // 윈도우에 기록된 요청 수
+    private final double failureRate;
+    private final double slowCallRate;
+
+    private CircuitStats(State state, int calls, double failureRate, double slowCallRate) {
+      this.state = state;
+      this.calls = calls;
+      this.failureRate = failureRate;
+      this.slowCallRate = slowCallRate;
+    }
+  }
+
+  /**
+   * {@link CircuitBreaker} Builder
+   */
+  public static final class Builder {
+    private final List<StateListener> listeners = Lists.newArrayList();
+    private Function<HttpRequest, String> keyFunction;
+    private double failureRateThreshold = 0.5;
+    private double slowCallRateThreshold = 1.0;
+    private long slowCallDuration = 3000;
+    private int windowSize = 100;
+    private int minimumCalls = 20;
+    private long openDuration = 10000;
+    private int halfOpenPermits = 5;
+
+    /**
+     * 회로를 여는 실패율 (0 ~ 1, 기본값: 0.5)
+     */
+    public Builder setFailureRateThreshold(double failureRateThreshold) {
+      this.failureRateThreshold = failureRateThreshold;
+      return this;
+    }
+
+    /**
+     * 회로를 여는 느린 요청 비율과 느린 요청의 기준 응답시간 (단위: millisecond, 기본값: 1.0, 3,000)
+     */
+    public Builder setSlowCallRateThreshold(double slowCallRateThreshold, long slowCallDuration) {
+      this.slowCallRateThreshold = slowCallRateThreshold;
+      this.slowCallDuration = slowCallDuration;
+      return this;
+    }
+
+    /**
+     * 집계하는 최근 요청 수와 집계를 시작하는 최소 요청 수 (기본값: 100, 20)
+     */
+    public Builder setWindow(int windowSize, int minimumCalls) {
+      this.windowSize = windowSize;
+      this.minimumCalls = minimumCalls;
+      return this;
+    }
+
+    /**
+     * 회로가 열려 있는 시간 (단위: millisecond, 기본값: 10,000)
+     */
+    public Builder setOpenDuration(long openDuration) {
+      this.openDuration = openDuration;
+      return this;
+    }
+
+    /**
+     * 반열림 상태에서 허가하는 요청 수 (기본값: 5)
+     */
+    public Builder setHalfOpenPermits(int halfOpenPermits) {
+      this.halfOpenPermits = halfOpenPermits;
+      return this;
+    }
+
+    /**
+     * 회로 키 함수. 호스트 대신 API 경로 등으로 회로를 나눌 때 사용한다. (기본값: 호스트)
+     */
+    public Builder setKeyFunction(Function<HttpRequest, String> keyFunction) {
+      this.keyFunction = keyFunction;
+      return this;
+    }
+
+    public Builder addListener(StateListener listener) {
+      this.listeners.add(listener);
+      return this;
+    }
+
+    public CircuitBreaker build() {
+      if (failureRateThreshold <= 0 || failureRateThreshold > 1 || slowCallRateThreshold <= 0 || slowCallRateThreshold > 1 || slowCallDuration < 1) {
+        throw new IllegalParameterException("-failureRateThreshold: " + failureRateThreshold + ", slowCallRateThreshold: " + slowCallRateThreshold
+            + ", slowCallDuration: " + slowCallDuration);
+      }
+      if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || openDuration < 1 || halfOpenPermits < 1) {
+        throw new IllegalParameterException("-windowSize: " + windowSize + ", minimumCalls: " + minimumCalls + ", openDuration: " + openDuration
+            + ", halfOpenPermits: " + halfOpenPermits);
+      }
+      return new CircuitBreaker(this);
+    }
+  }
+}
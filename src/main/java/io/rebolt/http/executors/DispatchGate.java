@@ -0,0 +1,185 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * DispatchGate
+ * <p>
+ * 호스트별 동시 요청수를 제한한다. 제한을 넘는 요청은 호스트별 대기큐에 보관되었다가
+ * 진행중인 요청이 끝나면({@link #release(String)}) 순서대로 실행된다.
+ * <p>
+ * 기본 제한값은 모든 호스트에 적용되며, 호스트별로 다른 제한값을 지정할 수 있다.
+ *
+ * @since 1.2.0
+ */
+public final class DispatchGate {
+  private final ConcurrentMap<String, Integer> hostLimits = Maps.newConcurrentMap();
+  private final ConcurrentMap<String, Host> hosts = Maps.newConcurrentMap();
+  private volatile @Getter int defaultLimit;
+
+  public DispatchGate(int defaultLimit) {
+    setDefaultLimit(defaultLimit);
+  }
+
+  /**
+   * 기본 제한값 설정. 이미 대기중인 요청에도 즉시 적용된다.
+   *
+   * @param defaultLimit 호스트별 최대 동시 요청수
+   * @since 1.2.0
+   */
+  public void setDefaultLimit(int defaultLimit) {
+    if (defaultLimit < 1) {
+      throw new IllegalParameterException("-defaultLimit: " + defaultLimit + " (expected: 1 ~)");
+    }
+    this.defaultLimit = defaultLimit;
+    hosts.keySet().forEach(this::drain);
+  }
+
+  /**
+   * 호스트별 제한값 설정. 이미 대기중인 요청에도 즉시 적용된다.
+   *
+   * @param host 호스트
+   * @param limit 최대 동시 요청수 (0 이하이면 호스트별 설정을 지우고 기본값을 사용한다)
+   * @since 1.2.0
+   */
+  public void setLimit(String host, int limit) {
+    if (limit < 1) {
+      hostLimits.remove(host);
+    } else {
+      hostLimits.put(host, limit);
+    }
+    drain(host);
+  }
+
+  /**
+   * 호스트에 적용되는 제한값
+   *
+   * @param host 호스트
+   * @return 최대 동시 요청수
+   * @since 1.2.0
+   */
+  public int getLimit(String host) {
+    Integer limit = hostLimits.get(host);
+    return limit == null ? defaultLimit : limit;
+  }
+
+  /**
+   * 작업 실행. 호스트의 동시 요청수가 제한값보다 작으면 호출 스레드에서 바로 실행하고, 그렇지 않으면 대기큐에 보관한다.
+   * <p>
+   * 실행된 작업은 요청이 끝났을 때 반드시 {@link #release(String)}를 호출해야 한다.
+   *
+   * @param host 호스트
+   * @param task 요청을 시작하는 작업
+   * @since 1.2.0
+   */
+  public void submit(String host, Runnable task) {
+    Host entry = hosts.computeIfAbsent(host, key -> new Host());
+    int limit = getLimit(host);
+    synchronized (entry) {
+      if (entry.running >= limit) {
+        entry.queue.add(task);
+        return;
+      }
+      entry.running++;
+    }
+    task.run();
+  }
+
+  /**
+   * 요청 종료 통지. 대기큐에 작업이 있으면 이어서 실행한다.
+   *
+   * @param host 호스트
+   * @since 1.2.0
+   */
+  public void release(String host) {
+    Host entry = hosts.get(host);
+    if (entry == null) {
+      return;
+    }
+    synchronized (entry) {
+      if (entry.running > 0) {
+        entry.running--;
+      }
+    }
+    drain(host);
+  }
+
+  /**
+   * 호스트별 대기, 진행 현황
+   *
+   * @return 키: 호스트, 값: {@link HostStats}
+   * @since 1.2.0
+   */
+  public Map<String, HostStats> getStats() {
+    Map<String, HostStats> stats = Maps.newHashMapWithExpectedSize(hosts.size());
+    hosts.forEach((host, entry) -> {
+      synchronized (entry) {
+        stats.put(host, new HostStats(entry.queue.size(), entry.running, getLimit(host)));
+      }
+    });
+    return stats;
+  }
+
+  private void drain(String host) {
+    Host entry = hosts.get(host);
+    if (entry == null) {
+      return;
+    }
+    int limit = getLimit(host);
+    while (true) {
+      Runnable next;
+      synchronized (entry) {
+        if (entry.running >= limit || (next = entry.queue.poll()) == null) {
+          return;
+        }
+        entry.running++;
+      }
+      next.run();
+    }
+  }
+
+  private static final class Host {
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private int running;
+  }
+
+  /**
+   * 호스트별 대기, 진행 현황
+   */
+  @ToString
+  @Getter
+  public static final class HostStats {
+    private final int queued;
+    private final int running;
+    private final int limit;
+
+    private HostStats(int queued, int running, int limit) {
+      this.queued = queued;
+      this.running = running;
+      this.limit = limit;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+/**
+ * 비동기 요청을 처리하는 스레드풀 종류
+ *
+ * @since 1.2.0
+ */
+public enum ExecutorType {
+
+  /**
+   * {@link LinkedBlockingThreadExecutor} (기본값)
+   */
+  LinkedBlocking,
+
+  /**
+   * {@link LockFreeThreadExecutor}. 여러 스레드에서 동시에 많은 요청을 보낼 때 큐의 락 경합이 없다.
+   */
+  LockFree,
+
+  /**
+   * 요청마다 가상 스레드를 생성한다. ({@link VirtualThreads}, JDK 21~)
+   * 스레드 수(threadCount)의 제한이 없으므로 동시 요청수는 maxRequests로만 제한된다.
+   * JDK 21 미만에서는 {@link #LinkedBlocking}을 사용한다.
+   */
+  Virtual
+
+}
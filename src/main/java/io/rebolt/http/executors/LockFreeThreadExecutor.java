@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import io.rebolt.core.exceptions.NotInitializedException;
+import io.rebolt.core.utils.LogUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LockFreeThreadExecutor
+ * <p>
+ * 락을 사용하지 않는 고정크기 큐({@link MpmcArrayQueue})로 요청을 전달하는 고정크기 스레드풀.
+ * 여러 스레드가 동시에 요청을 넣어도 {@link LinkedBlockingThreadExecutor}처럼 큐의 락에서 경합하지 않는다.
+ * <p>
+ * 작업이 없는 스레드는 spinCount만큼 큐를 다시 확인한 뒤 대기(park)하며, 요청이 들어오면 대기중인 스레드 하나만 깨운다.
+ * <p>
+ * 큐가 가득 차면 {@link RejectedExecutionException}이 발생한다. OkHttp의 Dispatcher는 동시 요청수(maxRequests)
+ * 이상을 넘기지 않으므로 큐 크기를 maxRequests 이상으로 설정하면 거절되지 않는다.
+ *
+ * @since 1.2.0
+ */
+public final class LockFreeThreadExecutor extends AbstractExecutorService {
+  /**
+   * 요청큐의 기본 크기
+   */
+  private static final int DEFAULT_QUEUE_SIZE = 1024;
+  private static final int DEFAULT_SPIN_COUNT = 128;
+
+  private static final int RUNNING = 0;
+  private static final int PARKED = 1;
+  private static final int NOTIFIED = 2;
+
+  private final MpmcArrayQueue<Runnable> queue;
+  private final Worker[] workers;
+  private final ThreadFactory threadFactory;
+  private final int spinCount;
+  private final AtomicInteger parkedCount = new AtomicInteger();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final CountDownLatch terminated;
+  private volatile boolean shutdown;
+
+  private LockFreeThreadExecutor(int threadCount, int queueSize, int spinCount, ThreadFactory threadFactory) {
+    this.queue = new MpmcArrayQueue<>(queueSize);
+    this.workers = new Worker[threadCount];
+    this.threadFactory = threadFactory;
+    this.spinCount = spinCount;
+    this.terminated = new CountDownLatch(threadCount);
+    for (int i = 0; i < threadCount; i++) {
+      workers[i] = new Worker();
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (command == null) {
+      throw new NullPointerException();
+    }
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    if (!started.get() && started.compareAndSet(false, true)) {
+      for (Worker worker : workers) {
+        worker.thread = threadFactory.newThread(worker);
+        worker.thread.start();
+      }
+    }
+    if (!queue.offer(command)) {
+      throw new RejectedExecutionException("Queue is full: " + queue.capacity());
+    }
+    if (parkedCount.get() > 0) {
+      signal();
+    }
+  }
+
+  /**
+   * 대기중인 스레드 하나를 깨운다.
+   */
+  private void signal() {
+    for (Worker worker : workers) {
+      if (worker.state.get() == PARKED && worker.state.compareAndSet(PARKED, NOTIFIED)) {
+        parkedCount.decrementAndGet();
+        LockSupport.unpark(worker.thread);
+        return;
+      }
+    }
+  }
+
+  private final class Worker implements Runnable {
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private volatile Thread thread;
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          Runnable task = take();
+          if (task == null) {
+            return; // shutdown
+          }
+          try {
+            task.run();
+          } catch (Throwable ex) {
+            LogUtil.logger().error("-http executor task failed: {}", ex);
+          }
+        }
+      } finally {
+        terminated.countDown();
+      }
+    }
+
+    private Runnable take() {
+      while (true) {
+        for (int i = 0; i <= spinCount; i++) {
+          Runnable task = queue.poll();
+          if (task != null) {
+            return task;
+          }
+        }
+        if (shutdown) {
+          return queue.poll();
+        }
+        state.set(PARKED);
+        parkedCount.incrementAndGet();
+        // 대기 상태를 공개한 뒤 큐를 다시 확인해야 그 사이에 들어온 요청을 놓치지 않는다
+        if (queue.isEmpty() && !shutdown) {
+          LockSupport.park(this);
+        } else {
+          Thread.yield(); // 생산자가 칸을 점유했지만 아직 원소를 넣지 않음
+        }
+        if (state.compareAndSet(PARKED, RUNNING)) {
+          parkedCount.decrementAndGet(); // 스스로 깨어난 경우
+        } else {
+          state.set(RUNNING); // signal()로 깨어난 경우
+        }
+      }
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    if (started.compareAndSet(false, true)) {
+      for (int i = 0; i < workers.length; i++) {
+        terminated.countDown();
+      }
+      return;
+    }
+    for (Worker worker : workers) {
+      LockSupport.unpark(worker.thread);
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    List<Runnable> remaining = new ArrayList<>();
+    Runnable task;
+    while ((task = queue.poll()) != null) {
+      remaining.add(task);
+    }
+    return remaining;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && terminated.getCount() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+
+  /**
+   * 대기중인 요청수
+   *
+   * @return 대기중인 요청수
+   */
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  /**
+   * {@link LockFreeThreadExecutor} Builder
+   */
+  public static final class Builder {
+    private int threadCount;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private int spinCount = DEFAULT_SPIN_COUNT;
+    private ThreadFactory threadFactory;
+
+    public Builder setThreadCount(int threadCount) {
+      this.threadCount = threadCount;
+      return this;
+    }
+
+    /**
+     * 요청큐 크기. 2의 거듭제곱으로 올림하며, 기본값(1024)보다 작으면 기본값을 사용한다.
+     */
+    public Builder setQueueSize(int queueSize) {
+      this.queueSize = Math.max(DEFAULT_QUEUE_SIZE, queueSize);
+      return this;
+    }
+
+    /**
+     * 작업이 없을 때 대기(park)하기 전에 큐를 다시 확인하는 횟수 (기본값: 128)
+     */
+    public Builder setSpinCount(int spinCount) {
+      this.spinCount = Math.max(0, spinCount);
+      return this;
+    }
+
+    public Builder setThreadFactory(ThreadFactory threadFactory) {
+      this.threadFactory = threadFactory;
+      return this;
+    }
+
+    public LockFreeThreadExecutor build() {
+      if (threadCount < 1 || threadFactory == null) {
+        throw new NotInitializedException("threadCount or threadFactory");
+      }
+      return new LockFreeThreadExecutor(threadCount, queueSize, spinCount, threadFactory);
+    }
+  }
+
+}
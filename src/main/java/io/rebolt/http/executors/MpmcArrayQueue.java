@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * MpmcArrayQueue
+ * <p>
+ * 락을 사용하지 않는 고정크기 다중생산자/다중소비자 큐. (Dmitry Vyukov의 bounded MPMC queue)
+ * <p>
+ * 칸마다 순번(sequence)을 두어 생산자는 enqueuePos, 소비자는 dequeuePos에 대한 CAS 한 번으로 칸을 점유한다.
+ * 생산자와 소비자가 서로 다른 카운터를 사용하므로 양쪽이 경합하지 않는다.
+ *
+ * @param <E> 원소 클래스
+ * @since 1.2.0
+ */
+final class MpmcArrayQueue<E> {
+  private final AtomicReferenceArray<E> buffer;
+  private final AtomicLongArray sequence;
+  private final int mask;
+  private final AtomicLong enqueuePos = new PaddedAtomicLong();
+  private final AtomicLong dequeuePos = new PaddedAtomicLong();
+
+  /**
+   * @param capacity 큐 크기 (2의 거듭제곱으로 올림한다)
+   */
+  MpmcArrayQueue(int capacity) {
+    int size = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, capacity) - 1));
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.sequence = new AtomicLongArray(size);
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      sequence.set(i, i);
+    }
+  }
+
+  /**
+   * 원소 추가
+   *
+   * @param element 원소
+   * @return 큐가 가득 찼으면 false (소비중인 칸이 있으면 반환될 때까지 기다린다)
+   */
+  boolean offer(E element) {
+    long pos = enqueuePos.get();
+    while (true) {
+      int index = (int) (pos & mask);
+      long diff = sequence.get(index) - pos;
+      if (diff == 0) {
+        if (enqueuePos.compareAndSet(pos, pos + 1)) {
+          buffer.lazySet(index, element);
+          sequence.set(index, pos + 1); // 소비자에게 공개
+          return true;
+        }
+        pos = enqueuePos.get();
+      } else if (diff < 0) {
+        if (pos - dequeuePos.get() > mask) {
+          return false; // 가득 참
+        }
+        Thread.yield(); // 소비자가 칸을 점유했지만 아직 반환하지 않음
+        pos = enqueuePos.get();
+      } else {
+        pos = enqueuePos.get();
+      }
+    }
+  }
+
+  /**
+   * 원소 꺼내기
+   *
+   * @return 큐가 비었으면 null
+   */
+  E poll() {
+    long pos = dequeuePos.get();
+    while (true) {
+      int index = (int) (pos & mask);
+      long diff = sequence.get(index) - (pos + 1);
+      if (diff == 0) {
+        if (dequeuePos.compareAndSet(pos, pos + 1)) {
+          E element = buffer.get(index);
+          buffer.lazySet(index, null);
+          sequence.set(index, pos + mask + 1); // 다음 바퀴의 생산자에게 반환
+          return element;
+        }
+        pos = dequeuePos.get();
+      } else if (diff < 0) {
+        return null; // 아직 생산되지 않음
+      } else {
+        pos = dequeuePos.get();
+      }
+    }
+  }
+
+  boolean isEmpty() {
+    return dequeuePos.get() >= enqueuePos.get();
+  }
+
+  int size() {
+    return (int) Math.max(0, enqueuePos.get() - dequeuePos.get());
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * 생산자, 소비자 카운터가 같은 캐시라인에 놓이지 않도록 한다. (false sharing)
+   */
+  @SuppressWarnings("unused")
+  private static final class PaddedAtomicLong extends AtomicLong {
+    private static final long serialVersionUID = -3415778863941386253L;
+    private long p1, p2, p3, p4, p5, p6, p7;
+  }
+}
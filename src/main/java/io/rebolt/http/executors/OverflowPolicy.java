@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+/**
+ * {@link BoundedSubmitter}의 대기큐가 가득 찼을 때의 처리 정책
+ *
+ * @since 1.2.0
+ */
+public enum OverflowPolicy {
+
+  /**
+   * 새 요청을 즉시 거절한다.
+   */
+  Reject,
+
+  /**
+   * 요청한 스레드에서 직접 요청을 처리한다. 호출자가 느려지므로 자연스럽게 유입속도가 줄어든다.
+   */
+  CallerRuns,
+
+  /**
+   * 대기큐에 자리가 날 때까지 요청한 스레드를 대기시킨다. 제한시간을 넘기면 거절한다.
+   */
+  Block,
+
+  /**
+   * 대기큐에서 가장 오래된 요청을 거절하고 새 요청을 대기큐에 넣는다.
+   */
+  DropOldest
+
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import io.rebolt.core.utils.LogUtil;
+import io.rebolt.http.utils.HeaderParser;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * RateLimiter
+ * <p>
+ * 호스트, 경로 패턴별 요청 속도를 GCRA(Generic Cell Rate Algorithm)로 제한한다. 토큰 버킷과 같은 결과를
+ * 버킷마다 시각 하나(TAT, theoretical arrival time)로 계산하므로 락 없이 CAS로 처리한다.
+ * <p>
+ * 제한을 넘는 요청은 다음 허용 시각까지의 대기시간을 예약({@link #reserve(String, String)})받는다. 대기시간이 maxWait보다
+ * 길면 예약하지 않고 거절한다. 동기 요청은 호출 스레드에서 대기하고, 비동기 요청은 {@link SharedTimer}로 디스패치를 미룬다.
+ * <p>
+ * 응답의 Retry-After(429, 503), RateLimit-Remaining/Reset, RateLimit-Policy 헤더로 서버의 제한을 학습한다.
+ * 설정한 제한이 없는 호스트도 Retry-After 등으로 차단된 동안은 요청을 미룬다.
+ *
+ * @since 1.2.0
+ */
+public final class RateLimiter {
+  private static final String WILDCARD = "*.";
+  private static final String DEFAULT = "*";
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final Map<String, List<Rule>> rules; // 키: 호스트 패턴, 값: 경로가 긴 순서로 정렬된 규칙
+  private final ConcurrentMap<String, Bucket> buckets = Maps.newConcurrentMap();
+  private final LongAdder allowedCount = new LongAdder();
+  private final LongAdder delayedCount = new LongAdder();
+  private final LongAdder rejectedCount = new LongAdder();
+  private final @Getter long maxWait; // 단위: millisecond
+  private final long maxWaitNanos;
+
+  private RateLimiter(Builder builder) {
+    Map<String, List<Rule>> sorted = Maps.newHashMap();
+    builder.rules.forEach((host, list) -> {
+      List<Rule> copy = Lists.newArrayList(list);
+      copy.sort((a, b) -> b.path.length() - a.path.length());
+      sorted.put(host, copy);
+    });
+    this.rules = sorted;
+    this.maxWait = builder.maxWait;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(builder.maxWait);
+  }
+
+  /**
+   * 요청 예약. 허용 시각까지의 대기시간을 반환하며, 대기시간이 maxWait 이하이면 그 시각의 자리를 예약한다.
+   *
+   * @param host 호스트
+   * @param path 경로
+   * @return 대기시간 (단위: nanosecond, 0이면 바로 요청, 음수이면 거절)
+   * @since 1.2.0
+   */
+  public long reserve(String host, String path) {
+    Bucket bucket = bucket(host, path, false);
+    if (bucket == null) {
+      return 0;
+    }
+    long delay = bucket.reserve(System.nanoTime(), maxWaitNanos);
+    if (delay < 0) {
+      rejectedCount.increment();
+    } else if (delay > 0) {
+      delayedCount.increment();
+    } else {
+      allowedCount.increment();
+    }
+    return delay;
+  }
+
+  /**
+   * 응답 헤더로 서버의 제한을 학습한다.
+   *
+   * @param host 호스트
+   * @param path 경로
+   * @param statusCode 응답코드
+   * @param header 헤더 조회 함수 (헤더 이름 → 값, 없으면 null)
+   * @since 1.2.0
+   */
+  public void onResponse(String host, String path, int statusCode, Function<String, String> header) {
+    long now = System.nanoTime();
+    long blockUntil = 0;
+    if (statusCode == 429 || statusCode == 503) {
+      blockUntil = retryAfter(header.apply("Retry-After"), now);
+    }
+    String remaining = first(header, "RateLimit-Remaining", "X-RateLimit-Remaining");
+    if (blockUntil == 0 && "0".equals(remaining == null ? null : remaining.trim())) {
+      blockUntil = reset(first(header, "RateLimit-Reset", "X-RateLimit-Reset"), now);
+    }
+    String policy = header.apply("RateLimit-Policy");
+    if (blockUntil == 0 && policy == null) {
+      return;
+    }
+    Bucket bucket = bucket(host, path, true);
+    if (policy != null) {
+      bucket.learn(policy);
+    }
+    if (blockUntil > 0) {
+      LogUtil.logger().warn("-http rate limited by server: {}, wait: {}ms", host, TimeUnit.NANOSECONDS.toMillis(blockUntil - now));
+      bucket.block(blockUntil);
+    }
+  }
+
+  /**
+   * 예약 현황
+   *
+   * @return {@link Stats}
+   * @since 1.2.0
+   */
+  public Stats getStats() {
+    return new Stats(allowedCount.sum(), delayedCount.sum(), rejectedCount.sum());
+  }
+
+  private Bucket bucket(String host, String path, boolean create) {
+    Rule rule = match(host, path);
+    String key = rule == null ? host : host + rule.path;
+    Bucket bucket = buckets.get(key);
+    if (bucket == null && (rule != null || create)) {
+      bucket = buckets.computeIfAbsent(key, k -> rule == null ? new Bucket(0, 1) : new Bucket(rule.interval, rule.burst));
+    }
+    return bucket;
+  }
+
+  private Rule match(String host, String path) {
+    Rule rule = match(rules.get(host), path);
+    for (int index = host.indexOf('.'); rule == null && index >= 0; index = host.indexOf('.', index + 1)) {
+      rule = match(rules.get(WILDCARD + host.substring(index + 1)), path);
+    }
+    return rule != null ? rule : match(rules.get(DEFAULT), path);
+  }
+
+  private static Rule match(List<Rule> candidates, String path) {
+    if (candidates == null) {
+      return null;
+    }
+    for (Rule rule : candidates) {
+      if (path == null ? rule.path.isEmpty() : path.startsWith(rule.path)) {
+        return rule;
+      }
+    }
+    return null;
+  }
+
+  private static String first(Function<String, String> header, String name, String alternative) {
+    String value = header.apply(name);
+    return value != null ? value : header.apply(alternative);
+  }
+
+  /**
+   * Retry-After (delta-seconds 또는 HTTP-date)
+   */
+  private static long retryAfter(String value, long now) {
+    long delay = HeaderParser.parseRetryAfter(value);
+    return delay < 0 ? 0 : now + TimeUnit.MILLISECONDS.toNanos(delay);
+  }
+
+  /**
+   * RateLimit-Reset (delta-seconds, X-RateLimit-Reset은 epoch seconds인 경우도 있다)
+   */
+  private static long reset(String value, long now) {
+    if (value == null) {
+      return 0;
+    }
+    try {
+      long seconds = Long.parseLong(value.trim());
+      if (seconds > 1_000_000_000L) {
+        seconds -= TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+      }
+      return now + Math.max(0, seconds) * SECOND;
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static final class Rule {
+    private final String path;
+    private final long interval; // 요청 간격 (단위: nanosecond)
+    private final int burst;
+
+    private Rule(String path, double permitsPerSecond, int burst) {
+      this.path = path;
+      this.interval = (long) (SECOND / permitsPerSecond);
+      this.burst = burst;
+    }
+  }
+
+  /**
+   * GCRA 버킷. 요청은 TAT - tolerance 이후에 허용되며, 허용될 때마다 TAT가 interval만큼 늘어난다.
+   */
+  private static final class Bucket {
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+    private final int burst;
+    private volatile long interval; // 0이면 속도 제한 없음 (학습된 차단만 적용)
+    private volatile long tolerance;
+
+    private Bucket(long interval, int burst) {
+      this.burst = burst;
+      setInterval(interval);
+    }
+
+    private void setInterval(long interval) {
+      this.interval = interval;
+      this.tolerance = interval * (burst - 1);
+    }
+
+    private long reserve(long now, long maxWait) {
+      while (true) {
+        long current = tat.get();
+        long base = current == Long.MIN_VALUE ? now : Math.max(current, now);
+        long delay = Math.max(0, base - tolerance - now);
+        if (delay > maxWait) {
+          return -1;
+        }
+        if (tat.compareAndSet(current, base + interval)) {
+          return delay;
+        }
+      }
+    }
+
+    private void block(long until) {
+      long blocked = until + tolerance;
+      tat.accumulateAndGet(blocked, (current, next) -> current == Long.MIN_VALUE ? next : Math.max(current, next));
+    }
+
+    /**
+     * RateLimit-Policy (예: "100;w=60")에서 허용 속도를 학습한다. 설정값보다 느슨한 값은 무시한다.
+     */
+    private void learn(String policy) {
+      try {
+        String[] tokens = policy.split(",")[0].split(";");
+        long quota = Long.parseLong(tokens[0].trim());
+        long window = 1;
+        for (int i = 1; i < tokens.length; i++) {
+          String token = tokens[i].trim();
+          if (token.startsWith("w=")) {
+            window = Long.parseLong(token.substring(2));
+          }
+        }
+        long learned = quota <= 0 ? 0 : window * SECOND / quota;
+        if (learned > interval) {
+          setInterval(learned);
+        }
+      } catch (RuntimeException e) {
+        LogUtil.logger().warn("-http invalid RateLimit-Policy: {}", policy);
+      }
+    }
+  }
+
+  /**
+   * 예약 현황
+   */
+  @ToString
+  @Getter
+  public static final class Stats {
+    private final long allowed; // 바로 허용된 요청 수
+    private final long delayed; // 대기 후 허용된 요청 수
+    private final long rejected; // maxWait를 넘어 거절된 요청 수
+
+    private Stats(long allowed, long delayed, long rejected) {
+      this.allowed = allowed;
+      this.delayed = delayed;
+      this.rejected = rejected;
+    }
+  }
+
+  /**
+   * {@link RateLimiter} Builder
+   */
+  public static final class Builder {
+    private final Map<String, List<Rule>> rules = Maps.newHashMap();
+    private long maxWait = 1000;
+
+    /**
+     * 제한 추가
+     *
+     * @param pattern 호스트 패턴. 호스트(api.rebolt.io), 와일드카드(*.rebolt.io), 전체(*) 뒤에 경로 접두사를 붙일 수 있다. (예: api.rebolt.io/v1/search)
+     * @param permitsPerSecond 초당 허용 요청 수
+     * @param burst 한꺼번에 허용하는 요청 수
+     */
+    public Builder addLimit(String pattern, double permitsPerSecond, int burst) {
+      if (pattern == null || permitsPerSecond <= 0 || burst < 1) {
+        throw new IllegalParameterException("-pattern: " + pattern + ", permitsPerSecond: " + permitsPerSecond + ", burst: " + burst);
+      }
+      int slash = pattern.indexOf('/');
+      String host = slash < 0 ? pattern : pattern.substring(0, slash);
+      String path = slash < 0 ? "" : pattern.substring(slash);
+      rules.computeIfAbsent(host, key -> Lists.newArrayList()).add(new Rule(path, permitsPerSecond, burst));
+      return this;
+    }
+
+    /**
+     * 최대 대기시간. 이보다 오래 기다려야 하는 요청은 495 (Rate limited)로 거절된다. (단위: millisecond, 기본값: 1,000)
+     */
+    public Builder setMaxWait(long maxWait) {
+      this.maxWait = maxWait;
+      return this;
+    }
+
+    public RateLimiter build() {
+      if (maxWait < 0) {
+        throw new IllegalParameterException("-maxWait: " + maxWait + " (expected: 0 ~)");
+      }
+      return new RateLimiter(this);
+    }
+  }
+}
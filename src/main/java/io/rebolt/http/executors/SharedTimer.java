@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import io.rebolt.core.utils.LogUtil;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SharedTimer
+ * <p>
+ * 모든 통신엔진이 공유하는 단일 타이머 스레드. 비동기 요청의 재시도 대기와 같이 일정 시간 후에 실행되어야 하는
+ * 작업을 요청 스레드를 점유하지 않고 예약한다. (동기 요청은 결과를 호출 스레드에 돌려줘야 하므로 재시도 대기도 호출 스레드에서 한다)
+ * <p>
+ * 타이머 스레드는 하나뿐이므로 예약되는 작업은 다른 스레드풀로 요청을 넘기는 수준의 짧은 작업이어야 한다.
+ *
+ * @since 1.2.0
+ */
+public final class SharedTimer {
+  private static final ScheduledThreadPoolExecutor timer;
+
+  static {
+    timer = new ScheduledThreadPoolExecutor(1, new SimpleThreadFactory());
+    timer.setRemoveOnCancelPolicy(true); // 취소된 작업이 큐에 남지 않도록 한다
+  }
+
+  private SharedTimer() {
+  }
+
+  /**
+   * 작업 예약
+   *
+   * @param task 실행할 작업
+   * @param delay 지연 시간
+   * @param unit 지연 시간 단위
+   * @return {@link ScheduledFuture} 예약 취소에 사용한다
+   * @since 1.2.0
+   */
+  public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+    return timer.schedule(() -> {
+      try {
+        task.run();
+      } catch (Throwable ex) {
+        LogUtil.logger().error("-http timer task failed: {}", ex);
+      }
+    }, Math.max(0, delay), unit);
+  }
+}
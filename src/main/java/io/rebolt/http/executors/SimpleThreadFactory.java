@@ -19,6 +19,7 @@ package io.rebolt.http.executors;
 import io.rebolt.core.exceptions.IllegalParameterException;
 
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 기본 제공하는 {@link ThreadFactory}
@@ -26,24 +27,37 @@ import java.util.concurrent.ThreadFactory;
  * @since 1.0
  */
 public class SimpleThreadFactory implements ThreadFactory {
+  private final String name;
   private final boolean daemon;
   private final int priority;
+  private final AtomicInteger sequence = new AtomicInteger();
 
   public SimpleThreadFactory() {
     this(true, Thread.NORM_PRIORITY); // default: 5
   }
 
   public SimpleThreadFactory(boolean daemon, int priority) {
+    this(null, daemon, priority);
+  }
+
+  /**
+   * @param name 스레드 이름 (name-1, name-2, ... 형태로 생성되며 null이면 JVM 기본 이름을 사용한다)
+   * @param daemon 데몬 스레드 여부
+   * @param priority 스레드 우선순위 (1 ~ 10)
+   * @since 1.2.0
+   */
+  public SimpleThreadFactory(String name, boolean daemon, int priority) {
     if (priority < Thread.MIN_PRIORITY || priority > Thread.MAX_PRIORITY) {
       throw new IllegalParameterException("-priority: " + priority + " (expected: 1 ~ 10)");
     }
+    this.name = name;
     this.daemon = daemon;
     this.priority = priority;
   }
 
   @Override
   public Thread newThread(Runnable runnable) {
-    Thread thread = new Thread(runnable);
+    Thread thread = name == null ? new Thread(runnable) : new Thread(runnable, name + "-" + sequence.incrementAndGet());
     try {
       if (thread.isDaemon()) {
         if (!daemon) {
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight
+ * <p>
+ * 같은 키의 작업이 진행중이면 새로 실행하지 않고 진행중인 작업(flight)의 결과를 함께 받는다.
+ * 작업이 끝나면 키는 바로 제거되므로 결과를 보관하지 않는다. (캐시가 아니다)
+ * <p>
+ * joinWindow가 지정되면 작업 시작 후 joinWindow가 지난 flight에는 합류하지 않고 새로 실행한다.
+ * 오래 걸리는 요청에 뒤늦게 합류해서 시작 시점이 한참 지난 결과를 받는 것을 막는다.
+ *
+ * @param <K> 키 클래스
+ * @param <V> 결과 클래스
+ * @since 1.2.0
+ */
+public final class SingleFlight<K, V> {
+  private final ConcurrentMap<K, Flight<V>> flights = Maps.newConcurrentMap();
+  private final LongAdder executed = new LongAdder();
+  private final LongAdder joined = new LongAdder();
+  private final @Getter long joinWindow; // 단위: millisecond, 0이면 작업이 끝날 때까지 합류
+  private final long joinWindowNanos;
+
+  public SingleFlight(long joinWindow) {
+    if (joinWindow < 0) {
+      throw new IllegalParameterException("-joinWindow: " + joinWindow + " (expected: 0 ~)");
+    }
+    this.joinWindow = joinWindow;
+    this.joinWindowNanos = TimeUnit.MILLISECONDS.toNanos(joinWindow);
+  }
+
+  /**
+   * 동기 실행. 같은 키의 flight가 없으면 호출 스레드에서 실행하고, 있으면 끝날 때까지 기다린다.
+   * <p>
+   * 실행한 작업이 던진 예외는 합류한 호출자에게도 그대로 전달된다.
+   *
+   * @param key 키
+   * @param task 작업
+   * @return 결과
+   * @since 1.2.0
+   */
+  public V call(K key, Supplier<V> task) {
+    Flight<V> flight = new Flight<>(System.nanoTime());
+    Flight<V> current = join(key, flight);
+    if (current != flight) {
+      try {
+        return current.future.join();
+      } catch (CompletionException e) {
+        throw unwrap(e);
+      }
+    }
+    return run(key, flight, task);
+  }
+
+  /**
+   * 동기 실행 (대기시간 제한). 같은 키의 flight가 없으면 호출 스레드에서 실행하고, 있으면 timeout까지만 기다린다.
+   * <p>
+   * 직접 실행하는 작업에는 timeout을 적용하지 않는다. 작업 자체의 제한시간은 작업에서 처리해야 한다.
+   *
+   * @param key 키
+   * @param task 작업
+   * @param timeout 합류한 flight를 기다리는 최대 시간
+   * @param unit timeout 단위
+   * @return 결과
+   * @throws TimeoutException timeout이 지나도록 flight가 끝나지 않은 경우 (flight는 계속 진행된다)
+   * @throws InterruptedException 기다리는 동안 인터럽트된 경우
+   * @since 1.2.0
+   */
+  public V call(K key, Supplier<V> task, long timeout, TimeUnit unit) throws TimeoutException, InterruptedException {
+    Flight<V> flight = new Flight<>(System.nanoTime());
+    Flight<V> current = join(key, flight);
+    if (current != flight) {
+      try {
+        return current.future.get(timeout, unit);
+      } catch (ExecutionException e) {
+        throw unwrap(new CompletionException(e.getCause()));
+      }
+    }
+    return run(key, flight, task);
+  }
+
+  private V run(K key, Flight<V> flight, Supplier<V> task) {
+    try {
+      V value = task.get();
+      flights.remove(key, flight);
+      flight.future.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      flights.remove(key, flight);
+      flight.future.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * 실행한 작업이 던진 예외
+   */
+  private static RuntimeException unwrap(CompletionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return cause instanceof RuntimeException ? (RuntimeException) cause : e;
+  }
+
+  /**
+   * 비동기 실행. 같은 키의 flight가 있으면 그 flight의 {@link CompletableFuture}를 반환한다.
+   * <p>
+   * 반환되는 {@link CompletableFuture}는 합류한 호출자가 모두 공유하므로 취소하거나 완료시키면 안 된다.
+   * 호출자별로 취소나 제한시간이 필요하면 별도의 {@link CompletableFuture}에 결과를 옮겨 담아서 사용한다.
+   *
+   * @param key 키
+   * @param task 작업을 시작하고 {@link CompletableFuture}를 반환하는 함수 (작업을 시작하지 못해 던진 예외는 합류한 호출자에게는 예외로 완료되어 전달된다)
+   * @return 공유되는 {@link CompletableFuture}
+   * @since 1.2.0
+   */
+  public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> task) {
+    Flight<V> flight = new Flight<>(System.nanoTime());
+    Flight<V> current = join(key, flight);
+    if (current != flight) {
+      return current.future;
+    }
+    try {
+      task.get().whenComplete((value, ex) -> {
+        flights.remove(key, flight);
+        if (ex != null) {
+          flight.future.completeExceptionally(ex);
+        } else {
+          flight.future.complete(value);
+        }
+      });
+    } catch (RuntimeException | Error e) {
+      flights.remove(key, flight);
+      flight.future.completeExceptionally(e);
+      throw e;
+    }
+    return flight.future;
+  }
+
+  private Flight<V> join(K key, Flight<V> flight) {
+    Flight<V> current = flights.merge(key, flight, (running, created) -> joinable(running, created) ? running : created);
+    if (current == flight) {
+      executed.increment();
+    } else {
+      joined.increment();
+    }
+    return current;
+  }
+
+  private boolean joinable(Flight<V> running, Flight<V> created) {
+    return joinWindowNanos == 0 || created.startedAt - running.startedAt <= joinWindowNanos;
+  }
+
+  /**
+   * 실제로 실행된 작업 수
+   *
+   * @since 1.2.0
+   */
+  public long getExecutedCount() {
+    return executed.sum();
+  }
+
+  /**
+   * 진행중인 작업에 합류한 호출 수
+   *
+   * @since 1.2.0
+   */
+  public long getJoinedCount() {
+    return joined.sum();
+  }
+
+  /**
+   * 진행중인 flight 수
+   *
+   * @since 1.2.0
+   */
+  public int getInFlight() {
+    return flights.size();
+  }
+
+  private static final class Flight<V> {
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    private final long startedAt;
+
+    private Flight(long startedAt) {
+      this.startedAt = startedAt;
+    }
+  }
+}
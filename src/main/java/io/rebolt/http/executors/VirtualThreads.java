@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * VirtualThreads
+ * <p>
+ * 가상 스레드(JDK 21~) 지원. Multi-Release jar로 배포되며, JDK 21 이상에서는
+ * META-INF/versions/21의 구현이 사용된다. 이 클래스는 Java 8 ~ 20에서 사용하는 구현이다.
+ * <p>
+ * JDK 21 없이 빌드해서 META-INF/versions/21이 없는 jar를 JDK 21 이상에서 실행하면, 이 클래스가 리플렉션으로 가상 스레드를 생성한다.
+ *
+ * @since 1.2.0
+ */
+public final class VirtualThreads {
+  private static final Method ofVirtual; // Thread.ofVirtual()
+  private static final Method name; // Thread.Builder.name(String, long)
+  private static final Method factory; // Thread.Builder.factory()
+  private static final Method newThreadPerTaskExecutor; // Executors.newThreadPerTaskExecutor(ThreadFactory)
+
+  static {
+    Method[] methods;
+    try {
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      methods = new Method[]{
+          Thread.class.getMethod("ofVirtual"),
+          builder.getMethod("name", String.class, long.class),
+          builder.getMethod("factory"),
+          Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)};
+    } catch (ReflectiveOperationException | LinkageError ex) {
+      methods = new Method[4]; // JDK 21 미만
+    }
+    ofVirtual = methods[0];
+    name = methods[1];
+    factory = methods[2];
+    newThreadPerTaskExecutor = methods[3];
+  }
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * 가상 스레드 사용 가능 여부
+   *
+   * @return JDK 21 이상이면 true
+   * @since 1.2.0
+   */
+  public static boolean isAvailable() {
+    return newThreadPerTaskExecutor != null;
+  }
+
+  /**
+   * 작업마다 가상 스레드를 생성하는 {@link ExecutorService}
+   *
+   * @param name 스레드 이름 (name-1, name-2, ... 형태로 생성된다)
+   * @return {@link ExecutorService}
+   * @throws UnsupportedOperationException JDK 21 미만인 경우
+   * @since 1.2.0
+   */
+  public static ExecutorService newThreadPerTaskExecutor(String name) {
+    if (!isAvailable()) {
+      throw new UnsupportedOperationException("Virtual threads require JDK 21 or later");
+    }
+    try {
+      Object builder = VirtualThreads.name.invoke(ofVirtual.invoke(null), name + "-", 1L);
+      return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory.invoke(builder));
+    } catch (ReflectiveOperationException ex) {
+      throw new UnsupportedOperationException("Virtual threads are not available", ex);
+    }
+  }
+}
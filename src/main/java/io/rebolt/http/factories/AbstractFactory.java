@@ -2,10 +2,26 @@ package io.rebolt.http.factories;
 
 import io.rebolt.core.exceptions.NotInitializedException;
 import io.rebolt.core.utils.ObjectUtil;
+import io.rebolt.http.HttpMethod;
+import io.rebolt.http.HttpRequest;
+import io.rebolt.http.HttpResponse;
 import io.rebolt.http.HttpStatus;
+import io.rebolt.http.cache.HttpCache;
+import io.rebolt.http.codecs.ContentCodec;
+import io.rebolt.http.codecs.ContentCodecs;
 import io.rebolt.http.converters.Converter;
 import io.rebolt.http.converters.ConverterTable;
 import io.rebolt.http.engines.AbstractEngine;
+import io.rebolt.http.engines.HedgePolicy;
+import io.rebolt.http.engines.RetryPolicy;
+import io.rebolt.http.exceptions.HttpException;
+import io.rebolt.http.executors.CircuitBreaker;
+import io.rebolt.http.executors.RateLimiter;
+import io.rebolt.http.executors.SingleFlight;
+
+import java.util.Objects;
+
+import static io.rebolt.http.HttpStatus.REQUEST_FAILED_499;
 
 /**
  * 클라이언트 팩토리
@@ -15,6 +31,9 @@ import io.rebolt.http.engines.AbstractEngine;
 public abstract class AbstractFactory {
 
   protected AbstractEngine engine;
+  protected HttpCache cache;
+  @SuppressWarnings("rawtypes")
+  protected SingleFlight<RequestKey, HttpResponse> coalescer;
 
   /**
    * 통신엔진 설정
@@ -82,6 +101,244 @@ public abstract class AbstractFactory {
     engine.setRetryCount(retryCount);
   }
 
+  /**
+   * 재시도 대기시간 설정. n번째 재시도는 0 ~ min(maxDelay, baseDelay * 2^n) 사이의 임의의 시간만큼 대기한다.
+   * 동기 요청은 대기시간 동안 호출 스레드가 대기하고, 비동기 요청은 스레드를 점유하지 않고 대기한다.
+   *
+   * @param baseDelay 대기시간 기준값 (단위: millisecond)
+   * @param maxDelay 대기시간 최대값 (단위: millisecond)
+   * @since 1.2.0
+   */
+  public void setRetryBackoff(int baseDelay, int maxDelay) {
+    ObjectUtil.requireNonNull(engine);
+    if (baseDelay < 0 || maxDelay < baseDelay) {
+      throw new NotInitializedException("baseDelay must be positive and maxDelay must be greater than baseDelay");
+    }
+    engine.setRetryBaseDelay(baseDelay);
+    engine.setRetryMaxDelay(maxDelay);
+  }
+
+  /**
+   * 재시도 정책 설정. 설정하면 retryStatus 대신 정책의 재시도 조건을 사용한다.
+   * 요청별 정책은 {@link HttpRequest#retryPolicy(RetryPolicy)}로 지정한다.
+   *
+   * @param retryPolicy {@link RetryPolicy} (null이면 retryStatus를 사용한다)
+   * @since 1.2.0
+   */
+  public void setRetryPolicy(RetryPolicy retryPolicy) {
+    ObjectUtil.requireNonNull(engine);
+    engine.setRetryPolicy(retryPolicy);
+  }
+
+  /**
+   * 커넥션풀 설정. 첫 요청 전에 설정해야 한다.
+   *
+   * @param maxIdleCount 최대 유휴 커넥션 수
+   * @param keepAliveDuration 유휴 커넥션 유지시간 (단위: millisecond)
+   * @since 1.2.0
+   */
+  public void setConnectionPool(int maxIdleCount, int keepAliveDuration) {
+    ObjectUtil.requireNonNull(engine);
+    if (maxIdleCount < 0 || keepAliveDuration < 1) {
+      throw new NotInitializedException("maxIdleCount must be positive and keepAliveDuration must be greater than 0");
+    }
+    engine.setConnectionPoolMaxIdleCount(maxIdleCount);
+    engine.setConnectionPoolKeepAliveDuration(keepAliveDuration);
+  }
+
+  /**
+   * 요청 deadline 전달 헤더 설정. 첫 요청 전에 설정해야 한다.
+   * <p>
+   * deadline({@link HttpRequest#deadline(long, java.util.concurrent.TimeUnit)})이 지정된 요청은 남은 시간(단위: millisecond)을 이 헤더로 전달한다.
+   *
+   * @param header 헤더 이름 (예: X-Request-Timeout, null이면 전달하지 않음)
+   * @since 1.2.0
+   */
+  public void setDeadlineHeader(String header) {
+    ObjectUtil.requireNonNull(engine);
+    engine.setDeadlineHeader(header);
+  }
+
+  /**
+   * 응답 압축 협상 설정. 첫 요청 전에 설정해야 한다.
+   * <p>
+   * 지정한 순서대로 Accept-Encoding을 보내고, 응답은 Content-Encoding에 맞게 스트림 단위로 풀어서 전달한다.
+   * gzip, deflate 외의 encoding(br, zstd 등)은 {@link ContentCodecs#register(ContentCodec)}로 코덱을 먼저 등록해야 한다.
+   *
+   * @param encodings Content-Encoding 토큰 목록 (예: {@link ContentCodecs#GZIP}, {@link ContentCodecs#DEFLATE})
+   * @since 1.2.0
+   */
+  public void setAcceptEncoding(String... encodings) {
+    ObjectUtil.requireNonNull(engine);
+    ObjectUtil.requireNonNull((Object[]) encodings);
+    for (String encoding : encodings) {
+      if (ContentCodecs.get(encoding) == null) {
+        throw new NotInitializedException("codec not registered: " + encoding);
+      }
+    }
+    engine.setAcceptEncoding(encodings.length == 0 ? null : String.join(", ", encodings));
+  }
+
+  /**
+   * 요청 본문 압축 설정. 첫 요청 전에 설정해야 한다.
+   * <p>
+   * 압축한 요청을 서버가 415로 거절하면 압축하지 않고 다시 보내고, 해당 호스트에는 한동안 압축하지 않는다.
+   *
+   * @param encoding Content-Encoding 토큰 (null이면 압축하지 않는다)
+   * @param threshold 압축하는 최소 크기 (단위: byte)
+   * @since 1.2.0
+   */
+  public void setRequestCompression(String encoding, int threshold) {
+    ObjectUtil.requireNonNull(engine);
+    if (encoding != null && ContentCodecs.get(encoding) == null) {
+      throw new NotInitializedException("codec not registered: " + encoding);
+    }
+    if (threshold < 0) {
+      throw new NotInitializedException("threshold must be positive");
+    }
+    engine.setRequestEncoding(encoding);
+    engine.setRequestCompressionThreshold(threshold);
+  }
+
+  /**
+   * 다른 팩토리와 커넥션풀(DNS, TLS 세션 포함)을 공유한다. 첫 요청 전에 설정해야 한다.
+   * <p>
+   * 같은 백엔드를 호출하는 팩토리가 여럿일 때 백엔드마다 커넥션을 따로 맺지 않는다.
+   * 타임아웃, 재시도와 같은 설정은 팩토리별로 유지된다.
+   *
+   * @param factory 커넥션풀을 공유할 팩토리
+   * @since 1.2.0
+   */
+  @SuppressWarnings("unchecked")
+  public void shareConnectionPool(AbstractFactory factory) {
+    ObjectUtil.requireNonNull(engine, factory);
+    engine.shareConnectionPool(factory.engine);
+  }
+
+  /**
+   * 헤징 설정. 멱등 요청({@link HttpRequest#isIdempotent()})이 호스트별 응답시간 백분위수보다 오래 걸리면
+   * 같은 요청을 한 번 더 보내고 먼저 도착한 응답을 사용한다. 현황은 {@link HedgePolicy#getStats()}로 확인한다.
+   *
+   * @param hedgePolicy {@link HedgePolicy} (null이면 사용하지 않음)
+   * @since 1.2.0
+   */
+  public void setHedgePolicy(HedgePolicy hedgePolicy) {
+    ObjectUtil.requireNonNull(engine);
+    engine.setHedgePolicy(hedgePolicy);
+  }
+
+  /**
+   * 서킷브레이커 설정. 회로가 열린 호스트로의 요청은 보내지 않고 496 (Circuit open)으로 즉시 실패한다.
+   * 동기 요청은 {@link HttpException}을 던지고, 비동기 요청은 496 {@link HttpResponse}로 완료된다.
+   *
+   * @param circuitBreaker {@link CircuitBreaker} (null이면 사용하지 않음)
+   * @since 1.2.0
+   */
+  public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+    ObjectUtil.requireNonNull(engine);
+    engine.setCircuitBreaker(circuitBreaker);
+  }
+
+  /**
+   * 요청 속도 제한 설정. 제한을 넘는 요청은 동기 요청이면 호출 스레드에서 기다리고, 비동기 요청이면 디스패치를 미룬다.
+   * 최대 대기시간보다 오래 기다려야 하는 요청은 495 (Rate limited)로 실패한다.
+   *
+   * @param rateLimiter {@link RateLimiter} (null이면 사용하지 않음)
+   * @since 1.2.0
+   */
+  public void setRateLimiter(RateLimiter rateLimiter) {
+    ObjectUtil.requireNonNull(engine);
+    engine.setRateLimiter(rateLimiter);
+  }
+
+  /**
+   * 응답 캐시 설정. 여러 팩토리가 같은 {@link HttpCache}를 공유할 수 있다.
+   *
+   * @param cache {@link HttpCache} (null이면 캐시를 사용하지 않는다)
+   * @since 1.2.0
+   */
+  public void setCache(HttpCache cache) {
+    this.cache = cache;
+  }
+
+  public HttpCache getCache() {
+    return cache;
+  }
+
+  /**
+   * 동일 요청 합치기(coalescing) 설정. 진행중인 요청이 끝날 때까지 합류한다.
+   *
+   * @param enabled 사용 여부
+   * @since 1.2.0
+   */
+  public void setCoalescing(boolean enabled) {
+    setCoalescing(enabled, 0);
+  }
+
+  /**
+   * 동일 요청 합치기(coalescing) 설정
+   * <p>
+   * 같은 GET, HEAD 요청(헤더, URI, 폼, 응답 클래스가 같은 요청)이 진행중이면 새로 보내지 않고
+   * 진행중인 요청의 응답을 함께 받는다. 합류한 호출자는 모두 같은 {@link HttpResponse} 객체를 받으므로 응답을 수정하면 안 된다.
+   * 스트리밍 요청({@link HttpRequest#stream()})은 합치지 않는다.
+   *
+   * @param enabled 사용 여부
+   * @param joinWindow 요청 시작 후 합류할 수 있는 시간 (단위: millisecond, 0이면 요청이 끝날 때까지)
+   * @since 1.2.0
+   */
+  public void setCoalescing(boolean enabled, long joinWindow) {
+    if (joinWindow < 0) {
+      throw new NotInitializedException("joinWindow must be positive");
+    }
+    this.coalescer = enabled ? new SingleFlight<>(joinWindow) : null;
+  }
+
+  /**
+   * 동일 요청 합치기 현황 (실행 수, 합류 수)
+   *
+   * @return {@link SingleFlight} (사용하지 않으면 null)
+   * @since 1.2.0
+   */
+  @SuppressWarnings("rawtypes")
+  public SingleFlight<RequestKey, HttpResponse> getCoalescer() {
+    return coalescer;
+  }
+
+  /**
+   * 합칠 수 있는 요청이면 키를 반환한다.
+   *
+   * @param request 실제로 보낼 요청객체
+   * @return {@link RequestKey} (합칠 수 없으면 null)
+   * @since 1.2.0
+   */
+  protected static RequestKey coalescingKey(HttpRequest request) {
+    if (request.isStream() || (request.getMethod() != HttpMethod.Get && request.getMethod() != HttpMethod.Head)) {
+      return null;
+    }
+    return new RequestKey(request);
+  }
+
+  /**
+   * stale-while-revalidate 백그라운드 재검증. 통신엔진의 비동기 디스패처에서 진행한다.
+   *
+   * @param httpCache {@link HttpCache}
+   * @param lookup 캐시 적중 결과
+   * @since 1.2.0
+   */
+  @SuppressWarnings("unchecked")
+  protected void refresh(HttpCache httpCache, HttpCache.Lookup lookup) {
+    HttpCache.Lookup refresh = lookup.getRefresh();
+    if (refresh == null) {
+      return;
+    }
+    HttpRequest request = refresh.getRequest();
+    try {
+      engine.invokeAsync(engine.makeRequest(request), engine.makeCallback(request, response -> httpCache.complete(refresh, response)));
+    } catch (RuntimeException e) {
+      httpCache.complete(refresh, new HttpResponse<>(new HttpException(REQUEST_FAILED_499, e.getMessage())));
+    }
+  }
+
   /**
    * 재시도 조건 추가
    *
@@ -106,4 +363,39 @@ public abstract class AbstractFactory {
     ConverterTable.add(requestType, responseType, converterType);
   }
 
+  /**
+   * 동일 요청 판별 키. deepHash가 같더라도 URI, 메소드, 응답 클래스가 다르면 다른 요청이다.
+   *
+   * @since 1.2.0
+   */
+  protected static final class RequestKey {
+    private final long hash;
+    private final String endpoint;
+    private final HttpMethod method;
+    private final Class<?> responseType;
+
+    private RequestKey(HttpRequest request) {
+      this.hash = request.deepHash();
+      this.endpoint = request.getEndpointUri();
+      this.method = request.getMethod();
+      this.responseType = request.getResponseType();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof RequestKey)) {
+        return false;
+      }
+      RequestKey key = (RequestKey) o;
+      return hash == key.hash && method == key.method && endpoint.equals(key.endpoint) && responseType == key.responseType;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(hash, endpoint);
+    }
+  }
 }
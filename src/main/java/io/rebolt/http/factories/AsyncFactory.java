@@ -1,12 +1,36 @@
 package io.rebolt.http.factories;
 
+import io.rebolt.core.exceptions.NotInitializedException;
 import io.rebolt.core.utils.ClassUtil;
+import io.rebolt.core.utils.LogUtil;
 import io.rebolt.core.utils.ObjectUtil;
 import io.rebolt.http.HttpCallback;
 import io.rebolt.http.HttpRequest;
 import io.rebolt.http.HttpResponse;
+import io.rebolt.http.HttpStream;
+import io.rebolt.http.cache.HttpCache;
 import io.rebolt.http.engines.AbstractEngine;
 import io.rebolt.http.engines.OkHttp3Engine;
+import io.rebolt.http.exceptions.HttpException;
+import io.rebolt.http.executors.AdaptiveLimiter;
+import io.rebolt.http.executors.DispatchGate;
+import io.rebolt.http.executors.ExecutorType;
+import io.rebolt.http.executors.OverflowPolicy;
+import io.rebolt.http.executors.SharedTimer;
+import io.rebolt.http.executors.SimpleThreadFactory;
+import io.rebolt.http.executors.SingleFlight;
+import io.rebolt.http.executors.VirtualThreads;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.rebolt.http.HttpStatus.DEADLINE_EXCEEDED_494;
+import static io.rebolt.http.HttpStatus.REQUEST_FAILED_499;
+import static io.rebolt.http.HttpStatus.REQUEST_TIMEOUT_408;
 
 /**
  * 비동기패턴 클라이언트 팩토리
@@ -15,6 +39,11 @@ import io.rebolt.http.engines.OkHttp3Engine;
  */
 public final class AsyncFactory extends AbstractFactory {
 
+  /**
+   * {@link CompletableFuture}를 완료시키는 {@link Executor}. null이면 응답을 받은 디스패처 스레드에서 완료한다.
+   */
+  private Executor completionExecutor;
+
   public AsyncFactory() {
     super.setEngine(ClassUtil.newInstance(OkHttp3Engine.class));
   }
@@ -41,6 +70,145 @@ public final class AsyncFactory extends AbstractFactory {
     engine.setThreadIdleTime(threadIdleTime);
   }
 
+  /**
+   * 스레드풀 종류. 첫 요청 전에 설정해야 한다.
+   * {@link ExecutorType#Virtual}을 사용할 수 없는 JDK(21 미만)이면 경고를 남기고 {@link ExecutorType#LinkedBlocking}을 사용한다.
+   *
+   * @param executorType {@link ExecutorType} (기본값: {@link ExecutorType#LinkedBlocking})
+   * @since 1.2.0
+   */
+  public void setExecutorType(ExecutorType executorType) {
+    ObjectUtil.requireNonNull(executorType);
+    if (executorType == ExecutorType.Virtual && !VirtualThreads.isAvailable()) {
+      LogUtil.logger().warn("-http virtual threads are not available, java: {}, fallback: {}", System.getProperty("java.version"), ExecutorType.LinkedBlocking);
+    }
+    engine.setExecutorType(executorType);
+  }
+
+  /**
+   * 스레드풀의 스레드 설정. 첫 요청 전에 설정해야 한다.
+   *
+   * @param threadName 스레드 이름 (null이면 JVM 기본 이름)
+   * @param daemon 데몬 스레드 여부 (기본값: true)
+   * @param priority 스레드 우선순위 (기본값: 5)
+   * @since 1.2.0
+   */
+  public void setThreadFactory(String threadName, boolean daemon, int priority) {
+    engine.setThreadFactory(new SimpleThreadFactory(threadName, daemon, priority));
+  }
+
+  /**
+   * 전체 최대 동시 요청수. 첫 요청 전에 설정해야 한다.
+   *
+   * @param maxRequests 최대 동시 요청수 (기본값: 64)
+   * @since 1.2.0
+   */
+  public void setMaxRequests(int maxRequests) {
+    if (maxRequests < 1) {
+      throw new NotInitializedException("maxRequests must be greater than 0");
+    }
+    engine.setMaxRequests(maxRequests);
+  }
+
+  /**
+   * 호스트별 최대 동시 요청수의 기본값. 실행중에도 변경할 수 있다.
+   *
+   * @param maxRequestsPerHost 호스트별 최대 동시 요청수 (기본값: 64)
+   * @since 1.2.0
+   */
+  public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+    if (maxRequestsPerHost < 1) {
+      throw new NotInitializedException("maxRequestsPerHost must be greater than 0");
+    }
+    engine.setMaxRequestsPerHost(maxRequestsPerHost);
+  }
+
+  /**
+   * 특정 호스트의 최대 동시 요청수. 실행중에도 변경할 수 있다.
+   *
+   * @param host 호스트 (예: api.rebolt.io)
+   * @param maxRequests 최대 동시 요청수 (0 이하이면 기본값을 사용한다)
+   * @since 1.2.0
+   */
+  public void setMaxRequestsPerHost(String host, int maxRequests) {
+    ObjectUtil.requireNonNull(host);
+    engine.setMaxRequestsPerHost(host, maxRequests);
+  }
+
+  /**
+   * 대기큐 크기. {@link #setOverflowPolicy(OverflowPolicy)}를 설정한 경우에 사용하며, 첫 요청 전에 설정해야 한다.
+   *
+   * @param requestQueueSize 대기큐 크기 (기본값: 0)
+   * @since 1.2.0
+   */
+  public void setRequestQueueSize(int requestQueueSize) {
+    if (requestQueueSize < 0) {
+      throw new NotInitializedException("requestQueueSize must be positive");
+    }
+    engine.setRequestQueueSize(requestQueueSize);
+  }
+
+  /**
+   * 동시 요청수와 대기큐가 모두 가득 찼을 때의 처리 정책. 첫 요청 전에 설정해야 한다.
+   * <p>
+   * 거절되거나 대기큐에서 버려진 요청은 497 (Request rejected) {@link HttpResponse}로 완료된다.
+   *
+   * @param overflowPolicy {@link OverflowPolicy} (null이면 대기큐 크기를 제한하지 않음)
+   * @since 1.2.0
+   */
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    engine.setOverflowPolicy(overflowPolicy);
+  }
+
+  /**
+   * 동시 요청수와 대기큐가 모두 가득 찼을 때의 처리 정책. 첫 요청 전에 설정해야 한다.
+   *
+   * @param overflowPolicy {@link OverflowPolicy}
+   * @param overflowTimeout {@link OverflowPolicy#Block}의 최대 대기시간 (단위: millisecond)
+   * @since 1.2.0
+   */
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy, int overflowTimeout) {
+    if (overflowTimeout < 0) {
+      throw new NotInitializedException("overflowTimeout must be positive");
+    }
+    engine.setOverflowPolicy(overflowPolicy);
+    engine.setOverflowTimeout(overflowTimeout);
+  }
+
+  /**
+   * 응답시간에 따라 호스트별 동시 요청수를 자동으로 조정한다. limit을 넘는 요청은 대기하지 않고
+   * 498 (Limit exceeded) {@link HttpResponse}로 즉시 완료된다.
+   *
+   * @param adaptiveLimiter {@link AdaptiveLimiter} (null이면 사용하지 않음)
+   * @since 1.2.0
+   */
+  public void setAdaptiveLimiter(AdaptiveLimiter adaptiveLimiter) {
+    engine.setAdaptiveLimiter(adaptiveLimiter);
+  }
+
+  /**
+   * 호스트별 대기, 진행중인 요청 현황
+   *
+   * @return 키: 호스트, 값: {@link DispatchGate.HostStats}
+   * @since 1.2.0
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, DispatchGate.HostStats> getHostStats() {
+    return engine.getHostStats();
+  }
+
+  /**
+   * {@link #invokeAsync(HttpRequest)}가 반환한 {@link CompletableFuture}를 완료시킬 {@link Executor}
+   * <p>
+   * 설정하지 않으면 디스패처 스레드에서 완료되므로, 후속 작업이 무겁다면 별도의 {@link Executor}를 지정한다.
+   *
+   * @param completionExecutor {@link Executor}
+   * @since 1.2.0
+   */
+  public void setCompletionExecutor(Executor completionExecutor) {
+    this.completionExecutor = completionExecutor;
+  }
+
   /**
    * 비동기요청
    *
@@ -53,7 +221,189 @@ public final class AsyncFactory extends AbstractFactory {
   @SuppressWarnings("unchecked")
   public <R, E> void invoke(HttpRequest request, HttpCallback<R, E> callback) {
     ObjectUtil.requireNonNull(engine);
+    HttpCache httpCache = cache;
+    HttpCache.Lookup lookup = null;
+    if (httpCache != null) {
+      lookup = httpCache.lookup(request);
+      if (lookup.isHit()) {
+        refresh(httpCache, lookup);
+        callback.onReceive(lookup.getResponse());
+        return;
+      }
+      request = lookup.getRequest();
+    }
+    CompletableFuture<HttpResponse<R, E>> shared = coalesce(request, httpCache, lookup);
+    if (shared != null) {
+      shared.thenAccept(callback::onReceive);
+      return;
+    }
+    if (lookup != null) {
+      callback = withCache(httpCache, lookup, callback);
+    }
     engine.invokeAsync(engine.makeRequest(request), engine.makeCallback(request, callback));
   }
 
+  /**
+   * 비동기요청. 대기큐가 가득 차면 {@link OverflowPolicy}와 관계없이 요청하지 않고 false를 반환한다.
+   * 요청 여부를 호출자마다 알려야 하므로 동일 요청 합치기는 적용하지 않는다.
+   *
+   * @param request 요청객체
+   * @param callback 콜백 {@link HttpCallback}
+   * @param <R> 콜백 클래스 (내부에 응답 클래스 포함 : {@link HttpResponse})
+   * @param <E> 에러 클래스
+   * @return 요청 여부 (false이면 callback은 호출되지 않는다)
+   * @since 1.2.0
+   */
+  @SuppressWarnings("unchecked")
+  public <R, E> boolean tryInvoke(HttpRequest request, HttpCallback<R, E> callback) {
+    ObjectUtil.requireNonNull(engine);
+    HttpCache httpCache = cache;
+    if (httpCache != null) {
+      HttpCache.Lookup lookup = httpCache.lookup(request);
+      if (lookup.isHit()) {
+        refresh(httpCache, lookup);
+        callback.onReceive(lookup.getResponse());
+        return true;
+      }
+      request = lookup.getRequest();
+      callback = withCache(httpCache, lookup, callback);
+    }
+    return engine.tryInvokeAsync(engine.makeRequest(request), engine.makeCallback(request, callback));
+  }
+
+  /**
+   * 비동기요청 ({@link CompletableFuture})
+   * <p>
+   * 반환된 {@link CompletableFuture}를 취소하면 진행중인 요청과 예약된 재시도도 함께 취소된다.
+   *
+   * @param request 요청객체
+   * @param <R> 응답 클래스
+   * @param <E> 에러 클래스
+   * @return {@link CompletableFuture}
+   * @since 1.2.0
+   */
+  public <R, E> CompletableFuture<HttpResponse<R, E>> invokeAsync(HttpRequest request) {
+    return invokeAsync(request, 0, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 비동기요청 ({@link CompletableFuture}, 제한시간 포함)
+   * <p>
+   * 제한시간 안에 응답을 받지 못하면 요청을 취소하고 408 (Request timeout) {@link HttpResponse}로 완료한다.
+   *
+   * @param request 요청객체
+   * @param timeout 제한시간 (0 이하이면 제한 없음)
+   * @param unit 제한시간 단위
+   * @param <R> 응답 클래스
+   * @param <E> 에러 클래스
+   * @return {@link CompletableFuture}
+   * @since 1.2.0
+   */
+  @SuppressWarnings("unchecked")
+  public <R, E> CompletableFuture<HttpResponse<R, E>> invokeAsync(HttpRequest request, long timeout, TimeUnit unit) {
+    ObjectUtil.requireNonNull(engine, request);
+    CompletableFuture<HttpResponse<R, E>> future = new CompletableFuture<>();
+    HttpCallback<R, E> httpCallback = response -> complete(future, response, completionExecutor, null);
+    HttpCache httpCache = cache;
+    HttpCache.Lookup lookup = null;
+    if (httpCache != null) {
+      lookup = httpCache.lookup(request);
+      if (lookup.isHit()) {
+        refresh(httpCache, lookup);
+        complete(future, lookup.getResponse(), completionExecutor, null);
+        return future;
+      }
+      request = lookup.getRequest();
+    }
+    CompletableFuture<HttpResponse<R, E>> shared = coalesce(request, httpCache, lookup);
+    if (shared != null) {
+      // 합쳐진 요청은 다른 호출자와 공유되므로 취소하거나 제한시간이 지나도 요청은 계속 진행된다
+      shared.thenAccept(httpCallback::onReceive);
+      if (timeout > 0) {
+        ScheduledFuture<?> deadline = SharedTimer.schedule(() -> complete(future, new HttpResponse<>(new HttpException(REQUEST_TIMEOUT_408, "Deadline exceeded")),
+            completionExecutor != null ? completionExecutor : ForkJoinPool.commonPool(), null), timeout, unit);
+        future.whenComplete((response, ex) -> deadline.cancel(false));
+      }
+      if (request.hasDeadline()) {
+        // 합류한 호출자는 자신의 deadline까지만 기다린다
+        ScheduledFuture<?> deadline = SharedTimer.schedule(() -> complete(future, new HttpResponse<>(new HttpException(DEADLINE_EXCEEDED_494, "Deadline exceeded")),
+            completionExecutor != null ? completionExecutor : ForkJoinPool.commonPool(), null), Math.max(0, request.getRemainingTime()), TimeUnit.MILLISECONDS);
+        future.whenComplete((response, ex) -> deadline.cancel(false));
+      }
+      return future;
+    }
+    if (lookup != null) {
+      httpCallback = withCache(httpCache, lookup, httpCallback);
+    }
+    Object callback = engine.makeCallback(request, httpCallback);
+    future.whenComplete((response, ex) -> {
+      if (future.isCancelled()) {
+        engine.cancel(callback);
+      }
+    });
+    if (timeout > 0) {
+      // 타이머 스레드에서 후속 작업이 실행되지 않도록 한다
+      ScheduledFuture<?> deadline = SharedTimer.schedule(() -> complete(future, new HttpResponse<>(new HttpException(REQUEST_TIMEOUT_408, "Deadline exceeded")),
+          completionExecutor != null ? completionExecutor : ForkJoinPool.commonPool(), () -> engine.cancel(callback)), timeout, unit);
+      future.whenComplete((response, ex) -> deadline.cancel(false));
+    }
+    engine.invokeAsync(engine.makeRequest(request), callback);
+    return future;
+  }
+
+  /**
+   * 동일 요청 합치기. 같은 요청이 진행중이면 합류하고, 없으면 요청을 시작한다.
+   * 캐시 반영은 실제로 요청한 호출자만 한다.
+   *
+   * @return 공유되는 {@link CompletableFuture} (합칠 수 없으면 null)
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private <R, E> CompletableFuture<HttpResponse<R, E>> coalesce(HttpRequest request, HttpCache httpCache, HttpCache.Lookup lookup) {
+    SingleFlight<RequestKey, HttpResponse> flight = coalescer;
+    RequestKey key = flight == null ? null : coalescingKey(request);
+    if (key == null) {
+      return null;
+    }
+    CompletableFuture<HttpResponse<R, E>> shared = new CompletableFuture<>();
+    CompletableFuture<HttpResponse> current = flight.execute(key, () -> {
+      CompletableFuture<HttpResponse> network = new CompletableFuture<>();
+      HttpCallback<R, E> leader = network::complete;
+      if (lookup != null) {
+        leader = withCache(httpCache, lookup, leader);
+      }
+      engine.invokeAsync(engine.makeRequest(request), engine.makeCallback(request, leader));
+      return network;
+    });
+    current.whenComplete((response, ex) -> shared.complete(ex == null ? response : new HttpResponse<>(new HttpException(REQUEST_FAILED_499, ex.getMessage()))));
+    return shared;
+  }
+
+  private static <R, E> HttpCallback<R, E> withCache(HttpCache httpCache, HttpCache.Lookup lookup, HttpCallback<R, E> callback) {
+    return response -> callback.onReceive(httpCache.complete(lookup, response));
+  }
+
+  /**
+   * {@link CompletableFuture} 완료. executor가 있으면 완료 여부도 executor에서 판단하므로, 먼저 도착한 응답만 전달된다.
+   * 전달되지 못한 응답의 {@link HttpStream}은 닫아서 커넥션을 반납한다.
+   *
+   * @param onComplete 이 응답으로 완료되었을 때 실행할 작업 (없으면 null)
+   */
+  private static <R, E> void complete(CompletableFuture<HttpResponse<R, E>> future, HttpResponse<R, E> response, Executor executor, Runnable onComplete) {
+    if (executor == null) {
+      completeOrClose(future, response, onComplete);
+      return;
+    }
+    executor.execute(() -> completeOrClose(future, response, onComplete));
+  }
+
+  private static <R, E> void completeOrClose(CompletableFuture<HttpResponse<R, E>> future, HttpResponse<R, E> response, Runnable onComplete) {
+    if (future.complete(response)) {
+      if (onComplete != null) {
+        onComplete.run();
+      }
+    } else if (response.getBody() instanceof HttpStream) {
+      ((HttpStream) response.getBody()).close(); // 제한시간이 지났거나 취소된 요청
+    }
+  }
+
 }
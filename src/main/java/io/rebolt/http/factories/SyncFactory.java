@@ -1,14 +1,29 @@
 package io.rebolt.http.factories;
 
 import io.rebolt.core.utils.ClassUtil;
+import io.rebolt.core.utils.LogUtil;
 import io.rebolt.core.utils.ObjectUtil;
 import io.rebolt.http.HttpRequest;
 import io.rebolt.http.HttpResponse;
+import io.rebolt.http.cache.HttpCache;
 import io.rebolt.http.engines.AbstractEngine;
 import io.rebolt.http.engines.OkHttp3Engine;
+import io.rebolt.http.exceptions.HttpException;
+import io.rebolt.http.executors.SingleFlight;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.rebolt.http.HttpStatus.DEADLINE_EXCEEDED_494;
+import static io.rebolt.http.HttpStatus.REQUEST_FAILED_499;
 
 /**
  * 클라이언트 팩토리 (Sync)
+ * <p>
+ * JDK 21 이상에서 가상 스레드에서 호출할 수 있다. 통신엔진의 클라이언트 생성은 synchronized 대신 락을 사용하므로
+ * 요청을 기다리는 동안 캐리어 스레드를 점유하지 않는다. 단, {@link io.rebolt.http.engines.HedgePolicy},
+ * {@link io.rebolt.http.executors.DispatchGate}, {@link io.rebolt.http.executors.AdaptiveLimiter}와 OkHttp 내부에는
+ * 짧은 synchronized 구간이 있어 그 구간에서는 캐리어 스레드에 고정(pinning)될 수 있다. (JDK 24부터는 고정되지 않는다)
  *
  * @since 1.0.0
  */
@@ -22,9 +37,51 @@ public final class SyncFactory extends AbstractFactory {
     super.setEngine(ClassUtil.newInstance(engineClass));
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * 동기요청. {@link HttpCache}가 설정되어 있으면 캐시를 먼저 조회하고,
+   * 동일 요청 합치기가 설정되어 있으면 진행중인 같은 요청의 응답을 함께 받는다.
+   *
+   * @param httpRequest 요청객체
+   * @param <R> 응답 클래스
+   * @param <E> 에러 클래스
+   * @return {@link HttpResponse}
+   */
   public <R, E> HttpResponse<R, E> invoke(HttpRequest httpRequest) {
     ObjectUtil.requireNonNull(engine);
-    return (HttpResponse<R, E>) engine.makeResponse(httpRequest, engine.invoke(engine.makeRequest(httpRequest)));
+    HttpCache httpCache = cache;
+    if (httpCache == null) {
+      return invokeCoalesced(httpRequest, null, null);
+    }
+    HttpCache.Lookup lookup = httpCache.lookup(httpRequest);
+    if (lookup.isHit()) {
+      refresh(httpCache, lookup);
+      return lookup.getResponse();
+    }
+    return invokeCoalesced(lookup.getRequest(), httpCache, lookup);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private <R, E> HttpResponse<R, E> invokeCoalesced(HttpRequest httpRequest, HttpCache httpCache, HttpCache.Lookup lookup) {
+    SingleFlight<RequestKey, HttpResponse> flight = coalescer;
+    RequestKey key = flight == null ? null : coalescingKey(httpRequest);
+    if (key == null) {
+      return invokeInternal(httpRequest, httpCache, lookup);
+    }
+    // 캐시 반영은 실제로 요청한 호출자만 한다. 합류한 호출자는 자신의 deadline까지만 기다린다
+    try {
+      return flight.call(key, () -> invokeInternal(httpRequest, httpCache, lookup), httpRequest.getRemainingTime(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      LogUtil.logger().warn("-http deadline exceeded while waiting for coalesced request: {}", httpRequest.getEndpointUri());
+      throw new HttpException(DEADLINE_EXCEEDED_494, "Deadline exceeded");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HttpException(REQUEST_FAILED_499, "Coalesced request interrupted");
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <R, E> HttpResponse<R, E> invokeInternal(HttpRequest httpRequest, HttpCache httpCache, HttpCache.Lookup lookup) {
+    HttpResponse<R, E> response = (HttpResponse<R, E>) engine.makeResponse(httpRequest, engine.invoke(engine.makeRequest(httpRequest)));
+    return httpCache == null ? response : httpCache.complete(lookup, response);
   }
 }
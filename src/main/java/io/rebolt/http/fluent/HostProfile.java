@@ -0,0 +1,166 @@
+package io.rebolt.http.fluent;
+
+import io.rebolt.http.HttpStatus;
+import io.rebolt.http.engines.RetryPolicy;
+import io.rebolt.http.factories.SyncFactory;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * {@link ReboltHttp}에서 호스트별로 적용하는 설정
+ * <p>
+ * 설정하지 않은 항목은 통신엔진의 기본값을 사용한다.
+ * 커넥션풀을 설정한 호스트는 전용 커넥션풀을 사용하고, 그 외의 호스트는 하나의 커넥션풀을 공유한다.
+ *
+ * @since 1.2.0
+ */
+@ToString
+@Getter
+public final class HostProfile {
+  private final Integer connectionTimeout;
+  private final Integer readTimeout;
+  private final Integer writeTimeout;
+  private final Integer retryCount;
+  private final Integer retryBaseDelay;
+  private final Integer retryMaxDelay;
+  private final HttpStatus[] retryStatuses;
+  private final RetryPolicy retryPolicy;
+  private final Integer connectionPoolMaxIdleCount;
+  private final Integer connectionPoolKeepAliveDuration;
+
+  private HostProfile(Builder builder) {
+    this.connectionTimeout = builder.connectionTimeout;
+    this.readTimeout = builder.readTimeout;
+    this.writeTimeout = builder.writeTimeout;
+    this.retryCount = builder.retryCount;
+    this.retryBaseDelay = builder.retryBaseDelay;
+    this.retryMaxDelay = builder.retryMaxDelay;
+    this.retryStatuses = builder.retryStatuses;
+    this.retryPolicy = builder.retryPolicy;
+    this.connectionPoolMaxIdleCount = builder.connectionPoolMaxIdleCount;
+    this.connectionPoolKeepAliveDuration = builder.connectionPoolKeepAliveDuration;
+  }
+
+  /**
+   * 전용 커넥션풀 사용 여부
+   */
+  public boolean hasConnectionPool() {
+    return connectionPoolMaxIdleCount != null;
+  }
+
+  /**
+   * {@link SyncFactory}에 설정 적용
+   */
+  void apply(SyncFactory factory) {
+    if (connectionTimeout != null) {
+      factory.setConnectionTimeout(connectionTimeout);
+    }
+    if (readTimeout != null) {
+      factory.setReadTimeout(readTimeout);
+    }
+    if (writeTimeout != null) {
+      factory.setWriteTimeout(writeTimeout);
+    }
+    if (retryCount != null) {
+      factory.setRetryCount(retryCount);
+    }
+    if (retryBaseDelay != null) {
+      factory.setRetryBackoff(retryBaseDelay, retryMaxDelay);
+    }
+    if (retryStatuses != null) {
+      factory.addRetryStatus(retryStatuses);
+    }
+    if (retryPolicy != null) {
+      factory.setRetryPolicy(retryPolicy);
+    }
+    if (connectionPoolMaxIdleCount != null) {
+      factory.setConnectionPool(connectionPoolMaxIdleCount, connectionPoolKeepAliveDuration);
+    }
+  }
+
+  /**
+   * {@link HostProfile} Builder
+   */
+  public static final class Builder {
+    private Integer connectionTimeout;
+    private Integer readTimeout;
+    private Integer writeTimeout;
+    private Integer retryCount;
+    private Integer retryBaseDelay;
+    private Integer retryMaxDelay;
+    private HttpStatus[] retryStatuses;
+    private RetryPolicy retryPolicy;
+    private Integer connectionPoolMaxIdleCount;
+    private Integer connectionPoolKeepAliveDuration;
+
+    /**
+     * 커넥션 타임아웃 (단위: millisecond)
+     */
+    public Builder setConnectionTimeout(int connectionTimeout) {
+      this.connectionTimeout = connectionTimeout;
+      return this;
+    }
+
+    /**
+     * 수신 타임아웃 (단위: millisecond)
+     */
+    public Builder setReadTimeout(int readTimeout) {
+      this.readTimeout = readTimeout;
+      return this;
+    }
+
+    /**
+     * 송신 타임아웃 (단위: millisecond)
+     */
+    public Builder setWriteTimeout(int writeTimeout) {
+      this.writeTimeout = writeTimeout;
+      return this;
+    }
+
+    /**
+     * 재시도 횟수
+     */
+    public Builder setRetryCount(int retryCount) {
+      this.retryCount = retryCount;
+      return this;
+    }
+
+    /**
+     * 재시도 대기시간 (단위: millisecond)
+     */
+    public Builder setRetryBackoff(int baseDelay, int maxDelay) {
+      this.retryBaseDelay = baseDelay;
+      this.retryMaxDelay = maxDelay;
+      return this;
+    }
+
+    /**
+     * 기본 재시도 조건에 추가할 {@link HttpStatus}
+     */
+    public Builder setRetryStatus(HttpStatus... retryStatuses) {
+      this.retryStatuses = retryStatuses;
+      return this;
+    }
+
+    /**
+     * 재시도 정책 (설정하면 retryStatus 대신 사용한다)
+     */
+    public Builder setRetryPolicy(RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    /**
+     * 전용 커넥션풀 (단위: millisecond)
+     */
+    public Builder setConnectionPool(int maxIdleCount, int keepAliveDuration) {
+      this.connectionPoolMaxIdleCount = maxIdleCount;
+      this.connectionPoolKeepAliveDuration = keepAliveDuration;
+      return this;
+    }
+
+    public HostProfile build() {
+      return new HostProfile(this);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package io.rebolt.http.fluent;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
+import io.rebolt.core.exceptions.IllegalParameterException;
+import io.rebolt.core.utils.ObjectUtil;
+import io.rebolt.http.cache.HttpCache;
+import io.rebolt.http.factories.SyncFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReboltHttp}가 호스트별로 사용하는 {@link SyncFactory} 저장소
+ * <p>
+ * 호스트마다 {@link HostProfile}을 적용한 {@link SyncFactory}를 한 번만 생성하며, 모든 {@link SyncFactory}는
+ * 하나의 커넥션풀을 공유한다. (전용 커넥션풀을 설정한 호스트 제외)
+ * 일정시간 사용하지 않은 호스트와 최대 호스트 수를 넘는 호스트는 저장소에서 제거된다.
+ *
+ * @since 1.2.0
+ */
+public final class HostRegistry {
+  private static final String WILDCARD = "*.";
+
+  private final Map<String, HostProfile> profiles = Maps.newConcurrentMap();
+  private final SyncFactory core = new SyncFactory();
+  private final LoadingCache<String, SyncFactory> factories;
+  private volatile HostProfile defaultProfile = new HostProfile.Builder().build();
+  private volatile HttpCache cache;
+
+  /**
+   * 최대 호스트 수 256, 유휴시간 10분
+   */
+  public HostRegistry() {
+    this(256, TimeUnit.MINUTES.toMillis(10));
+  }
+
+  /**
+   * @param maxHosts 최대 호스트 수
+   * @param idleTimeout 사용하지 않은 호스트를 제거하는 시간 (단위: millisecond)
+   */
+  public HostRegistry(int maxHosts, long idleTimeout) {
+    if (maxHosts < 1 || idleTimeout < 1) {
+      throw new IllegalParameterException("-maxHosts: " + maxHosts + ", idleTimeout: " + idleTimeout);
+    }
+    this.factories = CacheBuilder.newBuilder()
+        .maximumSize(maxHosts)
+        .expireAfterAccess(idleTimeout, TimeUnit.MILLISECONDS)
+        .build(CacheLoader.from(this::create));
+  }
+
+  /**
+   * 호스트의 {@link SyncFactory}. 처음 요청한 호스트는 {@link HostProfile}을 적용해 생성한다.
+   *
+   * @param host 호스트
+   * @return {@link SyncFactory}
+   */
+  public SyncFactory get(String host) {
+    ObjectUtil.requireNonNull(host);
+    return factories.getUnchecked(host);
+  }
+
+  /**
+   * 호스트별 설정 등록. 이미 생성된 {@link SyncFactory}는 다음 요청부터 새 설정으로 다시 생성된다.
+   *
+   * @param host 호스트 (예: api.rebolt.io, *.rebolt.io)
+   * @param profile {@link HostProfile}
+   */
+  public void setProfile(String host, HostProfile profile) {
+    ObjectUtil.requireNonNull(host, profile);
+    profiles.put(host, profile);
+    factories.invalidateAll();
+  }
+
+  /**
+   * 등록된 설정이 없는 호스트에 적용하는 설정
+   *
+   * @param profile {@link HostProfile}
+   */
+  public void setDefaultProfile(HostProfile profile) {
+    ObjectUtil.requireNonNull(profile);
+    this.defaultProfile = profile;
+    factories.invalidateAll();
+  }
+
+  /**
+   * 공유 커넥션풀 설정. 첫 요청 전에 설정해야 한다.
+   *
+   * @param maxIdleCount 최대 유휴 커넥션 수
+   * @param keepAliveDuration 유휴 커넥션 유지시간 (단위: millisecond)
+   */
+  public void setConnectionPool(int maxIdleCount, int keepAliveDuration) {
+    core.setConnectionPool(maxIdleCount, keepAliveDuration);
+  }
+
+  /**
+   * 모든 호스트가 공유하는 응답 캐시 설정
+   *
+   * @param cache {@link HttpCache} (null이면 캐시를 사용하지 않는다)
+   */
+  public void setCache(HttpCache cache) {
+    this.cache = cache;
+    factories.asMap().values().forEach(factory -> factory.setCache(cache));
+  }
+
+  /**
+   * 호스트에 적용되는 설정. 호스트, 와일드카드(*.rebolt.io), 기본 설정 순서로 찾는다.
+   *
+   * @param host 호스트
+   * @return {@link HostProfile}
+   */
+  public HostProfile getProfile(String host) {
+    HostProfile profile = profiles.get(host);
+    for (int index = host.indexOf('.'); profile == null && index >= 0; index = host.indexOf('.', index + 1)) {
+      profile = profiles.get(WILDCARD + host.substring(index + 1));
+    }
+    return profile != null ? profile : defaultProfile;
+  }
+
+  /**
+   * 저장된 호스트 수
+   */
+  public long size() {
+    factories.cleanUp();
+    return factories.size();
+  }
+
+  private SyncFactory create(String host) {
+    HostProfile profile = getProfile(host);
+    SyncFactory factory = new SyncFactory();
+    if (!profile.hasConnectionPool()) {
+      factory.shareConnectionPool(core);
+    }
+    profile.apply(factory);
+    factory.setCache(cache);
+    return factory;
+  }
+}
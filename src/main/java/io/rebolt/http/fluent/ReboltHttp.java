@@ -1,7 +1,6 @@
 package io.rebolt.http.fluent;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.google.common.collect.Maps;
 import io.rebolt.core.exceptions.IllegalParameterException;
 import io.rebolt.core.exceptions.NotInitializedException;
 import io.rebolt.core.exceptions.NullPointerException;
@@ -17,7 +16,6 @@ import io.rebolt.http.factories.SyncFactory;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
-import java.util.Map;
 
 import static io.rebolt.core.constants.Constants.STRING_AND;
 import static io.rebolt.core.constants.Constants.STRING_QUESTION;
@@ -32,9 +30,9 @@ import static io.rebolt.http.HttpMethod.*;
 public final class ReboltHttp<T> {
 
   /**
-   * 키: host 값: {@link SyncFactory}
+   * 호스트별 {@link SyncFactory} 저장소
    */
-  private static Map<String, SyncFactory> syncMap = Maps.newConcurrentMap();
+  private static volatile HostRegistry registry = new HostRegistry();
 
   private final Class<T> responseType;
   private final HttpMethod method;
@@ -93,6 +91,31 @@ public final class ReboltHttp<T> {
 
   // endregion
 
+  // region registry
+
+  /**
+   * 호스트별 {@link SyncFactory} 저장소. {@link HostProfile} 등록에 사용한다.
+   *
+   * @return {@link HostRegistry}
+   * @since 1.2.0
+   */
+  public static HostRegistry registry() {
+    return registry;
+  }
+
+  /**
+   * 저장소 교체 (최대 호스트 수, 유휴시간 변경)
+   *
+   * @param hostRegistry {@link HostRegistry}
+   * @since 1.2.0
+   */
+  public static void registry(HostRegistry hostRegistry) {
+    ObjectUtil.requireNonNull(hostRegistry);
+    registry = hostRegistry;
+  }
+
+  // endregion
+
   // region builder
 
   /**
@@ -173,14 +196,11 @@ public final class ReboltHttp<T> {
     }
 
     // step 2 : SyncFactory 호출
-    String host = fullUri.getHost();
-    if (!syncMap.containsKey(host)) {
-      syncMap.put(host, new SyncFactory());
-    }
+    SyncFactory factory = registry.get(fullUri.getHost());
 
     // step 3 : HttpRequest 생성 및 호출
     return new RestResponse<>(
-        syncMap.get(host).invoke(
+        factory.invoke(
             HttpRequest.create(requestType, responseType)
                 .method(method)
                 .uri(fullUri.toString())
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.rebolt.http.utils;
+
+import io.rebolt.core.utils.LogUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BufferPool
+ * <p>
+ * 요청마다 새로 만들던 작업용 byte[]를 스레드별로 재사용한다.
+ * 크기 등급(512B, 8KB, 64KB)별로 스레드마다 {@value #DEPTH}개까지 보관하며, 64KB를 넘는 버퍼는 보관하지 않는다.
+ * <p>
+ * 빌린 버퍼는 같은 스레드에서 try-finally로 반납하는 짧은 작업에만 사용한다.
+ * 다른 스레드에서 반납해도 동작은 하지만 그 스레드의 보관함으로 들어간다.
+ * 소켓 버퍼(okio)와 JSON 파서 버퍼(Jackson)는 각 라이브러리가 이미 재사용하므로 대상이 아니다.
+ * <p>
+ * 누수 탐지({@link #setLeakDetection(boolean)})를 켜면 반납되지 않은 버퍼를 빌려간 위치를 기록한다. (디버그 용도)
+ *
+ * @since 1.2.0
+ */
+public final class BufferPool {
+  /**
+   * 길이가 0인 공유 배열
+   */
+  public static final byte[] EMPTY = new byte[0];
+
+  private static final int[] SIZES = {512, 8 * 1024, 64 * 1024};
+  private static final int DEPTH = 2;
+  private static final ThreadLocal<byte[][][]> caches = ThreadLocal.withInitial(() -> new byte[SIZES.length][DEPTH][]);
+  private static final LongAdder allocated = new LongAdder();
+  private static final LongAdder reused = new LongAdder();
+  private static final Map<byte[], Throwable> leases = Collections.synchronizedMap(new IdentityHashMap<>());
+  private static volatile boolean leakDetection;
+
+  private BufferPool() {
+  }
+
+  /**
+   * 버퍼 대여
+   *
+   * @param minSize 최소 크기
+   * @return minSize 이상인 버퍼 (이전 내용이 남아있을 수 있다)
+   * @since 1.2.0
+   */
+  public static byte[] lease(int minSize) {
+    int index = sizeClass(minSize);
+    byte[] buffer = null;
+    if (index >= 0) {
+      byte[][] cache = caches.get()[index];
+      for (int i = 0; i < DEPTH; i++) {
+        if (cache[i] != null) {
+          buffer = cache[i];
+          cache[i] = null;
+          break;
+        }
+      }
+    }
+    if (buffer == null) {
+      buffer = new byte[index >= 0 ? SIZES[index] : minSize];
+      allocated.increment();
+    } else {
+      reused.increment();
+    }
+    if (leakDetection) {
+      leases.put(buffer, new Throwable("-http buffer leased (" + buffer.length + " bytes)"));
+    }
+    return buffer;
+  }
+
+  /**
+   * 버퍼 반납. 반납한 버퍼는 더 이상 사용하면 안 된다.
+   *
+   * @param buffer {@link #lease(int)}로 빌린 버퍼 (null이면 무시한다)
+   * @since 1.2.0
+   */
+  public static void release(byte[] buffer) {
+    if (buffer == null) {
+      return;
+    }
+    if (leakDetection && leases.remove(buffer) == null) {
+      LogUtil.logger().warn("-http buffer released twice or not leased: {} bytes", buffer.length);
+      return;
+    }
+    int index = sizeClass(buffer.length);
+    if (index < 0 || SIZES[index] != buffer.length) {
+      return;
+    }
+    byte[][] cache = caches.get()[index];
+    for (int i = 0; i < DEPTH; i++) {
+      if (cache[i] == null) {
+        cache[i] = buffer;
+        return;
+      }
+    }
+  }
+
+  /**
+   * 누수 탐지 설정. 켜져 있는 동안에는 대여마다 호출 위치를 기록하므로 운영 환경에서는 끈다.
+   *
+   * @param enabled 사용 여부 (기본값: false)
+   * @since 1.2.0
+   */
+  public static void setLeakDetection(boolean enabled) {
+    leakDetection = enabled;
+    if (!enabled) {
+      leases.clear();
+    }
+  }
+
+  /**
+   * 누수 탐지를 켠 이후 반납되지 않은 버퍼를 빌려간 위치
+   *
+   * @return 대여 시점의 {@link Throwable} 목록
+   * @since 1.2.0
+   */
+  public static Collection<Throwable> getLeaks() {
+    synchronized (leases) {
+      return new ArrayList<>(leases.values());
+    }
+  }
+
+  /**
+   * 보관함에 없어서 새로 할당한 횟수
+   *
+   * @since 1.2.0
+   */
+  public static long getAllocated() {
+    return allocated.sum();
+  }
+
+  /**
+   * 보관함에서 재사용한 횟수
+   *
+   * @since 1.2.0
+   */
+  public static long getReused() {
+    return reused.sum();
+  }
+
+  private static int sizeClass(int size) {
+    for (int i = 0; i < SIZES.length; i++) {
+      if (size <= SIZES[i]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -21,6 +21,8 @@ import com.google.common.net.MediaType;
 import io.rebolt.core.utils.StringUtil;
 import lombok.Getter;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static io.rebolt.core.utils.ObjectUtil.requireNonNull;
@@ -61,4 +63,27 @@ public final class HeaderParser {
   public boolean contains(MediaType mediaType) {
     return isEmpty() || mediaTypes.stream().anyMatch(entry -> entry.is(mediaType.withoutParameters()));
   }
+
+  /**
+   * Retry-After 헤더 해석 (delta-seconds 또는 HTTP-date)
+   *
+   * @param value Retry-After 헤더값
+   * @return 대기시간 (단위: millisecond, 헤더가 없거나 형식이 잘못되었으면 -1)
+   * @since 1.2.0
+   */
+  public static long parseRetryAfter(String value) {
+    if (StringUtil.isNullOrEmpty(value)) {
+      return -1;
+    }
+    try {
+      return Math.max(0, Long.parseLong(value.trim())) * 1000;
+    } catch (NumberFormatException e) {
+      try {
+        long epochMillis = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        return Math.max(0, epochMillis - System.currentTimeMillis());
+      } catch (RuntimeException ignored) {
+        return -1;
+      }
+    }
+  }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.rebolt.http.executors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LinkedBlockingThreadExecutor}, {@link LockFreeThreadExecutor} 처리량 비교
+ * <p>
+ * 생산자 스레드 1, 8, 64개가 각각 BATCH개의 작업을 넣고 모두 처리될 때까지 기다린다.
+ * (Dispatcher와 같이 처리중인 작업수가 제한된 상황)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutorBenchmark {
+  private static final int BATCH = 16;
+
+  @Param({"LinkedBlocking", "LockFree"})
+  public ExecutorType executorType;
+
+  private ExecutorService executor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    SimpleThreadFactory threadFactory = new SimpleThreadFactory("bench", true, Thread.NORM_PRIORITY);
+    if (executorType == ExecutorType.LockFree) {
+      executor = new LockFreeThreadExecutor.Builder()
+          .setThreadCount(10)
+          .setThreadFactory(threadFactory)
+          .setQueueSize(64 * BATCH).build();
+    } else {
+      executor = new LinkedBlockingThreadExecutor.Builder()
+          .setThreadCount(10)
+          .setThreadFactory(threadFactory)
+          .setThreadIdleTime(1000)
+          .setLinkedBlockingQueue(0).build();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(5, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void producers_1() throws InterruptedException {
+    submit();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void producers_8() throws InterruptedException {
+    submit();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void producers_64() throws InterruptedException {
+    submit();
+  }
+
+  private void submit() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(BATCH);
+    for (int i = 0; i < BATCH; i++) {
+      executor.execute(latch::countDown);
+    }
+    latch.await();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ExecutorBenchmark.class.getSimpleName()).build()).run();
+  }
+}
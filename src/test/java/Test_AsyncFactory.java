@@ -18,9 +18,17 @@ import com.fasterxml.jackson.databind.JsonNode;
 import io.rebolt.http.HttpRequest;
 import io.rebolt.http.HttpResponse;
 import io.rebolt.http.HttpStatus;
+import io.rebolt.http.engines.RetryPolicy;
+import io.rebolt.http.executors.OverflowPolicy;
 import io.rebolt.http.factories.AsyncFactory;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public final class Test_AsyncFactory {
@@ -72,4 +80,78 @@ public final class Test_AsyncFactory {
     }
   }
 
+  @Test
+  public void test_invokeAsync() throws Exception {
+    AsyncFactory factory = new AsyncFactory();
+    HttpRequest request = HttpRequest.create(JsonNode.class).uri("https://m-api.nexon.com/signin.nx");
+
+    HttpResponse<JsonNode, JsonNode> response = factory.<JsonNode, JsonNode>invokeAsync(request).get();
+    if (!response.hasError()) {
+      assertTrue(response.getStatus().equals(HttpStatus.OK_200));
+    }
+  }
+
+  @Test
+  public void test_invokeAsync_timeout() throws Exception {
+    AsyncFactory factory = new AsyncFactory();
+    HttpRequest request = HttpRequest.create().uri("https://m-api.nexon.com");
+
+    HttpResponse<String, String> response = factory.<String, String>invokeAsync(request, 1, TimeUnit.MILLISECONDS).get();
+    assertTrue(response.getStatus().equals(HttpStatus.REQUEST_TIMEOUT_408));
+  }
+
+  @Test
+  public void test_retry() throws Exception {
+    MockWebServer server = new MockWebServer();
+    server.enqueue(new MockResponse().setResponseCode(503));
+    server.enqueue(new MockResponse().setBody("ok"));
+    server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "60"));
+    server.start();
+    try {
+      AsyncFactory factory = new AsyncFactory();
+      factory.setRetryPolicy(new RetryPolicy.Builder().setBackoff(10, 10).build());
+      HttpRequest request = HttpRequest.create(String.class).uri(server.url("/retry").toString());
+
+      // 503 응답은 닫고, 복제한 Call을 타이머에서 다시 보낸다
+      HttpResponse<String, String> response = factory.<String, String>invokeAsync(request).get(5, TimeUnit.SECONDS);
+      assertTrue(response.getStatus().equals(HttpStatus.OK_200));
+      assertTrue("ok".equals(response.getBody()));
+      assertTrue(response.getAttempts().size() == 2);
+      assertTrue(response.getAttempts().get(0).getStatusCode() == 503);
+      assertTrue(server.getRequestCount() == 2);
+
+      // 최대 대기시간보다 긴 Retry-After는 재시도하지 않고 응답을 그대로 반환한다
+      response = factory.<String, String>invokeAsync(request).get(5, TimeUnit.SECONDS);
+      assertTrue(response.getStatus().equals(HttpStatus.SERVICE_UNAVAILABLE_503));
+      assertTrue(server.getRequestCount() == 3);
+    } finally {
+      server.shutdown();
+    }
+  }
+
+  @Test
+  public void test_tryInvoke_rejected() throws Exception {
+    MockWebServer server = new MockWebServer();
+    for (int i = 0; i < 2; i++) {
+      server.enqueue(new MockResponse().setBodyDelay(300, TimeUnit.MILLISECONDS).setBody("slow"));
+    }
+    server.start();
+    try {
+      AsyncFactory factory = new AsyncFactory();
+      factory.setMaxRequests(1);
+      factory.setRequestQueueSize(1);
+      factory.setOverflowPolicy(OverflowPolicy.Reject);
+      HttpRequest request = HttpRequest.create(String.class).uri(server.url("/slow").toString());
+      factory.invokeAsync(request);
+      factory.invokeAsync(request.copy());
+
+      // 거절된 요청은 deadline이 지나도 callback이 호출되지 않는다
+      AtomicInteger received = new AtomicInteger();
+      assertFalse(factory.tryInvoke(request.copy().deadline(20, TimeUnit.MILLISECONDS), response -> received.incrementAndGet()));
+      Thread.sleep(100);
+      assertTrue(received.get() == 0);
+    } finally {
+      server.shutdown();
+    }
+  }
 }
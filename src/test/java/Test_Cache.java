@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+import com.google.common.base.Strings;
+import io.rebolt.http.HttpHeader;
+import io.rebolt.http.HttpRequest;
+import io.rebolt.http.HttpResponse;
+import io.rebolt.http.cache.DiskCache;
+import io.rebolt.http.cache.HttpCache;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class Test_Cache {
+
+  @Test
+  public void test_HttpCache() {
+    HttpCache cache = new HttpCache.Builder().build();
+    HttpRequest request = HttpRequest.create(String.class).uri("http://localhost/config");
+
+    HttpCache.Lookup miss = cache.lookup(request);
+    assertFalse(miss.isHit());
+    HttpHeader header = HttpHeader.createForResponse().add("cache-control", "max-age=60").add("etag", "\"v1\"");
+    cache.complete(miss, new HttpResponse<>(200, header, "config"));
+
+    HttpCache.Lookup hit = cache.lookup(HttpRequest.create(String.class).uri("http://localhost/config"));
+    assertTrue(hit.isHit() && "config".equals(hit.getResponse().getBody()));
+
+    // no-cache 요청은 조건부 요청으로 재검증한다
+    HttpCache.Lookup revalidate = cache.lookup(HttpRequest.create(String.class).uri("http://localhost/config")
+        .header(HttpHeader.create().add("Cache-Control", "no-cache")));
+    assertFalse(revalidate.isHit());
+    assertTrue("\"v1\"".equals(revalidate.getRequest().getHeader().get("If-None-Match")));
+    HttpResponse<String, String> notModified = cache.complete(revalidate, new HttpResponse<>(304, HttpHeader.createForResponse(), null));
+    assertTrue("config".equals(notModified.getBody()) && notModified.getStatus().getCode() == 200);
+
+    // no-store 응답은 저장하지 않는다
+    HttpRequest other = HttpRequest.create(String.class).uri("http://localhost/other");
+    cache.complete(cache.lookup(other), new HttpResponse<>(200, HttpHeader.createForResponse().add("cache-control", "no-store"), "other"));
+    assertFalse(cache.lookup(other).isHit());
+
+    // 리다이렉트 설정을 지정한 요청은 캐시를 사용하지 않는다
+    HttpRequest noRedirect = HttpRequest.create(String.class).uri("http://localhost/config").followRedirects(false);
+    assertFalse(cache.lookup(noRedirect).isHit());
+    cache.complete(cache.lookup(noRedirect), new HttpResponse<>(301, HttpHeader.createForResponse().add("cache-control", "max-age=60"), null));
+    assertTrue("config".equals(cache.lookup(HttpRequest.create(String.class).uri("http://localhost/config")).getResponse().getBody()));
+
+    HttpCache.Stats stats = cache.getStats();
+    assertTrue(stats.getHitCount() == 2 && stats.getRevalidatedCount() == 1 && stats.getSize() == 1);
+
+    // 저장 용량은 Content-Length가 아니라 실제로 읽은 본문 크기로 계산한다
+    HttpCache small = new HttpCache.Builder().setMaximumWeight(1000).build();
+    HttpRequest chunked = HttpRequest.create(String.class).uri("http://localhost/chunked");
+    HttpResponse<String, String> chunkedResponse = new HttpResponse<>(200, HttpHeader.createForResponse().add("cache-control", "max-age=60"), "chunked");
+    chunkedResponse.setBodyLength(7);
+    small.complete(small.lookup(chunked), chunkedResponse);
+    assertTrue(small.lookup(chunked).isHit());
+    HttpRequest large = HttpRequest.create(String.class).uri("http://localhost/large");
+    HttpResponse<String, String> largeResponse = new HttpResponse<>(200, HttpHeader.createForResponse().add("cache-control", "max-age=60")
+        .add("content-length", "7"), "large");
+    largeResponse.setBodyLength(5000);
+    small.complete(small.lookup(large), largeResponse);
+    assertFalse(small.lookup(large).isHit());
+
+    // URI에 해당하는 응답만 지운다
+    HttpRequest bytes = HttpRequest.create(byte[].class).uri("http://localhost/config");
+    cache.complete(cache.lookup(bytes), new HttpResponse<>(200, HttpHeader.createForResponse().add("cache-control", "max-age=60"), new byte[1]));
+    cache.complete(cache.lookup(chunked), new HttpResponse<>(200, HttpHeader.createForResponse().add("cache-control", "max-age=60"), "chunked"));
+    cache.invalidate("http://localhost/config");
+    assertFalse(cache.lookup(request).isHit() || cache.lookup(bytes).isHit());
+    assertTrue(cache.lookup(chunked).isHit());
+  }
+
+  @Test
+  public void test_DiskCache() throws IOException {
+    Path directory = Files.createTempDirectory("rebolt-cache");
+    DiskCache.Builder builder = new DiskCache.Builder().setDirectory(directory).setSegmentSize(1000).setMaximumSize(2000);
+    DiskCache diskCache = builder.build();
+    for (int i = 0; i < 4; i++) {
+      try (DiskCache.Editor editor = diskCache.edit("key" + i, Collections.singletonMap("index", Integer.toString(i)))) {
+        editor.write(new byte[600]);
+        editor.commit();
+      }
+    }
+    // 세그먼트 2개(key0+key1, key2+key3) 중 오래된 세그먼트는 지워진다
+    assertTrue(diskCache.get("key0") == null && diskCache.getDiskSize() <= 2000);
+    diskCache.close();
+
+    // 다시 열어도 색인이 유지된다
+    diskCache = builder.build();
+    DiskCache.Snapshot snapshot = diskCache.get("key3");
+    assertTrue(snapshot.getLength() == 600 && "3".equals(snapshot.getMetadata().get("index")));
+    assertTrue(snapshot.getBody().isDirect() && snapshot.getBody().isReadOnly());
+
+    // 세그먼트 크기 이상인 본문은 복사하지 않고 단독 세그먼트로 옮긴다
+    byte[] large = new byte[1500];
+    large[1499] = 7;
+    try (DiskCache.Editor editor = diskCache.edit("large", Collections.emptyMap())) {
+      editor.write(large);
+      editor.commit();
+    }
+    snapshot = diskCache.get("large");
+    assertTrue(snapshot.getLength() == 1500 && snapshot.getBody().get(1499) == 7);
+    assertTrue(diskCache.get("key3") == null && diskCache.getDiskSize() <= 2000);
+
+    // writeUTF로 쓸 수 없는 metadata 항목은 빼고 기록하며, 이후 변경분도 계속 저널에 기록된다
+    try (DiskCache.Editor editor = diskCache.edit("cookie", Collections.singletonMap("set-cookie", Strings.repeat("x", 70_000)))) {
+      editor.write(new byte[10]);
+      editor.commit();
+    }
+    try (DiskCache.Editor editor = diskCache.edit("after", Collections.singletonMap("index", "a"))) {
+      editor.write(new byte[10]);
+      editor.commit();
+    }
+    diskCache.remove("large");
+    diskCache.close();
+    diskCache = builder.build();
+    assertTrue(diskCache.get("cookie").getMetadata().isEmpty());
+    assertTrue("a".equals(diskCache.get("after").getMetadata().get("index")));
+    assertTrue(diskCache.get("large") == null && diskCache.size() == 2);
+    diskCache.close();
+  }
+
+  @Test
+  public void test_stale() {
+    HttpCache cache = new HttpCache.Builder().setStaleIfError(60_000).build();
+    HttpRequest request = HttpRequest.create(String.class).uri("http://localhost/hot");
+    HttpHeader header = HttpHeader.createForResponse().add("cache-control", "max-age=0, stale-while-revalidate=60");
+    cache.complete(cache.lookup(request), new HttpResponse<>(200, header, "hot"));
+
+    // stale-while-revalidate: 바로 응답하고 재검증은 한 번만 한다
+    HttpCache.Lookup first = cache.lookup(request);
+    HttpCache.Lookup second = cache.lookup(request);
+    assertTrue(first.isHit() && first.getRefresh() != null);
+    assertTrue(second.isHit() && second.getRefresh() == null);
+
+    // stale-if-error: 재검증이 실패하면 보관중인 응답을 유지한다
+    HttpResponse<String, String> failed = cache.complete(first.getRefresh(), new HttpResponse<>(503, HttpHeader.createForResponse(), null));
+    assertTrue("hot".equals(failed.getBody()));
+    assertTrue(cache.lookup(request).getRefresh() != null);
+    assertTrue(cache.getStats().getStaleCount() == 3 && cache.getStats().getStaleIfErrorCount() == 1);
+  }
+
+  @Test
+  public void test_shared() {
+    HttpCache cache = new HttpCache.Builder().build();
+    String uri = "http://localhost/me";
+    HttpHeader maxAge = HttpHeader.createForResponse().add("cache-control", "max-age=60");
+
+    // 다른 사용자의 인증 정보로 받은 응답은 저장하지 않는다
+    HttpRequest userA = HttpRequest.create(String.class).uri(uri).header(HttpHeader.create().add("Authorization", "Bearer a"));
+    cache.complete(cache.lookup(userA), new HttpResponse<>(200, maxAge, "a"));
+    assertFalse(cache.lookup(HttpRequest.create(String.class).uri(uri).header(HttpHeader.create().add("Authorization", "Bearer b"))).isHit());
+
+    // private 응답은 저장하지 않고, public 응답은 인증 요청이라도 저장한다
+    HttpRequest anonymous = HttpRequest.create(String.class).uri(uri);
+    cache.complete(cache.lookup(anonymous), new HttpResponse<>(200, HttpHeader.createForResponse().add("cache-control", "private, max-age=60"), "private"));
+    assertFalse(cache.lookup(anonymous).isHit());
+    cache.complete(cache.lookup(userA), new HttpResponse<>(200, HttpHeader.createForResponse().add("cache-control", "public, max-age=60"), "public"));
+    assertTrue("public".equals(cache.lookup(anonymous).getResponse().getBody()));
+
+    // Vary 변형은 따로 보관한다
+    String page = "http://localhost/page";
+    HttpHeader vary = HttpHeader.createForResponse().add("cache-control", "max-age=60").add("vary", "Accept-Language");
+    HttpRequest en = HttpRequest.create(String.class).uri(page).header(HttpHeader.create().add("Accept-Language", "en"));
+    HttpRequest ko = HttpRequest.create(String.class).uri(page).header(HttpHeader.create().add("Accept-Language", "ko"));
+    cache.complete(cache.lookup(en), new HttpResponse<>(200, vary, "hello"));
+    HttpCache.Lookup koMiss = cache.lookup(ko);
+    assertFalse(koMiss.isHit());
+    cache.complete(koMiss, new HttpResponse<>(200, vary, "annyeong"));
+    assertTrue("hello".equals(cache.lookup(en).getResponse().getBody()));
+    assertTrue("annyeong".equals(cache.lookup(ko).getResponse().getBody()));
+  }
+}
@@ -1,6 +1,26 @@
+import com.google.common.io.ByteStreams;
 import io.rebolt.http.HttpForm;
+import io.rebolt.http.HttpRequest;
+import io.rebolt.http.HttpStream;
+import io.rebolt.http.codecs.ContentCodec;
+import io.rebolt.http.codecs.ContentCodecs;
+import io.rebolt.http.converters.ConverterTable;
+import io.rebolt.http.converters.StreamConverter;
+import io.rebolt.http.converters.TypedConverter;
+import io.rebolt.http.utils.BufferPool;
+import lombok.Data;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertTrue;
 
 public final class Test_Common {
@@ -12,4 +32,110 @@ public final class Test_Common {
 
     assertTrue(httpForm.equals(httpForm2));
   }
+
+  @Test
+  public void test_HttpStream() throws IOException {
+    AtomicBoolean sourceClosed = new AtomicBoolean();
+    InputStream source = new ByteArrayInputStream(new byte[20_000]) {
+      @Override
+      public void close() {
+        sourceClosed.set(true);
+      }
+    };
+    HttpStream httpStream = new HttpStream(source, 20_000, null);
+    AtomicInteger chunks = new AtomicInteger();
+    assertTrue(httpStream.consume((buffer, offset, length) -> chunks.incrementAndGet()) == 20_000);
+    assertTrue(chunks.get() == 3);
+    assertTrue(httpStream.isClosed() && sourceClosed.get());
+    assertTrue(httpStream.getInputStream().read() == -1);
+  }
+
+  @Data
+  public static class Payload {
+    private String name;
+    private int count;
+  }
+
+  @Test
+  public void test_TypedConverter() throws IOException {
+    TypedConverter converter = (TypedConverter) ConverterTable.getDefault(void.class);
+    byte[] json = "{\"name\":\"rebolt\",\"count\":3,\"unknown\":true}".getBytes(StandardCharsets.UTF_8);
+    Payload payload = converter.readResponse(new ByteArrayInputStream(json), Payload.class);
+    assertTrue(payload.getName().equals("rebolt") && payload.getCount() == 3);
+    assertTrue(converter.readResponse(new ByteArrayInputStream(new byte[0]), Payload.class) == null);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void test_StreamConverter() throws IOException {
+    StreamConverter<Object, ?> string = (StreamConverter<Object, ?>) ConverterTable.get(String.class, String.class);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    string.writeRequest("rebolt 한글 \uD83D\uDE00", output);
+    assertTrue(string.contentLength("rebolt 한글 \uD83D\uDE00") == output.size());
+
+    Payload payload = new Payload();
+    payload.setName("rebolt");
+    Class<?> bodyType = ConverterTable.getBodyType(payload);
+    StreamConverter<Object, ?> json = (StreamConverter<Object, ?>) ConverterTable.getDefault(bodyType);
+    output.reset();
+    json.writeRequest(payload, output);
+    assertTrue(json.contentLength(payload) == -1);
+    assertTrue(new String(output.toByteArray(), StandardCharsets.UTF_8).equals("{\"name\":\"rebolt\",\"count\":0}"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void test_BufferPool() throws IOException {
+    BufferPool.setLeakDetection(true);
+    byte[] buffer = BufferPool.lease(100);
+    assertTrue(buffer.length == 512 && BufferPool.getLeaks().size() == 1);
+    BufferPool.release(buffer);
+    assertTrue(BufferPool.lease(512) == buffer && BufferPool.getLeaks().size() == 1);
+    BufferPool.release(buffer);
+    BufferPool.setLeakDetection(false);
+
+    // 작업용 버퍼 경계를 넘는 문자열
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 3000; i++) {
+      builder.append("a가\uD83D\uDE00");
+    }
+    String value = builder.toString();
+    StreamConverter<Object, ?> string = (StreamConverter<Object, ?>) ConverterTable.get(String.class, String.class);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    string.writeRequest(value, output);
+    assertTrue(Arrays.equals(output.toByteArray(), value.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void test_ContentCodecs() throws IOException {
+    byte[] origin = "rebolt rebolt rebolt rebolt".getBytes(StandardCharsets.UTF_8);
+    for (String encoding : new String[]{ContentCodecs.GZIP, ContentCodecs.DEFLATE}) {
+      ContentCodec codec = ContentCodecs.get(encoding.toUpperCase());
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      try (OutputStream encoder = codec.encode(output)) {
+        encoder.write(origin);
+      }
+      try (InputStream decoder = codec.decode(new ByteArrayInputStream(output.toByteArray()))) {
+        assertTrue(Arrays.equals(ByteStreams.toByteArray(decoder), origin));
+      }
+    }
+    assertTrue(ContentCodecs.get(ContentCodecs.BROTLI) == null);
+  }
+
+  @Test
+  public void test_HttpRequestOverrides() {
+    HttpRequest request = HttpRequest.create().uri("http://api.rebolt.io");
+    assertTrue(request.getReadTimeout() == null && request.getFollowRedirects() == null); // 통신엔진의 설정을 사용한다
+    request.connectTimeout(100).readTimeout(30000).writeTimeout(200).callTimeout(500).retryCount(-1).followRedirects(false);
+    HttpRequest copy = request.copy();
+    assertTrue(copy.getConnectTimeout() == 100 && copy.getReadTimeout() == 30000 && copy.getWriteTimeout() == 200);
+    assertTrue(copy.getCallTimeout() == 500);
+    assertTrue(copy.getRetryCount() == 0);
+    assertTrue(!copy.getFollowRedirects());
+    assertTrue(copy.deepHash() == request.deepHash());
+    HttpRequest redirect = HttpRequest.create().uri("http://api.rebolt.io");
+    assertTrue(redirect.deepHash() != request.deepHash()); // 리다이렉트 설정이 다른 요청은 합치지 않는다
+    redirect.connectTimeout(100).readTimeout(30000).callTimeout(500).followRedirects(false);
+    assertTrue(redirect.deepHash() == request.deepHash()); // 타임아웃, 재시도 설정은 요청의 동일성에 영향을 주지 않는다
+  }
 }
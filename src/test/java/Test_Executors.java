@@ -0,0 +1,285 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import io.rebolt.http.executors.AdaptiveLimiter;
+import io.rebolt.http.executors.BoundedSubmitter;
+import io.rebolt.http.executors.CircuitBreaker;
+import io.rebolt.http.executors.DispatchGate;
+import io.rebolt.http.executors.LockFreeThreadExecutor;
+import io.rebolt.http.executors.OverflowPolicy;
+import io.rebolt.http.executors.RateLimiter;
+import io.rebolt.http.executors.SimpleThreadFactory;
+import io.rebolt.http.executors.SingleFlight;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class Test_Executors {
+
+  @Test
+  public void test_DispatchGate() {
+    DispatchGate gate = new DispatchGate(2);
+    gate.setLimit("slow.rebolt.io", 1);
+    AtomicInteger started = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      gate.submit("api.rebolt.io", started::incrementAndGet);
+      gate.submit("slow.rebolt.io", started::incrementAndGet);
+    }
+    assertTrue(started.get() == 3);
+    assertTrue(gate.getStats().get("api.rebolt.io").getQueued() == 1);
+    assertTrue(gate.getStats().get("slow.rebolt.io").getQueued() == 2);
+
+    gate.release("api.rebolt.io");
+    assertTrue(started.get() == 4);
+    assertTrue(gate.getStats().get("api.rebolt.io").getRunning() == 2);
+
+    gate.setLimit("slow.rebolt.io", 0); // 기본값(2)으로 변경
+    assertTrue(started.get() == 5);
+    assertTrue(gate.getStats().get("slow.rebolt.io").getQueued() == 1);
+  }
+
+  @Test
+  public void test_AdaptiveLimiter() {
+    AdaptiveLimiter limiter = new AdaptiveLimiter.Builder().setInitialLimit(10).setMaxLimit(100).build();
+    String host = "api.rebolt.io";
+
+    // limit까지만 허가한다
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.tryAcquire(host));
+    }
+    assertFalse(limiter.tryAcquire(host));
+
+    // 응답시간이 일정하면 limit이 늘어난다
+    for (int i = 0; i < 200; i++) {
+      limiter.onSuccess(host, 10_000_000L);
+      assertTrue(limiter.tryAcquire(host));
+    }
+    int grown = limiter.getLimit(host);
+    assertTrue(grown > 10);
+
+    // 응답시간이 급격히 늘어나면 limit이 줄어든다
+    for (int i = 0; i < 50; i++) {
+      limiter.onSuccess(host, 200_000_000L);
+      limiter.tryAcquire(host);
+    }
+    assertTrue(limiter.getLimit(host) < grown);
+    assertTrue(limiter.getStats().get(host).getRtt() > 10);
+  }
+
+  @Test
+  public void test_BoundedSubmitter() {
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger dropped = new AtomicInteger();
+    BoundedSubmitter submitter = new BoundedSubmitter(1, 1, OverflowPolicy.Reject, 0);
+    assertTrue(submitter.submit(started::incrementAndGet, dropped::incrementAndGet) == BoundedSubmitter.Result.Started);
+    assertTrue(submitter.submit(started::incrementAndGet, dropped::incrementAndGet) == BoundedSubmitter.Result.Queued);
+    assertTrue(submitter.submit(started::incrementAndGet, dropped::incrementAndGet) == BoundedSubmitter.Result.Rejected);
+    assertTrue(started.get() == 1);
+    submitter.release();
+    assertTrue(started.get() == 2);
+    assertTrue(submitter.getRunning() == 1 && submitter.getQueued() == 0);
+    submitter.release();
+    assertTrue(submitter.getRunning() == 0);
+
+    BoundedSubmitter dropOldest = new BoundedSubmitter(1, 1, OverflowPolicy.DropOldest, 0);
+    dropOldest.submit(started::incrementAndGet, dropped::incrementAndGet);
+    dropOldest.submit(started::incrementAndGet, dropped::incrementAndGet);
+    assertTrue(dropOldest.submit(started::incrementAndGet, dropped::incrementAndGet) == BoundedSubmitter.Result.Queued);
+    assertTrue(dropped.get() == 1);
+    assertTrue(dropOldest.trySubmit(started::incrementAndGet, dropped::incrementAndGet) == BoundedSubmitter.Result.Rejected);
+
+    BoundedSubmitter block = new BoundedSubmitter(1, 0, OverflowPolicy.Block, 50);
+    block.submit(started::incrementAndGet, dropped::incrementAndGet);
+    long startTime = System.currentTimeMillis();
+    assertTrue(block.submit(started::incrementAndGet, dropped::incrementAndGet) == BoundedSubmitter.Result.Rejected);
+    assertTrue(System.currentTimeMillis() - startTime >= 40);
+  }
+
+  @Test
+  public void test_BoundedSubmitter_release() {
+    // 대기큐에서 꺼낸 요청이 바로 끝나서 release()를 다시 호출해도 스택이 깊어지지 않는다
+    BoundedSubmitter submitter = new BoundedSubmitter(1, 100_000, OverflowPolicy.Reject, 0);
+    AtomicInteger finished = new AtomicInteger();
+    Runnable fastFailure = () -> {
+      finished.incrementAndGet();
+      submitter.release();
+    };
+    submitter.submit(() -> { }, null);
+    for (int i = 0; i < 100_000; i++) {
+      submitter.submit(fastFailure, null);
+    }
+    submitter.release();
+    assertTrue(finished.get() == 100_000);
+    assertTrue(submitter.getRunning() == 0 && submitter.getQueued() == 0);
+  }
+
+  @Test
+  public void test_LockFreeThreadExecutor() throws InterruptedException {
+    LockFreeThreadExecutor executor = new LockFreeThreadExecutor.Builder()
+        .setThreadCount(4)
+        .setThreadFactory(new SimpleThreadFactory("test", true, Thread.NORM_PRIORITY)).build();
+    int producers = 8;
+    int tasks = 10_000;
+    CountDownLatch latch = new CountDownLatch(producers * tasks);
+    Thread[] threads = new Thread[producers];
+    for (int i = 0; i < producers; i++) {
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < tasks; j++) {
+          while (executor.getQueueSize() >= 512) {
+            Thread.yield();
+          }
+          executor.execute(latch::countDown);
+        }
+      });
+      threads[i].start();
+    }
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    assertTrue(executor.isTerminated());
+  }
+
+  @Test
+  public void test_SingleFlight() throws InterruptedException {
+    SingleFlight<String, String> flight = new SingleFlight<>(0);
+    CompletableFuture<String> network = new CompletableFuture<>();
+    AtomicInteger executed = new AtomicInteger();
+    CompletableFuture<String> first = flight.execute("key", () -> {
+      executed.incrementAndGet();
+      return network;
+    });
+    CompletableFuture<String> second = flight.execute("key", () -> {
+      executed.incrementAndGet();
+      return new CompletableFuture<>();
+    });
+    assertTrue(first == second);
+    assertTrue(flight.getInFlight() == 1);
+    network.complete("done");
+    assertTrue("done".equals(second.join()));
+    assertTrue(flight.getInFlight() == 0);
+    assertTrue(executed.get() == 1 && flight.getJoinedCount() == 1);
+
+    // 동기 실행: 먼저 시작한 호출자의 결과를 함께 받는다
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread leader = new Thread(() -> flight.call("sync", () -> {
+      running.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ignored) {
+      }
+      return "shared";
+    }));
+    leader.start();
+    running.await();
+    // 합류한 호출자는 timeout까지만 기다린다 (flight는 계속 진행된다)
+    boolean timedOut = false;
+    try {
+      flight.call("sync", () -> "own", 20, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      timedOut = true;
+    }
+    assertTrue(timedOut && flight.getInFlight() == 1);
+    CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> flight.call("sync", () -> "own"));
+    while (flight.getJoinedCount() < 3) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+    assertTrue("shared".equals(follower.join()));
+
+    // joinWindow가 지난 flight에는 합류하지 않는다
+    SingleFlight<String, String> windowed = new SingleFlight<>(10);
+    CompletableFuture<String> slow = windowed.execute("key", CompletableFuture::new);
+    Thread.sleep(30);
+    assertFalse(slow == windowed.execute("key", CompletableFuture::new));
+    assertTrue(windowed.getExecutedCount() == 2);
+  }
+
+  @Test
+  public void test_CircuitBreaker() throws InterruptedException {
+    AtomicInteger changes = new AtomicInteger();
+    CircuitBreaker breaker = new CircuitBreaker.Builder().setWindow(10, 4).setOpenDuration(20).setHalfOpenPermits(2)
+        .addListener((key, from, to) -> changes.incrementAndGet()).build();
+    String host = "api.rebolt.io";
+    for (int i = 0; i < 3; i++) {
+      CircuitBreaker.Permit permit = breaker.tryAcquire(host);
+      assertTrue(permit != null);
+      breaker.onResult(permit, 1_000_000, i != 0);
+    }
+    assertTrue(breaker.getState(host) == CircuitBreaker.State.Closed); // 최소 요청 수 미만
+    CircuitBreaker.Permit closed = breaker.tryAcquire(host); // 회로가 열린 뒤에 끝나는 요청
+    breaker.onResult(breaker.tryAcquire(host), 1_000_000, true);
+    assertTrue(breaker.getState(host) == CircuitBreaker.State.Open);
+    assertTrue(breaker.tryAcquire(host) == null);
+
+    // 반열림: 허가된 수만큼만 시험 요청을 보낸다
+    Thread.sleep(30);
+    CircuitBreaker.Permit probe1 = breaker.tryAcquire(host);
+    CircuitBreaker.Permit probe2 = breaker.tryAcquire(host);
+    assertTrue(probe1 != null && probe2 != null);
+    assertTrue(breaker.tryAcquire(host) == null);
+    assertTrue(breaker.getState(host) == CircuitBreaker.State.HalfOpen);
+
+    // 닫힌 상태에서 허가된 요청은 시험 요청으로 집계하지 않고, 반열림 허가도 반납하지 않는다
+    breaker.onResult(closed, 1_000_000, false);
+    breaker.onIgnored(closed);
+    assertTrue(breaker.tryAcquire(host) == null);
+    breaker.onResult(probe1, 1_000_000, false);
+    assertTrue(breaker.getState(host) == CircuitBreaker.State.HalfOpen);
+    breaker.onResult(probe2, 1_000_000, false);
+    assertTrue(breaker.getState(host) == CircuitBreaker.State.Closed);
+    assertTrue(breaker.getStats().get(host).getCalls() == 0);
+    assertTrue(changes.get() == 3);
+
+    // 느린 요청 비율
+    CircuitBreaker slow = new CircuitBreaker.Builder().setWindow(4, 4).setSlowCallRateThreshold(0.5, 100).build();
+    for (int i = 0; i < 4; i++) {
+      slow.onResult(slow.tryAcquire(host), i < 2 ? 200_000_000 : 1_000_000, false);
+    }
+    assertTrue(slow.getState(host) == CircuitBreaker.State.Open);
+  }
+
+  @Test
+  public void test_RateLimiter() {
+    RateLimiter limiter = new RateLimiter.Builder().addLimit("*.rebolt.io/v1", 10, 2).setMaxWait(150).build();
+    String host = "api.rebolt.io";
+    assertTrue(limiter.reserve(host, "/v1/search") == 0);
+    assertTrue(limiter.reserve(host, "/v1/search") == 0);
+    long delay = limiter.reserve(host, "/v1/search"); // burst 소진: 다음 간격(100ms)까지 대기
+    assertTrue(delay > 0 && delay <= TimeUnit.MILLISECONDS.toNanos(100));
+    assertTrue(limiter.reserve(host, "/v1/search") < 0); // 다음 자리는 200ms 뒤: maxWait 초과
+    assertTrue(limiter.reserve(host, "/v2/search") == 0); // 규칙 없음
+    assertTrue(limiter.getStats().getRejected() == 1);
+
+    // Retry-After: 설정한 제한이 없는 호스트도 차단된 동안은 거절된다
+    limiter.onResponse("other.io", "/", 429, name -> "Retry-After".equals(name) ? "1" : null);
+    assertTrue(limiter.reserve("other.io", "/") < 0);
+    assertTrue(limiter.reserve("another.io", "/") == 0);
+
+    // RateLimit-Policy: 서버가 알려준 제한이 더 엄격하면 따른다
+    RateLimiter learned = new RateLimiter.Builder().addLimit(host, 1000, 1).setMaxWait(1000).build();
+    learned.onResponse(host, "/", 200, name -> "RateLimit-Policy".equals(name) ? "2;w=1" : null);
+    assertTrue(learned.reserve(host, "/") == 0);
+    assertTrue(learned.reserve(host, "/") > TimeUnit.MILLISECONDS.toNanos(400));
+  }
+}
@@ -16,6 +16,8 @@
 
 import io.rebolt.http.HttpForm;
 import io.rebolt.http.HttpStatus;
+import io.rebolt.http.fluent.HostProfile;
+import io.rebolt.http.fluent.HostRegistry;
 import io.rebolt.http.fluent.ReboltHttp;
 import io.rebolt.http.fluent.RestResponse;
 import lombok.Data;
@@ -72,4 +74,19 @@ public final class Test_ReboltHttp {
     RestResponse<ToyResponse> response = ReboltHttp.post(ToyResponse.class).uri("https://m-api.nexon.com/error").body(HttpForm.create().add("id", "yours")).call();
     assertTrue(response.getStatus() == HttpStatus.NOT_FOUND_404);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void test_registry() {
+    HostRegistry registry = new HostRegistry(2, 60_000);
+    HostProfile slow = new HostProfile.Builder().setReadTimeout(30_000).build();
+    registry.setProfile("*.rebolt.io", slow);
+    assertTrue(registry.getProfile("api.rebolt.io") == slow);
+    assertTrue(registry.getProfile("a.b.rebolt.io") == slow);
+    assertTrue(registry.getProfile("rebolt.io") != slow);
+
+    assertTrue(registry.get("api.rebolt.io") == registry.get("api.rebolt.io"));
+    registry.get("b.rebolt.io");
+    registry.get("c.rebolt.io");
+    assertTrue(registry.size() == 2);
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 The Rebolt Framework
+ *
+ * The Rebolt Framework licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+import io.rebolt.http.HttpMethod;
+import io.rebolt.http.HttpRequest;
+import io.rebolt.http.HttpStatus;
+import io.rebolt.http.engines.HedgePolicy;
+import io.rebolt.http.engines.RetryBackoff;
+import io.rebolt.http.engines.RetryContext;
+import io.rebolt.http.engines.RetryPolicy;
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class Test_Retry {
+
+  @Test
+  public void test_backoff() {
+    RetryBackoff backoff = new RetryBackoff(100, 1000);
+    assertTrue(backoff.ceiling(0) == 100);
+    assertTrue(backoff.ceiling(2) == 400);
+    assertTrue(backoff.ceiling(4) == 1000);
+    assertTrue(backoff.ceiling(100) == 1000);
+    for (int i = 0; i < 1000; i++) {
+      long delay = backoff.delay(3);
+      assertTrue(delay >= 0 && delay <= 800);
+    }
+  }
+
+  @Test
+  public void test_context() {
+    RetryContext retry = new RetryContext(2, new RetryBackoff(0, 0));
+    assertTrue(retry.hasNext());
+    assertTrue(retry.next() == 0);
+    assertTrue(retry.next() == 0);
+    assertFalse(retry.hasNext());
+    assertTrue(retry.getRemaining() == 0);
+  }
+
+  @Test
+  public void test_hedge() {
+    HedgePolicy policy = new HedgePolicy.Builder().setDelay(5, 500).setMinSamples(10).setBudget(0.1).setBurst(2).build();
+    assertTrue(policy.delay("api.rebolt.io") == 500); // 샘플이 부족하면 최대 대기시간
+    for (int i = 1; i <= 100; i++) {
+      policy.record("api.rebolt.io", i * 1_000_000L);
+    }
+    long delay = policy.delay("api.rebolt.io");
+    assertTrue(delay >= 94 && delay <= 96);
+
+    // budget: burst 2회 이후에는 요청 10회당 1회
+    assertTrue(policy.tryHedge());
+    assertTrue(policy.tryHedge());
+    assertFalse(policy.tryHedge());
+    for (int i = 0; i < 10; i++) {
+      policy.delay("api.rebolt.io");
+    }
+    assertTrue(policy.tryHedge());
+    assertFalse(policy.tryHedge());
+    assertTrue(policy.getStats().getHedged() == 3 && policy.getStats().getExhausted() == 2);
+  }
+
+  @Test
+  public void test_policy() {
+    RetryPolicy policy = new RetryPolicy.Builder().retryOnStatus(500, 599).retryOnStatus(429)
+        .retryOnException(ConnectException.class, SocketTimeoutException.class)
+        .retryOnHeader("X-Retryable", "true"::equals).build();
+    Function<String, String> none = name -> null;
+    HttpRequest get = HttpRequest.create().uri("http://api.rebolt.io");
+    HttpRequest post = HttpRequest.create(String.class, String.class).method(HttpMethod.Post).uri("http://api.rebolt.io");
+    assertTrue(policy.isRetryable(get, 502, none));
+    assertFalse(policy.isRetryable(get, 404, none));
+    assertTrue(policy.isRetryable(get, 400, name -> "X-Retryable".equals(name) ? "true" : null));
+    assertTrue(policy.isRetryable(get, new SocketTimeoutException()));
+
+    // 멱등하지 않은 요청은 처리되지 않은 것이 확실한 경우에만 재시도한다
+    assertFalse(policy.isRetryable(post, 504, none));
+    assertTrue(policy.isRetryable(post, 429, none));
+    assertTrue(policy.isRetryable(post, new ConnectException()));
+    assertFalse(policy.isRetryable(post, new SocketTimeoutException()));
+    assertTrue(policy.isRetryable(post.idempotent(), 504, none));
+
+    // Retry-After, 최대 소요시간
+    Function<String, String> retryAfter = name -> "Retry-After".equals(name) ? "2" : null;
+    RetryContext retry = new RetryContext(3, new RetryBackoff(0, 5000), policy, get);
+    assertTrue(retry.isRetryable(429, retryAfter));
+    assertTrue(retry.next(429, retryAfter) == 2000);
+    assertTrue(retry.next(500, retryAfter) == 0); // Retry-After는 429, 503에만 적용한다
+    retry = new RetryContext(3, new RetryBackoff(0, 1000), policy, get);
+    assertFalse(retry.isRetryable(429, retryAfter)); // 최대 대기시간보다 긴 Retry-After는 응답을 그대로 반환한다
+    assertTrue(retry.next(429, retryAfter) < 0);
+    assertTrue(retry.getAttempt() == 0);
+    RetryPolicy bounded = new RetryPolicy.Builder().setMaxElapsedTime(1000).build();
+    retry = new RetryContext(3, new RetryBackoff(0, 0), bounded, get);
+    assertTrue(retry.next(503, retryAfter) < 0);
+    assertTrue(retry.next() == 0);
+  }
+
+  @Test
+  public void test_status() {
+    assertTrue(HttpStatus.lookup(502) == HttpStatus.BAD_GATEWAY_502);
+    assertTrue(HttpStatus.lookup(418) == HttpStatus.BAD_REQUEST_400);
+    assertTrue(HttpStatus.lookup(507) == HttpStatus.INTERNAL_SERVER_ERROR_500);
+    assertTrue(HttpStatus.lookup(0) == null);
+  }
+
+  @Test
+  public void test_deadline() throws InterruptedException {
+    HttpRequest request = HttpRequest.create().uri("http://api.rebolt.io");
+    assertFalse(request.hasDeadline());
+    assertTrue(request.getRemainingTime() == Long.MAX_VALUE);
+    request.deadline(50, TimeUnit.MILLISECONDS);
+    assertTrue(request.getRemainingTime() > 0 && request.getRemainingTime() <= 50);
+    assertTrue(request.copy().hasDeadline());
+
+    // deadline 전에 시작할 수 없는 재시도는 하지 않는다
+    RetryContext retry = new RetryContext(3, new RetryBackoff(0, 5000), new RetryPolicy.Builder().build(), request);
+    assertFalse(retry.isRetryable(429, name -> "Retry-After".equals(name) ? "1" : null));
+    assertTrue(retry.next(429, name -> "Retry-After".equals(name) ? "1" : null) < 0);
+    assertTrue(retry.getAttempt() == 0);
+    assertTrue(retry.next() == 0);
+    Thread.sleep(60);
+    assertTrue(request.isExpired());
+  }
+}
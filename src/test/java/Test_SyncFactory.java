@@ -21,9 +21,14 @@ import io.rebolt.http.HttpRequest;
 import io.rebolt.http.HttpResponse;
 import io.rebolt.http.HttpStatus;
 import io.rebolt.http.engines.OkHttp3Engine;
+import io.rebolt.http.factories.AsyncFactory;
 import io.rebolt.http.factories.SyncFactory;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertTrue;
 
 public final class Test_SyncFactory {
@@ -47,4 +52,32 @@ public final class Test_SyncFactory {
     assertTrue(response.getStatus().equals(HttpStatus.NOT_FOUND_404));
     assertTrue(response.getError().get("errorCode").asInt() == -2);
   }
+
+  @Test
+  public void test_sharedConnectionPool() throws Exception {
+    MockWebServer server = new MockWebServer();
+    for (int i = 0; i < 4; i++) {
+      server.enqueue(new MockResponse().setBody("ok"));
+    }
+    server.start();
+    try {
+      SyncFactory sync = new SyncFactory();
+      AsyncFactory async = new AsyncFactory();
+      SyncFactory other = new SyncFactory();
+      async.shareConnectionPool(sync);
+      other.shareConnectionPool(async);
+      String uri = server.url("/pool").toString();
+
+      // 동기, 비동기, 다른 팩토리의 요청이 모두 같은 커넥션을 재사용한다 (커넥션별 요청 순번: 0, 1, 2, 3)
+      assertTrue(sync.<String, String>invoke(HttpRequest.create(String.class).uri(uri)).getStatus().equals(HttpStatus.OK_200));
+      assertTrue(async.<String, String>invokeAsync(HttpRequest.create(String.class).uri(uri)).get(5, TimeUnit.SECONDS).getStatus().equals(HttpStatus.OK_200));
+      assertTrue(other.<String, String>invoke(HttpRequest.create(String.class).uri(uri)).getStatus().equals(HttpStatus.OK_200));
+      assertTrue(sync.<String, String>invoke(HttpRequest.create(String.class).uri(uri)).getStatus().equals(HttpStatus.OK_200));
+      for (int i = 0; i < 4; i++) {
+        assertTrue(server.takeRequest().getSequenceNumber() == i);
+      }
+    } finally {
+      server.shutdown();
+    }
+  }
 }